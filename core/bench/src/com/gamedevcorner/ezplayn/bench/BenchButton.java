@@ -0,0 +1,48 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.bench;
+
+import playn.core.*;
+
+import com.gamedevcorner.ezplayn.core.*;
+
+/**
+ * A plain expanding button that counts the presses it receives.
+ * @author Prageeth Silva
+ */
+public class BenchButton extends AbstractButton
+{
+
+    private int presses = 0;
+
+    public BenchButton(int width, int height, Image background)
+    {
+        super(width, height, background, null);
+    }
+
+    @Override
+    public void onPointerDown(int x, int y)
+    {
+        super.onPointerDown(x, y);
+        this.presses++;
+    }
+
+    public int getPresses()
+    {
+        return this.presses;
+    }
+
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.bench;
+
+import com.gamedevcorner.ezplayn.core.*;
+import com.gamedevcorner.ezplayn.headless.HeadlessPlatform;
+
+/**
+ * The game driven by the benchmarks. It runs on a {@link HeadlessPlatform}
+ * and has no screens of its own, the benchmarks switch to their own
+ * {@link BenchScreen}s.
+ * @author Prageeth Silva
+ */
+public class BenchGame extends AbstractExtendedGame
+{
+
+    public static final int WIDTH = 640;
+    public static final int HEIGHT = 480;
+
+    /**
+     * Creates and initialises a game, past its loading frames.
+     * @return The game, showing the default loading screen.
+     */
+    public static BenchGame start()
+    {
+        HeadlessPlatform platform = HeadlessPlatform.register();
+        BenchGame game = new BenchGame(platform);
+        platform.run(game);
+        // the first two frames trigger the screen loading
+        platform.runFrames(2, 0);
+        return game;
+    }
+
+    private final HeadlessPlatform platform;
+
+    private BenchGame(HeadlessPlatform platform)
+    {
+        super(WIDTH, HEIGHT);
+        this.platform = platform;
+    }
+
+    public HeadlessPlatform getPlatform()
+    {
+        return this.platform;
+    }
+
+    @Override
+    public AbstractGameScreen<?> loadScreens()
+    {
+        return null;
+    }
+
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.bench;
+
+import java.util.*;
+
+import playn.core.*;
+
+import static playn.core.PlayN.graphics;
+
+import com.gamedevcorner.ezplayn.core.*;
+
+/**
+ * A screen filled with a grid of {@link BenchButton}s covering the whole screen.
+ * @author Prageeth Silva
+ */
+public class BenchScreen extends AbstractGameScreen<BenchGame>
+{
+
+    private final List<BenchButton> buttons = new ArrayList<BenchButton>();
+
+    /**
+     * Creates a screen with the given number of buttons laid out in a grid.
+     * @param game The game the screen belongs to
+     * @param controls The number of buttons
+     */
+    public BenchScreen(BenchGame game, int controls)
+    {
+
+        super(game, game.getScreenWidth(), game.getScreenHeight());
+
+        int cols = (int)Math.ceil(Math.sqrt(controls * (double)this.width / this.height));
+        int rows = (controls + cols - 1) / cols;
+        int cellWidth = Math.max(1, this.width / cols);
+        int cellHeight = Math.max(1, this.height / rows);
+
+        // all the buttons share one background, like an atlas page would
+        Image background = graphics().createImage(cellWidth, cellHeight);
+
+        for (int i = 0; i < controls; i++)
+        {
+            BenchButton b = new BenchButton(cellWidth, cellHeight, background);
+            b.commitLayout((i % cols) * cellWidth, (i / cols) * cellHeight);
+            this.buttons.add(b);
+            this.addChildControl(b);
+        }
+        this.rootLayer.add(this.controlLayer);
+
+    }
+
+    @Override
+    public void init(ActionCallback<Void> callback, Object obj) { /* NOOP */ }
+
+    public List<BenchButton> getButtons()
+    {
+        return this.buttons;
+    }
+
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.bench;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.gamedevcorner.ezplayn.core.*;
+
+/**
+ * Measures the expand and scale handling of {@link AbstractButton} when
+ * every button of a screen is pressed and released.
+ * @author Prageeth Silva
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ButtonBenchmark
+{
+
+    @Param({ "10", "100", "1000", "10000" })
+    public int controls;
+
+    private List<BenchButton> buttons;
+
+    @Setup
+    public void setUp()
+    {
+        BenchGame game = BenchGame.start();
+        BenchScreen screen = new BenchScreen(game, this.controls);
+        game.setCurrentScreen(screen, null);
+        this.buttons = screen.getButtons();
+    }
+
+    @Benchmark
+    public void pressAndRelease()
+    {
+        BenchButton b;
+        for (int i = 0; i < this.buttons.size(); i++)
+        {
+            b = this.buttons.get(i);
+            b.onPointerDown(0, 0);
+            b.onPointerUp(0, 0);
+        }
+    }
+
+    @Benchmark
+    public void changeExpandScale()
+    {
+        BenchButton b;
+        for (int i = 0; i < this.buttons.size(); i++)
+        {
+            b = this.buttons.get(i);
+            b.setExpandScale(b.getExpandScale() > 1.1f ? 1.1f : 1.2f);
+        }
+    }
+
+}
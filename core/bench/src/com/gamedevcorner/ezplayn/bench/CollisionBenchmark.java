@@ -0,0 +1,108 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.bench;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.gamedevcorner.ezplayn.core.*;
+
+/**
+ * Measures finding the contacts between drifting bodies with a {@link CollisionWorld},
+ * against testing every pair of bodies.
+ * @author Prageeth Silva
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark
+{
+
+    private static final float WIDTH = 640;
+    private static final float HEIGHT = 480;
+
+    @Param({ "10", "100", "1000", "5000" })
+    public int bodies;
+
+    private CollisionBody[] shapes;
+    private float[] velocities;
+    private CollisionWorld world;
+
+    @Setup
+    public void setUp()
+    {
+        Random random = new Random(1);
+        this.shapes = new CollisionBody[this.bodies];
+        this.velocities = new float[this.bodies * 2];
+        this.world = new CollisionWorld(this.bodies);
+        for (int i = 0; i < this.bodies; i++)
+        {
+            float x = random.nextFloat() * WIDTH;
+            float y = random.nextFloat() * HEIGHT;
+            this.shapes[i] = (i % 2 == 0) ? CollisionBody.createRectangle(x, y, 8, 8) : CollisionBody.createCircle(x, y, 4);
+            this.velocities[i * 2] = random.nextFloat() * 4 - 2;
+            this.velocities[i * 2 + 1] = random.nextFloat() * 4 - 2;
+            this.world.add(this.shapes[i]);
+        }
+    }
+
+    @Benchmark
+    public int sweepAndPrune()
+    {
+        this.move();
+        return this.world.update();
+    }
+
+    @Benchmark
+    public int bruteForce()
+    {
+        this.move();
+        int contacts = 0;
+        for (int i = 0; i < this.bodies; i++)
+        {
+            CollisionBody a = this.shapes[i];
+            for (int j = i + 1; j < this.bodies; j++)
+            {
+                CollisionBody b = this.shapes[j];
+                if (a.accepts(b) && a.intersects(b))
+                {
+                    contacts++;
+                }
+            }
+        }
+        return contacts;
+    }
+
+    /**
+     * Moves every body a little, bouncing off the edges of the window.
+     */
+    private void move()
+    {
+        for (int i = 0; i < this.bodies; i++)
+        {
+            CollisionBody body = this.shapes[i];
+            if (body.getMinX() < 0 || body.getMaxX() > WIDTH) { this.velocities[i * 2] = -this.velocities[i * 2]; }
+            if (body.getMinY() < 0 || body.getMaxY() > HEIGHT) { this.velocities[i * 2 + 1] = -this.velocities[i * 2 + 1]; }
+            body.translate(this.velocities[i * 2], this.velocities[i * 2 + 1]);
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.bench;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.gamedevcorner.ezplayn.core.*;
+
+/**
+ * Measures the event dispatch of {@link AbstractGameScreen}: pointer hit-testing
+ * through the spatial index, broadcast key events and a whole platform frame
+ * of queued input, update and paint.
+ * @author Prageeth Silva
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark
+{
+
+    private static final int POINTS = 256;
+
+    @Param({ "10", "100", "1000", "10000" })
+    public int controls;
+
+    private BenchGame game;
+    private BenchScreen screen;
+
+    private final int[] xs = new int[POINTS];
+    private final int[] ys = new int[POINTS];
+    private int next = 0;
+
+    @Setup
+    public void setUp()
+    {
+        this.game = BenchGame.start();
+        this.screen = new BenchScreen(this.game, this.controls);
+        this.game.setCurrentScreen(this.screen, null);
+        // the same points on every run, so results can be compared
+        Random random = new Random(42);
+        for (int i = 0; i < POINTS; i++)
+        {
+            this.xs[i] = random.nextInt(BenchGame.WIDTH);
+            this.ys[i] = random.nextInt(BenchGame.HEIGHT);
+        }
+    }
+
+    @Benchmark
+    public void pointerClick()
+    {
+        int i = this.nextPoint();
+        this.screen.onPointerDown(this.xs[i], this.ys[i]);
+        this.screen.onPointerUp(this.xs[i], this.ys[i]);
+    }
+
+    @Benchmark
+    public void pointerMove()
+    {
+        int i = this.nextPoint();
+        this.screen.onPointerMove(this.xs[i], this.ys[i]);
+    }
+
+    @Benchmark
+    public void keyPress()
+    {
+        this.screen.onKeyDown(' ');
+        this.screen.onKeyUp(' ');
+    }
+
+    @Benchmark
+    public void frame()
+    {
+        int i = this.nextPoint();
+        this.game.getPlatform().pointer().drag(this.xs[i], this.ys[i]);
+        this.game.getPlatform().frame(16);
+    }
+
+    private int nextPoint()
+    {
+        this.next = (this.next + 1) & (POINTS - 1);
+        return this.next;
+    }
+
+}
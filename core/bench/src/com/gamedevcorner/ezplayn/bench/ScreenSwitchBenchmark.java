@@ -0,0 +1,61 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.gamedevcorner.ezplayn.core.*;
+
+/**
+ * Measures {@link AbstractExtendedGame#setCurrentScreen(AbstractGameScreen, Object)}
+ * switching back and forth between two screens that are already built.
+ * @author Prageeth Silva
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScreenSwitchBenchmark
+{
+
+    @Param({ "10", "100", "1000", "10000" })
+    public int controls;
+
+    private BenchGame game;
+    private BenchScreen first;
+    private BenchScreen second;
+
+    @Setup
+    public void setUp()
+    {
+        this.game = BenchGame.start();
+        this.first = new BenchScreen(this.game, this.controls);
+        this.second = new BenchScreen(this.game, this.controls);
+        this.game.setCurrentScreen(this.first, null);
+    }
+
+    @Benchmark
+    public void switchScreen()
+    {
+        AbstractGameScreen<?> current = this.game.getCurrentScreen();
+        this.game.setCurrentScreen(current == this.first ? this.second : this.first, null);
+    }
+
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.bench;
+
+import static playn.core.PlayN.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import playn.core.*;
+
+import com.gamedevcorner.ezplayn.core.*;
+
+/**
+ * Measures a frame of a {@link SpriteBatch} full of bouncing sprites.
+ * @author Prageeth Silva
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpriteBatchBenchmark
+{
+
+    @Param({ "10", "100", "1000", "10000" })
+    public int sprites;
+
+    private SpriteBatch batch;
+
+    @Setup
+    public void setUp()
+    {
+        BenchGame.start();
+        Random random = new Random(1);
+        Image sheet = graphics().createImage(64, 16);
+        this.batch = new SpriteBatch(640, 480, this.sprites);
+        int frames = 4;
+        for (int i = 0; i < frames; i++)
+        {
+            this.batch.addFrame(sheet, i * 16, 0, 16, 16);
+        }
+        for (int i = 0; i < this.sprites; i++)
+        {
+            int s = this.batch.add(random.nextInt(624), random.nextInt(464), i % frames);
+            this.batch.setVelocity(s, random.nextFloat() * 200 - 100, random.nextFloat() * 200 - 100);
+            this.batch.setFlags(s, SpriteBatch.VISIBLE | SpriteBatch.BOUNCE);
+        }
+    }
+
+    @Benchmark
+    public int frame()
+    {
+        this.batch.update(16);
+        this.batch.paint(0);
+        return this.batch.getDrawnCount();
+    }
+
+}
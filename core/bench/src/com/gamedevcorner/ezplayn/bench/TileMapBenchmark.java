@@ -0,0 +1,73 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.bench;
+
+import static playn.core.PlayN.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import playn.core.*;
+
+import com.gamedevcorner.ezplayn.core.*;
+
+/**
+ * Measures scrolling a 1000 by 1000 {@link TileMap} diagonally, one paint per step.
+ * @author Prageeth Silva
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TileMapBenchmark
+{
+
+    private static final int SIZE = 1000;
+
+    @Param({ "8", "16", "32" })
+    public int chunkSize;
+
+    private TileMap map;
+    private float scroll;
+
+    @Setup
+    public void setUp()
+    {
+        BenchGame.start();
+        Image tileset = graphics().createImage(128, 128);
+        this.map = new TileMap(640, 480, tileset, 16, 16, SIZE, SIZE, this.chunkSize);
+        int[] tiles = new int[SIZE * SIZE];
+        for (int i = 0; i < tiles.length; i++)
+        {
+            tiles[i] = i % 64;
+        }
+        this.map.setTiles(tiles);
+        this.scroll = 0;
+    }
+
+    @Benchmark
+    public int scroll()
+    {
+        this.scroll = (this.scroll + 3) % (SIZE * 16 - 640);
+        this.map.setScroll(this.scroll, this.scroll);
+        this.map.paint(0);
+        return this.map.getDrawnChunkCount();
+    }
+
+}
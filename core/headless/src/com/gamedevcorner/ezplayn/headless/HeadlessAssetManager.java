@@ -0,0 +1,106 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.headless;
+
+import java.io.File;
+import java.util.*;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+import playn.core.*;
+
+/**
+ * Assets of the {@link HeadlessPlatform}. Images have no pixels, only the size
+ * registered with {@link #putImage(String, int, int)}, or none at all.
+ * Text registered with {@link #putText(String, String)} is returned as is,
+ * any other text is read from the file system like the Java platform does.
+ * Every asset is ready as soon as it is requested.
+ * @author Prageeth Silva
+ */
+public class HeadlessAssetManager extends AbstractAssetManager
+{
+
+    private final Map<String, int[]> imageSizes = new HashMap<String, int[]>();
+    private final Map<String, String> texts = new HashMap<String, String>();
+
+    private String pathPrefix = "war";
+
+    /**
+     * Sets the size of the image returned for a path.
+     * @param path The asset path
+     * @param width The width in pixels
+     * @param height The height in pixels
+     */
+    public void putImage(String path, int width, int height)
+    {
+        this.imageSizes.put(path, new int[] { width, height });
+    }
+
+    /**
+     * Sets the text returned for a path, instead of reading the file.
+     * @param path The asset path
+     * @param text The content
+     */
+    public void putText(String path, String text)
+    {
+        this.texts.put(path, text);
+    }
+
+    /**
+     * Sets the directory text files are read from, "war" by default.
+     * @param pathPrefix The directory
+     */
+    public void setPathPrefix(String pathPrefix)
+    {
+        this.pathPrefix = pathPrefix;
+    }
+
+    @Override
+    protected Image doGetImage(String path)
+    {
+        int[] size = this.imageSizes.get(path);
+        return size == null ? new HeadlessImage(0, 0) : new HeadlessImage(size[0], size[1]);
+    }
+
+    @Override
+    protected Sound doGetSound(String path)
+    {
+        return new HeadlessSound();
+    }
+
+    @Override
+    protected void doGetText(String path, ResourceCallback<String> callback)
+    {
+        String text = this.texts.get(path);
+        if (text != null)
+        {
+            callback.done(text);
+            return;
+        }
+        try
+        {
+            text = Files.toString(new File(this.pathPrefix, path), Charsets.UTF_8);
+        }
+        catch (Throwable e)
+        {
+            callback.error(e);
+            return;
+        }
+        callback.done(text);
+    }
+
+}
@@ -0,0 +1,271 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.headless;
+
+import playn.core.*;
+
+/**
+ * A canvas that draws nothing. It counts the drawing calls made on it,
+ * so tests can check how often something is redrawn.
+ * @author Prageeth Silva
+ */
+public class HeadlessCanvas implements Canvas
+{
+
+    private final int width;
+    private final int height;
+
+    private int drawCount = 0;
+    private int clearCount = 0;
+
+    HeadlessCanvas(int width, int height)
+    {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Gets the number of drawing calls, that is images, text, shapes and fills.
+     * @return The drawing calls since the canvas was created or the count was reset.
+     */
+    public int getDrawCount()
+    {
+        return this.drawCount;
+    }
+
+    public int getClearCount()
+    {
+        return this.clearCount;
+    }
+
+    public void resetCounts()
+    {
+        this.drawCount = 0;
+        this.clearCount = 0;
+    }
+
+    private Canvas drawn()
+    {
+        this.drawCount++;
+        return this;
+    }
+
+    @Override
+    public int width()
+    {
+        return this.width;
+    }
+
+    @Override
+    public int height()
+    {
+        return this.height;
+    }
+
+    @Override
+    public Canvas clear()
+    {
+        this.clearCount++;
+        return this;
+    }
+
+    @Override
+    public Canvas drawImage(Image image, float dx, float dy)
+    {
+        return this.drawn();
+    }
+
+    @Override
+    public Canvas drawImageCentered(Image image, float dx, float dy)
+    {
+        return this.drawn();
+    }
+
+    @Override
+    public Canvas drawImage(Image image, float dx, float dy, float dw, float dh)
+    {
+        return this.drawn();
+    }
+
+    @Override
+    public Canvas drawImage(Image image, float dx, float dy, float dw, float dh, float sx, float sy, float sw, float sh)
+    {
+        return this.drawn();
+    }
+
+    @Override
+    public Canvas drawLine(float x0, float y0, float x1, float y1)
+    {
+        return this.drawn();
+    }
+
+    @Override
+    public Canvas drawPoint(float x, float y)
+    {
+        return this.drawn();
+    }
+
+    @Override
+    public Canvas drawText(String text, float x, float y)
+    {
+        return this.drawn();
+    }
+
+    @Override
+    public Canvas drawText(TextLayout layout, float x, float y)
+    {
+        return this.drawn();
+    }
+
+    @Override
+    public Canvas fillCircle(float x, float y, float radius)
+    {
+        return this.drawn();
+    }
+
+    @Override
+    public Canvas fillPath(Path path)
+    {
+        return this.drawn();
+    }
+
+    @Override
+    public Canvas fillRect(float x, float y, float width, float height)
+    {
+        return this.drawn();
+    }
+
+    @Override
+    public Canvas strokeCircle(float x, float y, float radius)
+    {
+        return this.drawn();
+    }
+
+    @Override
+    public Canvas strokePath(Path path)
+    {
+        return this.drawn();
+    }
+
+    @Override
+    public Canvas strokeRect(float x, float y, float width, float height)
+    {
+        return this.drawn();
+    }
+
+    @Override
+    public Canvas clip(Path clipPath)
+    {
+        return this;
+    }
+
+    @Override
+    public Canvas save()
+    {
+        return this;
+    }
+
+    @Override
+    public Canvas restore()
+    {
+        return this;
+    }
+
+    @Override
+    public Canvas rotate(float radians)
+    {
+        return this;
+    }
+
+    @Override
+    public Canvas scale(float x, float y)
+    {
+        return this;
+    }
+
+    @Override
+    public Canvas translate(float x, float y)
+    {
+        return this;
+    }
+
+    @Override
+    public Canvas transform(float m11, float m12, float m21, float m22, float dx, float dy)
+    {
+        return this;
+    }
+
+    @Override
+    public Canvas setTransform(float m11, float m12, float m21, float m22, float dx, float dy)
+    {
+        return this;
+    }
+
+    @Override
+    public Canvas setCompositeOperation(Composite composite)
+    {
+        return this;
+    }
+
+    @Override
+    public Canvas setFillColor(int color)
+    {
+        return this;
+    }
+
+    @Override
+    public Canvas setFillGradient(Gradient gradient)
+    {
+        return this;
+    }
+
+    @Override
+    public Canvas setFillPattern(Pattern pattern)
+    {
+        return this;
+    }
+
+    @Override
+    public Canvas setLineCap(LineCap cap)
+    {
+        return this;
+    }
+
+    @Override
+    public Canvas setLineJoin(LineJoin join)
+    {
+        return this;
+    }
+
+    @Override
+    public Canvas setMiterLimit(float miter)
+    {
+        return this;
+    }
+
+    @Override
+    public Canvas setStrokeColor(int color)
+    {
+        return this;
+    }
+
+    @Override
+    public Canvas setStrokeWidth(float strokeWidth)
+    {
+        return this;
+    }
+
+}
@@ -0,0 +1,240 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.headless;
+
+import playn.core.*;
+
+/**
+ * Graphics of the {@link HeadlessPlatform}. Layers keep their hierarchy and
+ * transforms in memory so the scene can be inspected, nothing is rendered.
+ * @author Prageeth Silva
+ */
+public class HeadlessGraphics implements Graphics
+{
+
+    /** The approximate width of a character relative to the font size, used to lay out text. */
+    private static final float CHAR_WIDTH = 0.6f;
+
+    private static final float DEFAULT_FONT_SIZE = 12;
+
+    private final HeadlessGroupLayer rootLayer = new HeadlessGroupLayer();
+
+    private int width = 640;
+    private int height = 480;
+
+    @Override
+    public HeadlessGroupLayer rootLayer()
+    {
+        return this.rootLayer;
+    }
+
+    @Override
+    public CanvasLayer createCanvasLayer(int width, int height)
+    {
+        return new HeadlessCanvasLayer(width, height);
+    }
+
+    @Override
+    public GroupLayer createGroupLayer()
+    {
+        return new HeadlessGroupLayer();
+    }
+
+    @Override
+    public SurfaceLayer createSurfaceLayer(int width, int height)
+    {
+        return new HeadlessSurfaceLayer(width, height);
+    }
+
+    @Override
+    public ImageLayer createImageLayer()
+    {
+        return new HeadlessImageLayer(null);
+    }
+
+    @Override
+    public ImageLayer createImageLayer(Image image)
+    {
+        return new HeadlessImageLayer(image);
+    }
+
+    @Override
+    public CanvasImage createImage(int width, int height)
+    {
+        return new HeadlessImage(width, height);
+    }
+
+    @Override
+    public Gradient createLinearGradient(float x0, float y0, float x1, float y1, int[] colors, float[] positions)
+    {
+        return new HeadlessGradient();
+    }
+
+    @Override
+    public Gradient createRadialGradient(float x, float y, float r, int[] colors, float[] positions)
+    {
+        return new HeadlessGradient();
+    }
+
+    @Override
+    public Path createPath()
+    {
+        return new HeadlessPath();
+    }
+
+    @Override
+    public Pattern createPattern(Image img)
+    {
+        return new HeadlessPattern();
+    }
+
+    @Override
+    public Font createFont(String name, Font.Style style, float size)
+    {
+        return new HeadlessFont(name, style, size);
+    }
+
+    /**
+     * Lays out the text assuming every character has the same width,
+     * which is enough for code that sizes things from the layout.
+     */
+    @Override
+    public TextLayout layoutText(String text, TextFormat format)
+    {
+        float size = format.font == null ? DEFAULT_FONT_SIZE : format.font.size();
+        float width = text.length() * size * CHAR_WIDTH;
+        int lines = 1;
+        if (format.shouldWrap() && width > format.wrapWidth)
+        {
+            lines = (int)Math.ceil(width / format.wrapWidth);
+            width = format.wrapWidth;
+        }
+        return new HeadlessTextLayout(width, lines * size, lines, format);
+    }
+
+    @Override
+    public int screenWidth()
+    {
+        return this.width;
+    }
+
+    @Override
+    public int screenHeight()
+    {
+        return this.height;
+    }
+
+    @Override
+    public int width()
+    {
+        return this.width;
+    }
+
+    @Override
+    public int height()
+    {
+        return this.height;
+    }
+
+    @Override
+    public void setSize(int width, int height)
+    {
+        this.width = width;
+        this.height = height;
+    }
+
+    /* Auxiliary Classes */
+
+    private static class HeadlessGradient implements Gradient { }
+
+    private static class HeadlessPattern implements Pattern { }
+
+    private static class HeadlessPath implements Path
+    {
+
+        @Override
+        public void reset() { /* NOOP */ }
+
+        @Override
+        public void close() { /* NOOP */ }
+
+        @Override
+        public void moveTo(float x, float y) { /* NOOP */ }
+
+        @Override
+        public void lineTo(float x, float y) { /* NOOP */ }
+
+        @Override
+        public void quadraticCurveTo(float cpx, float cpy, float x, float y) { /* NOOP */ }
+
+        @Override
+        public void arcTo(float x, float y, float radius) { /* NOOP */ }
+
+    }
+
+    private static class HeadlessFont extends AbstractFont
+    {
+
+        HeadlessFont(String name, Style style, float size)
+        {
+            super(name, style, size);
+        }
+
+    }
+
+    private static class HeadlessTextLayout implements TextLayout
+    {
+
+        private final float width;
+        private final float height;
+        private final int lineCount;
+        private final TextFormat format;
+
+        HeadlessTextLayout(float width, float height, int lineCount, TextFormat format)
+        {
+            this.width = width;
+            this.height = height;
+            this.lineCount = lineCount;
+            this.format = format;
+        }
+
+        @Override
+        public float width()
+        {
+            return this.width;
+        }
+
+        @Override
+        public float height()
+        {
+            return this.height;
+        }
+
+        @Override
+        public int lineCount()
+        {
+            return this.lineCount;
+        }
+
+        @Override
+        public TextFormat format()
+        {
+            return this.format;
+        }
+
+    }
+
+}
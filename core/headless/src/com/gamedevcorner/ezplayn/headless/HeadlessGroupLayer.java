@@ -0,0 +1,120 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.headless;
+
+import playn.core.*;
+
+/**
+ * A group layer that keeps its children in memory, ordered by depth.
+ * @author Prageeth Silva
+ */
+public class HeadlessGroupLayer extends AbstractLayer implements GroupLayer, ParentLayer
+{
+
+    private final GroupLayerImpl<AbstractLayer> impl = new GroupLayerImpl<AbstractLayer>();
+
+    @Override
+    public Layer get(int index)
+    {
+        return this.impl.children.get(index);
+    }
+
+    @Override
+    public void add(Layer layer)
+    {
+        this.impl.add(this, (AbstractLayer)layer);
+    }
+
+    @Deprecated
+    @Override
+    public void add(int index, Layer layer)
+    {
+        this.impl.add(this, index, (AbstractLayer)layer);
+    }
+
+    @Override
+    public void remove(Layer layer)
+    {
+        this.impl.remove(this, (AbstractLayer)layer);
+    }
+
+    @Deprecated
+    @Override
+    public void remove(int index)
+    {
+        this.impl.remove(this, index);
+    }
+
+    @Override
+    public void clear()
+    {
+        this.impl.clear(this);
+    }
+
+    @Override
+    public int size()
+    {
+        return this.impl.children.size();
+    }
+
+    @Override
+    public void destroy()
+    {
+        this.impl.destroy(this);
+        super.destroy();
+    }
+
+    @Override
+    public void onAdd()
+    {
+        super.onAdd();
+        this.impl.onAdd(this);
+    }
+
+    @Override
+    public void onRemove()
+    {
+        super.onRemove();
+        this.impl.onRemove(this);
+    }
+
+    @Override
+    public void depthChanged(Layer layer, float oldDepth)
+    {
+        this.impl.depthChanged(this, layer, oldDepth);
+    }
+
+    /**
+     * Counts the visible layers in this group and all its nested groups,
+     * not counting this group itself.
+     * @return The number of visible descendants.
+     */
+    public int countVisibleLayers()
+    {
+        int count = 0;
+        for (AbstractLayer child : this.impl.children)
+        {
+            if (!child.visible()) { continue; }
+            count++;
+            if (child instanceof HeadlessGroupLayer)
+            {
+                count += ((HeadlessGroupLayer)child).countVisibleLayers();
+            }
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.headless;
+
+import playn.core.*;
+
+/**
+ * An image with a size but no pixels, which is always ready.
+ * It doubles as a canvas image, drawing on it is only counted.
+ * @author Prageeth Silva
+ */
+public class HeadlessImage implements CanvasImage
+{
+
+    private int width;
+    private int height;
+
+    private HeadlessCanvas canvas = null;
+
+    public HeadlessImage(int width, int height)
+    {
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public HeadlessCanvas canvas()
+    {
+        if (this.canvas == null)
+        {
+            this.canvas = new HeadlessCanvas(this.width, this.height);
+        }
+        return this.canvas;
+    }
+
+    @Override
+    public int width()
+    {
+        return this.width;
+    }
+
+    @Override
+    public int height()
+    {
+        return this.height;
+    }
+
+    @Override
+    public void replaceWith(Image image)
+    {
+        this.width = image.width();
+        this.height = image.height();
+        this.canvas = null;
+    }
+
+    @Override
+    public void addCallback(ResourceCallback<Image> callback)
+    {
+        callback.done(this);
+    }
+
+    @Override
+    public boolean isReady()
+    {
+        return true;
+    }
+
+}
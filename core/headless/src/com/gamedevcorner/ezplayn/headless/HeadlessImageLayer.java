@@ -0,0 +1,161 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.headless;
+
+import playn.core.*;
+
+/**
+ * An image layer that only remembers its image, size and source rectangle.
+ * @author Prageeth Silva
+ */
+public class HeadlessImageLayer extends HeadlessSizedLayer implements ImageLayer
+{
+
+    private Image image = null;
+
+    private boolean widthSet = false;
+    private boolean heightSet = false;
+
+    private boolean sourceRectSet = false;
+    private float sourceX, sourceY, sourceWidth, sourceHeight;
+
+    private boolean repeatX = false;
+    private boolean repeatY = false;
+
+    HeadlessImageLayer(Image image)
+    {
+        this.setImage(image);
+    }
+
+    @Override
+    public Image image()
+    {
+        return this.image;
+    }
+
+    @Override
+    public void setImage(Image image)
+    {
+        this.image = image;
+        if (!this.widthSet)
+        {
+            this.clearWidth();
+        }
+        if (!this.heightSet)
+        {
+            this.clearHeight();
+        }
+    }
+
+    @Override
+    public void setWidth(float width)
+    {
+        this.width = width;
+        this.widthSet = true;
+    }
+
+    @Override
+    public void setHeight(float height)
+    {
+        this.height = height;
+        this.heightSet = true;
+    }
+
+    @Override
+    public void setSize(float width, float height)
+    {
+        this.setWidth(width);
+        this.setHeight(height);
+    }
+
+    @Override
+    public void clearWidth()
+    {
+        this.width = this.image == null ? 0 : this.image.width();
+        this.widthSet = false;
+    }
+
+    @Override
+    public void clearHeight()
+    {
+        this.height = this.image == null ? 0 : this.image.height();
+        this.heightSet = false;
+    }
+
+    @Override
+    public void setSourceRect(float x, float y, float width, float height)
+    {
+        this.sourceRectSet = true;
+        this.sourceX = x;
+        this.sourceY = y;
+        this.sourceWidth = width;
+        this.sourceHeight = height;
+    }
+
+    @Override
+    public void clearSourceRect()
+    {
+        this.sourceRectSet = false;
+    }
+
+    @Override
+    public void setRepeatX(boolean repeat)
+    {
+        this.repeatX = repeat;
+    }
+
+    @Override
+    public void setRepeatY(boolean repeat)
+    {
+        this.repeatY = repeat;
+    }
+
+    public boolean hasSourceRect()
+    {
+        return this.sourceRectSet;
+    }
+
+    public float getSourceX()
+    {
+        return this.sourceX;
+    }
+
+    public float getSourceY()
+    {
+        return this.sourceY;
+    }
+
+    public float getSourceWidth()
+    {
+        return this.sourceWidth;
+    }
+
+    public float getSourceHeight()
+    {
+        return this.sourceHeight;
+    }
+
+    public boolean isRepeatX()
+    {
+        return this.repeatX;
+    }
+
+    public boolean isRepeatY()
+    {
+        return this.repeatY;
+    }
+
+}
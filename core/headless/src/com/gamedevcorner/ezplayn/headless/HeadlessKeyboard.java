@@ -0,0 +1,64 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.headless;
+
+import playn.core.*;
+
+/**
+ * A keyboard driven by the code running the {@link HeadlessPlatform}.
+ * @author Prageeth Silva
+ */
+public class HeadlessKeyboard implements Keyboard
+{
+
+    private final HeadlessPlatform platform;
+
+    private Listener listener = null;
+
+    HeadlessKeyboard(HeadlessPlatform platform)
+    {
+        this.platform = platform;
+    }
+
+    @Override
+    public void setListener(Listener listener)
+    {
+        this.listener = listener;
+    }
+
+    public void keyDown(int keyCode)
+    {
+        if (this.listener == null) { return; }
+        this.listener.onKeyDown(new Event.Impl(this.platform.time(), keyCode));
+    }
+
+    public void keyUp(int keyCode)
+    {
+        if (this.listener == null) { return; }
+        this.listener.onKeyUp(new Event.Impl(this.platform.time(), keyCode));
+    }
+
+    /**
+     * Presses and releases a key.
+     * @param keyCode The key code
+     */
+    public void type(int keyCode)
+    {
+        this.keyDown(keyCode);
+        this.keyUp(keyCode);
+    }
+
+}
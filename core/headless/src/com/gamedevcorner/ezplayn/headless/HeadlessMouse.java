@@ -0,0 +1,66 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.headless;
+
+import playn.core.*;
+
+/**
+ * A mouse driven by the code running the {@link HeadlessPlatform}.
+ * @author Prageeth Silva
+ */
+public class HeadlessMouse implements Mouse
+{
+
+    private final HeadlessPlatform platform;
+
+    private Listener listener = null;
+
+    HeadlessMouse(HeadlessPlatform platform)
+    {
+        this.platform = platform;
+    }
+
+    @Override
+    public void setListener(Listener listener)
+    {
+        this.listener = listener;
+    }
+
+    public void buttonDown(float x, float y, int button)
+    {
+        if (this.listener == null) { return; }
+        this.listener.onMouseDown(new ButtonEvent.Impl(this.platform.time(), x, y, button));
+    }
+
+    public void buttonUp(float x, float y, int button)
+    {
+        if (this.listener == null) { return; }
+        this.listener.onMouseUp(new ButtonEvent.Impl(this.platform.time(), x, y, button));
+    }
+
+    public void move(float x, float y)
+    {
+        if (this.listener == null) { return; }
+        this.listener.onMouseMove(new MotionEvent.Impl(this.platform.time(), x, y));
+    }
+
+    public void wheel(float velocity)
+    {
+        if (this.listener == null) { return; }
+        this.listener.onMouseWheelScroll(new WheelEvent.Impl(this.platform.time(), velocity));
+    }
+
+}
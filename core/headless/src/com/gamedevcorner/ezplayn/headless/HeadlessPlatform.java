@@ -0,0 +1,410 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.headless;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+import playn.core.*;
+import playn.java.JavaJson;
+
+import com.gamedevcorner.ezplayn.core.FrameProfiler;
+
+/**
+ * A PlayN platform that needs no display. Layers are kept in memory, canvases
+ * only count what is drawn on them and time is a manual clock that moves only
+ * when a frame is stepped, so a game can be run as fast as the CPU allows,
+ * for example in soak tests, bots or benchmarks.
+ * Input is injected through {@link #pointer()}, {@link #keyboard()},
+ * {@link #mouse()} and {@link #touch()}.
+ * @author Prageeth Silva
+ */
+public class HeadlessPlatform implements Platform
+{
+
+    /**
+     * A profiler clock backed by <code>System.nanoTime()</code>, since the
+     * manual clock of this platform does not move while a frame is running.
+     * @see FrameProfiler#setClock(FrameProfiler.Clock)
+     */
+    public static final FrameProfiler.Clock SYSTEM_CLOCK = new FrameProfiler.Clock() {
+
+        @Override
+        public long nanoTime()
+        {
+            return System.nanoTime();
+        }
+
+    };
+
+    private final HeadlessGraphics graphics = new HeadlessGraphics();
+    private final HeadlessAssetManager assetManager = new HeadlessAssetManager();
+    private final HeadlessPointer pointer = new HeadlessPointer(this);
+    private final HeadlessKeyboard keyboard = new HeadlessKeyboard(this);
+    private final HeadlessMouse mouse = new HeadlessMouse(this);
+    private final HeadlessTouch touch = new HeadlessTouch(this);
+
+    private final Json json = new JavaJson();
+    private final Log log = new HeadlessLog();
+    private final Storage storage = new HeadlessStorage();
+    private final Net net = new HeadlessNet();
+    private final Audio audio = new Audio() { };
+    private final Analytics analytics = new HeadlessAnalytics();
+    private final RegularExpression regularExpression = new HeadlessRegularExpression();
+
+    private final Random random;
+
+    private Game game = null;
+    private int updateRate = 0;
+    private float accumulator = 0;
+
+    private double time = 0;
+    private long frameCount = 0;
+
+    /**
+     * Creates a headless platform and makes it the current PlayN platform.
+     * @return The registered platform.
+     */
+    public static HeadlessPlatform register()
+    {
+        return register(0);
+    }
+
+    /**
+     * Creates a headless platform and makes it the current PlayN platform.
+     * @param seed The seed of {@link #random()}, so runs can be repeated.
+     * @return The registered platform.
+     */
+    public static HeadlessPlatform register(long seed)
+    {
+        HeadlessPlatform platform = new HeadlessPlatform(seed);
+        PlayN.setPlatform(platform);
+        return platform;
+    }
+
+    protected HeadlessPlatform(long seed)
+    {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Initialises the game. Nothing else happens until frames are stepped
+     * with {@link #frame(float)} or {@link #runFrames(int, float)}.
+     * @param game The game to run
+     */
+    @Override
+    public void run(Game game)
+    {
+        this.game = game;
+        this.updateRate = game.updateRate();
+        this.accumulator = 0;
+        game.init();
+    }
+
+    /**
+     * Moves the clock forward and runs a single frame, the same way the Java
+     * platform does: once with the elapsed time, or in fixed steps of the
+     * game's update rate followed by an interpolated paint.
+     * @param delta The time covered by the frame in milliseconds
+     */
+    public void frame(float delta)
+    {
+
+        this.time += delta;
+        this.frameCount++;
+        if (this.game == null) { return; }
+
+        if (this.updateRate == 0)
+        {
+            this.game.update(delta);
+            this.game.paint(0);
+        }
+        else
+        {
+            this.accumulator += delta;
+            while (this.accumulator >= this.updateRate)
+            {
+                this.game.update(this.updateRate);
+                this.accumulator -= this.updateRate;
+            }
+            this.game.paint(this.accumulator / this.updateRate);
+        }
+
+    }
+
+    /**
+     * Runs a number of frames back to back.
+     * @param frames The number of frames
+     * @param delta The time covered by each frame in milliseconds
+     */
+    public void runFrames(int frames, float delta)
+    {
+        for (int i = 0; i < frames; i++)
+        {
+            this.frame(delta);
+        }
+    }
+
+    /**
+     * Moves the clock forward without running a frame.
+     * @param millis The time to add in milliseconds
+     */
+    public void advanceTime(double millis)
+    {
+        this.time += millis;
+    }
+
+    public Game getGame()
+    {
+        return this.game;
+    }
+
+    public long getFrameCount()
+    {
+        return this.frameCount;
+    }
+
+    /**
+     * Gets the manual clock.
+     * @return The time in milliseconds since the platform was created.
+     */
+    @Override
+    public double time()
+    {
+        return this.time;
+    }
+
+    @Override
+    public HeadlessGraphics graphics()
+    {
+        return this.graphics;
+    }
+
+    @Override
+    public HeadlessAssetManager assetManager()
+    {
+        return this.assetManager;
+    }
+
+    @Override
+    public HeadlessPointer pointer()
+    {
+        return this.pointer;
+    }
+
+    @Override
+    public HeadlessKeyboard keyboard()
+    {
+        return this.keyboard;
+    }
+
+    @Override
+    public HeadlessMouse mouse()
+    {
+        return this.mouse;
+    }
+
+    @Override
+    public HeadlessTouch touch()
+    {
+        return this.touch;
+    }
+
+    @Override
+    public Audio audio()
+    {
+        return this.audio;
+    }
+
+    @Override
+    public Json json()
+    {
+        return this.json;
+    }
+
+    @Override
+    public Log log()
+    {
+        return this.log;
+    }
+
+    @Override
+    public Net net()
+    {
+        return this.net;
+    }
+
+    @Override
+    public Storage storage()
+    {
+        return this.storage;
+    }
+
+    @Override
+    public Analytics analytics()
+    {
+        return this.analytics;
+    }
+
+    @Override
+    public RegularExpression regularExpression()
+    {
+        return this.regularExpression;
+    }
+
+    @Override
+    public float random()
+    {
+        return this.random.nextFloat();
+    }
+
+    @Override
+    public Type type()
+    {
+        return Type.JAVA;
+    }
+
+    @Override
+    public void openURL(String url) { /* NOOP */ }
+
+    /* Auxiliary Classes */
+
+    /**
+     * Writes warnings and errors to the standard error stream, drops the rest.
+     */
+    private static class HeadlessLog implements Log
+    {
+
+        @Override
+        public void error(String msg, Throwable e)
+        {
+            System.err.println("ERROR: " + msg);
+            if (e != null)
+            {
+                e.printStackTrace();
+            }
+        }
+
+        @Override
+        public void error(String msg)
+        {
+            this.error(msg, null);
+        }
+
+        @Override
+        public void warn(String msg, Throwable e)
+        {
+            System.err.println("WARN: " + msg);
+            if (e != null)
+            {
+                e.printStackTrace();
+            }
+        }
+
+        @Override
+        public void warn(String msg)
+        {
+            this.warn(msg, null);
+        }
+
+        @Override
+        public void info(String msg) { /* NOOP */ }
+
+        @Override
+        public void info(String msg, Throwable e) { /* NOOP */ }
+
+        @Override
+        public void debug(String msg) { /* NOOP */ }
+
+        @Override
+        public void debug(String msg, Throwable e) { /* NOOP */ }
+
+    }
+
+    private static class HeadlessStorage implements Storage
+    {
+
+        private final Map<String, String> items = new HashMap<String, String>();
+
+        @Override
+        public void setItem(String key, String value)
+        {
+            this.items.put(key, value);
+        }
+
+        @Override
+        public void removeItem(String key)
+        {
+            this.items.remove(key);
+        }
+
+        @Override
+        public String getItem(String key)
+        {
+            return this.items.get(key);
+        }
+
+        @Override
+        public boolean isPersisted()
+        {
+            return false;
+        }
+
+    }
+
+    /**
+     * Fails every request, a headless run should not depend on the network.
+     */
+    private static class HeadlessNet implements Net
+    {
+
+        @Override
+        public void get(String url, playn.core.util.Callback<String> callback)
+        {
+            callback.onFailure(new UnsupportedOperationException("No network on the headless platform: " + url));
+        }
+
+        @Override
+        public void post(String url, String data, playn.core.util.Callback<String> callback)
+        {
+            callback.onFailure(new UnsupportedOperationException("No network on the headless platform: " + url));
+        }
+
+    }
+
+    private static class HeadlessAnalytics implements Analytics
+    {
+
+        @Override
+        public void logEvent(Category category, String action) { /* NOOP */ }
+
+        @Override
+        public void logEvent(Category category, String action, String label, int value) { /* NOOP */ }
+
+    }
+
+    private static class HeadlessRegularExpression implements RegularExpression
+    {
+
+        @Override
+        public boolean matches(String regexp, String source)
+        {
+            return Pattern.compile(regexp).matcher(source).find();
+        }
+
+    }
+
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.headless;
+
+import playn.core.*;
+
+/**
+ * A pointer driven by the code running the {@link HeadlessPlatform}.
+ * Each injected event is sent straight to the listener, stamped with the
+ * platform's current time.
+ * @author Prageeth Silva
+ */
+public class HeadlessPointer implements Pointer
+{
+
+    private final HeadlessPlatform platform;
+
+    private Listener listener = null;
+
+    HeadlessPointer(HeadlessPlatform platform)
+    {
+        this.platform = platform;
+    }
+
+    @Override
+    public void setListener(Listener listener)
+    {
+        this.listener = listener;
+    }
+
+    public void start(float x, float y)
+    {
+        if (this.listener == null) { return; }
+        this.listener.onPointerStart(new Event.Impl(this.platform.time(), x, y));
+    }
+
+    public void drag(float x, float y)
+    {
+        if (this.listener == null) { return; }
+        this.listener.onPointerDrag(new Event.Impl(this.platform.time(), x, y));
+    }
+
+    public void end(float x, float y)
+    {
+        if (this.listener == null) { return; }
+        this.listener.onPointerEnd(new Event.Impl(this.platform.time(), x, y));
+    }
+
+    /**
+     * Presses and releases the pointer at the same point.
+     * @param x The x-coordinate in pixels
+     * @param y The y-coordinate in pixels
+     */
+    public void click(float x, float y)
+    {
+        this.start(x, y);
+        this.end(x, y);
+    }
+
+}
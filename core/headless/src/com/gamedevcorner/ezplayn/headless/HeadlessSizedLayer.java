@@ -0,0 +1,54 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.headless;
+
+import playn.core.*;
+
+/**
+ * The base of the headless layers that have a size.
+ * @author Prageeth Silva
+ */
+abstract class HeadlessSizedLayer extends AbstractLayer implements Layer.HasSize
+{
+
+    protected float width = 0;
+    protected float height = 0;
+
+    @Override
+    public float width()
+    {
+        return this.width;
+    }
+
+    @Override
+    public float height()
+    {
+        return this.height;
+    }
+
+    @Override
+    public float scaledWidth()
+    {
+        return this.transform().scaleX() * this.width();
+    }
+
+    @Override
+    public float scaledHeight()
+    {
+        return this.transform().scaleY() * this.height();
+    }
+
+}
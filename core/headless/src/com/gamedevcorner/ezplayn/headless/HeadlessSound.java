@@ -0,0 +1,76 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.headless;
+
+import playn.core.*;
+
+/**
+ * A silent sound that remembers whether it is playing, looping and its volume.
+ * A sound that is not looping stops as soon as it is played.
+ * @author Prageeth Silva
+ */
+public class HeadlessSound implements Sound
+{
+
+    private boolean playing = false;
+    private boolean looping = false;
+    private float volume = 1;
+
+    private int playCount = 0;
+
+    @Override
+    public boolean play()
+    {
+        this.playing = this.looping;
+        this.playCount++;
+        return true;
+    }
+
+    @Override
+    public void stop()
+    {
+        this.playing = false;
+    }
+
+    @Override
+    public void setLooping(boolean looping)
+    {
+        this.looping = looping;
+    }
+
+    @Override
+    public void setVolume(float volume)
+    {
+        this.volume = volume;
+    }
+
+    @Override
+    public boolean isPlaying()
+    {
+        return this.playing;
+    }
+
+    public float getVolume()
+    {
+        return this.volume;
+    }
+
+    public int getPlayCount()
+    {
+        return this.playCount;
+    }
+
+}
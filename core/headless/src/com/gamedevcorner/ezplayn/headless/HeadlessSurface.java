@@ -0,0 +1,174 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.headless;
+
+import playn.core.*;
+
+/**
+ * A surface that draws nothing, only counting the drawing calls made on it.
+ * @author Prageeth Silva
+ */
+public class HeadlessSurface implements Surface
+{
+
+    private final int width;
+    private final int height;
+
+    private int drawCount = 0;
+    private int clearCount = 0;
+
+    HeadlessSurface(int width, int height)
+    {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Gets the number of drawing calls, that is images, lines and fills.
+     * @return The drawing calls since the surface was created or the count was reset.
+     */
+    public int getDrawCount()
+    {
+        return this.drawCount;
+    }
+
+    public int getClearCount()
+    {
+        return this.clearCount;
+    }
+
+    public void resetCounts()
+    {
+        this.drawCount = 0;
+        this.clearCount = 0;
+    }
+
+    private Surface drawn()
+    {
+        this.drawCount++;
+        return this;
+    }
+
+    @Override
+    public int width()
+    {
+        return this.width;
+    }
+
+    @Override
+    public int height()
+    {
+        return this.height;
+    }
+
+    @Override
+    public Surface clear()
+    {
+        this.clearCount++;
+        return this;
+    }
+
+    @Override
+    public Surface drawImage(Image image, float x, float y)
+    {
+        return this.drawn();
+    }
+
+    @Override
+    public Surface drawImage(Image image, float dx, float dy, float dw, float dh)
+    {
+        return this.drawn();
+    }
+
+    @Override
+    public Surface drawImage(Image image, float dx, float dy, float dw, float dh, float sx, float sy, float sw, float sh)
+    {
+        return this.drawn();
+    }
+
+    @Override
+    public Surface drawImageCentered(Image image, float x, float y)
+    {
+        return this.drawn();
+    }
+
+    @Override
+    public Surface drawLine(float x0, float y0, float x1, float y1, float width)
+    {
+        return this.drawn();
+    }
+
+    @Override
+    public Surface fillRect(float x, float y, float width, float height)
+    {
+        return this.drawn();
+    }
+
+    @Override
+    public Surface save()
+    {
+        return this;
+    }
+
+    @Override
+    public Surface restore()
+    {
+        return this;
+    }
+
+    @Override
+    public Surface rotate(float radians)
+    {
+        return this;
+    }
+
+    @Override
+    public Surface scale(float sx, float sy)
+    {
+        return this;
+    }
+
+    @Override
+    public Surface translate(float x, float y)
+    {
+        return this;
+    }
+
+    @Override
+    public Surface transform(float m00, float m01, float m10, float m11, float tx, float ty)
+    {
+        return this;
+    }
+
+    @Override
+    public Surface setTransform(float m00, float m01, float m10, float m11, float tx, float ty)
+    {
+        return this;
+    }
+
+    @Override
+    public Surface setFillColor(int color)
+    {
+        return this;
+    }
+
+    @Override
+    public Surface setFillPattern(Pattern pattern)
+    {
+        return this;
+    }
+
+}
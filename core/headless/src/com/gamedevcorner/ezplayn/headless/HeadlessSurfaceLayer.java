@@ -0,0 +1,42 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.headless;
+
+import playn.core.*;
+
+/**
+ * A surface layer backed by a {@link HeadlessSurface}.
+ * @author Prageeth Silva
+ */
+public class HeadlessSurfaceLayer extends HeadlessSizedLayer implements SurfaceLayer
+{
+
+    private final HeadlessSurface surface;
+
+    HeadlessSurfaceLayer(int width, int height)
+    {
+        this.width = width;
+        this.height = height;
+        this.surface = new HeadlessSurface(width, height);
+    }
+
+    @Override
+    public HeadlessSurface surface()
+    {
+        return this.surface;
+    }
+
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.headless;
+
+import playn.core.*;
+
+/**
+ * A touch screen driven by the code running the {@link HeadlessPlatform}.
+ * Each injected event carries a single touch point.
+ * @author Prageeth Silva
+ */
+public class HeadlessTouch implements Touch
+{
+
+    private final HeadlessPlatform platform;
+
+    private Listener listener = null;
+
+    HeadlessTouch(HeadlessPlatform platform)
+    {
+        this.platform = platform;
+    }
+
+    @Override
+    public void setListener(Listener listener)
+    {
+        this.listener = listener;
+    }
+
+    public void start(float x, float y, int id)
+    {
+        if (this.listener == null) { return; }
+        this.listener.onTouchStart(this.touches(x, y, id));
+    }
+
+    public void move(float x, float y, int id)
+    {
+        if (this.listener == null) { return; }
+        this.listener.onTouchMove(this.touches(x, y, id));
+    }
+
+    public void end(float x, float y, int id)
+    {
+        if (this.listener == null) { return; }
+        this.listener.onTouchEnd(this.touches(x, y, id));
+    }
+
+    private Event[] touches(float x, float y, int id)
+    {
+        return new Event[] { new Event.Impl(this.platform.time(), x, y, id) };
+    }
+
+}
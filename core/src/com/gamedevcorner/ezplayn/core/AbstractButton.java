@@ -28,6 +28,10 @@ public abstract class AbstractButton extends AbstractControl
     protected static float ORIGINAL_SCALE = 1.0f;
 
     protected ImageLayer disabledLayer = null;
+    private Image disabledImage = null;
+    private AtlasRegion disabledRegion = null;
+    private NinePatch disabledPatch = null;
+    protected ImageLayer disabledPatchLayer = null;
 
     private boolean allowingDisable = false;
 
@@ -39,6 +43,9 @@ public abstract class AbstractButton extends AbstractControl
     private float expandScale = 1.1f;
     private float currentScale = ORIGINAL_SCALE;
 
+    private TweenManager expandTweens = null;
+    private float expandDuration = 0;
+
 
     public AbstractButton(int width, int height, Image activeImage, Image disabledImaged)
     {
@@ -49,6 +56,7 @@ public abstract class AbstractButton extends AbstractControl
 
         if (disabledImaged != null)
         {
+            this.disabledImage = disabledImaged;
             this.disabledLayer = graphics().createImageLayer(disabledImaged);
             this.allowingDisable = true;
         }
@@ -77,8 +85,7 @@ public abstract class AbstractButton extends AbstractControl
         if (this.expanding && this.enabled && (this.currentScale != ORIGINAL_SCALE))
         {
             this.currentScale = ORIGINAL_SCALE;
-            this.getRootLayer().setScale(ORIGINAL_SCALE, ORIGINAL_SCALE);
-            this.getRootLayer().setTranslation(this.getX(), this.getY());
+            this.scaleTo(ORIGINAL_SCALE, this.getX(), this.getY());
         }
     }
 
@@ -96,8 +103,7 @@ public abstract class AbstractButton extends AbstractControl
         if (this.expanding && this.enabled && (this.currentScale != this.expandScale))
         {
             this.currentScale = this.expandScale;
-            this.getRootLayer().setScale(this.expandScale, this.expandScale);
-            this.getRootLayer().setTranslation(this.getX() - this.expandOffsetX, this.getY() - this.expandOffsetY);
+            this.scaleTo(this.expandScale, this.getX() - this.expandOffsetX, this.getY() - this.expandOffsetY);
         }
     }
 
@@ -142,6 +148,15 @@ public abstract class AbstractButton extends AbstractControl
         return this.expanding;
     }
 
+    /**
+     * Expanding buttons scale their root layer, so they are animated.
+     */
+    @Override
+    public boolean isAnimated()
+    {
+        return this.expanding;
+    }
+
     public void setExpanding(boolean expanding)
     {
         this.expanding = expanding;
@@ -179,24 +194,181 @@ public abstract class AbstractButton extends AbstractControl
         }
     }
 
+    @Override
+    protected void layoutBackground()
+    {
+        super.layoutBackground();
+        if (this.disabledPatchLayer != null)
+        {
+            this.disabledPatch.layout(this.disabledPatchLayer, this.getWidth(), this.getHeight());
+        }
+    }
+
+    /**
+     * Animates the expansion with tweens instead of snapping between the scales.
+     * @param tweens The tweens advancing the animation, usually {@link AbstractExtendedGame#getTweens()},
+     *        <code>null</code> to snap again
+     * @param duration The duration of the animation in milliseconds
+     */
+    public void setExpandAnimation(TweenManager tweens, float duration)
+    {
+        this.expandTweens = tweens;
+        this.expandDuration = duration;
+    }
+
+    private void scaleTo(float scale, float x, float y)
+    {
+        Layer layer = this.getRootLayer();
+        if (this.expandTweens != null && this.expandDuration > 0)
+        {
+            this.expandTweens.to(layer, TweenManager.SCALE, scale, this.expandDuration, TweenManager.QUAD_OUT);
+            this.expandTweens.to(layer, TweenManager.X, x, this.expandDuration, TweenManager.QUAD_OUT);
+            this.expandTweens.to(layer, TweenManager.Y, y, this.expandDuration, TweenManager.QUAD_OUT);
+        }
+        else
+        {
+            layer.setScale(scale, scale);
+            layer.setTranslation(x, y);
+        }
+    }
+
     public void enable()
     {
-        if (this.allowingDisable && this.backgroundImage != null)
+        Layer activeLayer = this.backgroundLayer != null ? this.backgroundLayer : this.backgroundPatchLayer;
+        if (this.allowingDisable && activeLayer != null)
         {
             this.rootLayer.clear();
-            this.rootLayer.add(this.backgroundLayer);
+            this.rootLayer.add(activeLayer);
             this.enabled = true;
+            this.markDirty();
         }
     }
 
     public void disable()
     {
-        if (this.allowingDisable && this.disabledLayer != null)
+        Layer inactiveLayer = this.disabledLayer != null ? this.disabledLayer : this.disabledPatchLayer;
+        if (this.allowingDisable && inactiveLayer != null)
         {
             this.rootLayer.clear();
-            this.rootLayer.add(this.disabledLayer);
+            this.rootLayer.add(inactiveLayer);
             this.enabled = false;
+            this.markDirty();
+        }
+    }
+
+    /**
+     * Shows a region of a {@link TextureAtlas} page while the button is disabled.
+     * Together with {@link #setBackgroundRegion(AtlasRegion)} all the images of
+     * the button can share one texture. Replaces any disabled image set before.
+     * @param disabledRegion The region, from a packed atlas, <code>null</code> if the button cannot be disabled
+     */
+    public void setDisabledRegion(AtlasRegion disabledRegion)
+    {
+        boolean disabled = !this.enabled;
+        if (disabled)
+        {
+            this.enable();
+        }
+        this.clearDisabled();
+        this.disabledRegion = disabledRegion;
+        this.disabledLayer = disabledRegion == null ? null : disabledRegion.createLayer();
+        this.allowingDisable = this.disabledLayer != null;
+        if (disabled)
+        {
+            this.disable();
+        }
+    }
+
+    /**
+     * Stretches a {@link NinePatch} over the button while it is disabled, so
+     * buttons of every size can share the same source image. Replaces any
+     * disabled image set before.
+     * @param disabledPatch The nine-patch, <code>null</code> if the button cannot be disabled
+     */
+    public void setDisabledPatch(NinePatch disabledPatch)
+    {
+        boolean disabled = !this.enabled;
+        if (disabled)
+        {
+            this.enable();
+        }
+        this.clearDisabled();
+        this.disabledPatch = disabledPatch;
+        this.disabledPatchLayer = disabledPatch == null ? null : disabledPatch.createLayer(this.getWidth(), this.getHeight());
+        this.allowingDisable = this.disabledPatchLayer != null;
+        if (disabled)
+        {
+            this.disable();
+        }
+    }
+
+    private void clearDisabled()
+    {
+        this.disabledImage = null;
+        this.disabledLayer = null;
+        this.disabledRegion = null;
+        this.disabledPatch = null;
+        this.disabledPatchLayer = null;
+    }
+
+    /**
+     * Only shows a new background layer while enabled, {@link #enable()} shows it otherwise.
+     */
+    @Override
+    protected void attachBackground(Layer layer)
+    {
+        if (this.enabled)
+        {
+            super.attachBackground(layer);
+        }
+    }
+
+    @Override
+    public void reset()
+    {
+        if (this.expandTweens != null)
+        {
+            this.expandTweens.cancel(this.getRootLayer());
+        }
+        super.reset();
+        this.currentScale = ORIGINAL_SCALE;
+        if (!this.enabled)
+        {
+            this.enable();
+        }
+    }
+
+    @Override
+    protected void drawBackground(Canvas canvas, float x, float y)
+    {
+        if (this.enabled)
+        {
+            super.drawBackground(canvas, x, y);
+        }
+        else if (this.disabledPatch != null)
+        {
+            this.disabledPatch.draw(canvas, x, y, this.getWidth(), this.getHeight());
+        }
+        else if (this.disabledRegion != null)
+        {
+            this.disabledRegion.draw(canvas, x, y);
+        }
+        else if (this.disabledImage != null)
+        {
+            canvas.drawImage(this.disabledImage, x, y);
+        }
+    }
+
+    @Override
+    public long estimateBytes()
+    {
+        // atlas pages are shared, so they are not counted here
+        long bytes = super.estimateBytes() + ScreenCache.estimateBytes(this.disabledImage);
+        if (this.disabledPatchLayer != null)
+        {
+            bytes += ScreenCache.estimateBytes(this.disabledPatchLayer.image());
         }
+        return bytes;
     }
 
     public boolean isAllowingDisable()
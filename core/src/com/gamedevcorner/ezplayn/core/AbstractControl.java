@@ -28,6 +28,9 @@ import playn.core.*;
 public abstract class AbstractControl implements InteractiveDrawable
 {
 
+    /** The depth of backgrounds set after construction, below the layers added by children. */
+    private static final float BACKGROUND_DEPTH = -1;
+
     private int width = 0;
     private int height = 0;
 
@@ -38,9 +41,30 @@ public abstract class AbstractControl implements InteractiveDrawable
 
     protected ImageLayer backgroundLayer = null;
     protected Image backgroundImage = null;
+    private AtlasRegion backgroundRegion = null;
+    private NinePatch backgroundPatch = null;
+    protected ImageLayer backgroundPatchLayer = null;
 
     private boolean autoCentring = true;
 
+    private SpatialIndex spatialIndex = null;
+
+    private ControlPool<?> pool = null;
+
+    private ControlHolder parent = null;
+
+    /** The holder this control is waiting to be added to, while that holder is dispatching. */
+    ControlHolder pendingParent = null;
+
+    private boolean focusable = false;
+
+    private boolean culled = false;
+    private boolean hiddenByCulling = false;
+
+    /** The timings of the control, kept here so the {@link FrameProfiler} holds no references to it. */
+    TimingHistogram[] profile = null;
+    int profileGeneration = 0;
+
     /**
      * A constructor that should be called by the extending child.
      * @param width The width of the control
@@ -130,6 +154,7 @@ public abstract class AbstractControl implements InteractiveDrawable
     public void commitLayout()
     {
         this.rootLayer.setTranslation(this.x, this.y);
+        this.notifyLayoutChanged();
     }
 
     /**
@@ -145,6 +170,365 @@ public abstract class AbstractControl implements InteractiveDrawable
         this.commitLayout();
     }
 
+    /**
+     * Informs the {@link SpatialIndex} of the parent {@link ControlHolder} that the
+     * bounds of this control may have changed, and fits the background to the size.
+     * Children overriding {@link AbstractControl#commitLayout()} should call this at the end.
+     */
+    protected void notifyLayoutChanged()
+    {
+        this.layoutBackground();
+        if (this.spatialIndex != null)
+        {
+            this.spatialIndex.update(this);
+        }
+        this.markDirty();
+    }
+
+    /**
+     * Fits the background nine-patch to the size of the control, once per layout
+     * rather than on each of {@link #setWidth(int)} and {@link #setHeight(int)}.
+     * Children showing other nine-patches should override this and call the super method.
+     */
+    protected void layoutBackground()
+    {
+        if (this.backgroundPatchLayer != null)
+        {
+            this.backgroundPatch.layout(this.backgroundPatchLayer, this.width, this.height);
+        }
+    }
+
+    /**
+     * Tells a {@link StaticControlGroup} holding this control that its look has changed,
+     * so the group is drawn again. Does nothing for controls held elsewhere.
+     */
+    public void markDirty()
+    {
+        if (this.parent instanceof StaticControlGroup)
+        {
+            ((StaticControlGroup)this.parent).markDirty();
+        }
+    }
+
+    /**
+     * Checks if the control changes the transform of its root layer, for example
+     * to animate it. A {@link StaticControlGroup} shows such controls through their
+     * own layers instead of drawing them into its image.
+     * @return <code>false</code> by default.
+     */
+    public boolean isAnimated()
+    {
+        return false;
+    }
+
+    /**
+     * Sets the index that tracks the bounds of this control, called by the parent {@link ControlHolder}.
+     * @param spatialIndex The index of the parent, <code>null</code> if the control is detached.
+     */
+    void setSpatialIndex(SpatialIndex spatialIndex)
+    {
+        this.spatialIndex = spatialIndex;
+    }
+
+    /**
+     * Gets the holder this control has been added to.
+     * @return The parent {@link ControlHolder}, or <code>null</code> if the control is detached.
+     */
+    public ControlHolder getParent()
+    {
+        return this.parent;
+    }
+
+    void setParent(ControlHolder parent)
+    {
+        this.parent = parent;
+    }
+
+    /**
+     * Checks if the control can take the keyboard focus.
+     * @return The focusable status, <code>false</code> by default.
+     */
+    public boolean isFocusable()
+    {
+        return this.focusable;
+    }
+
+    /**
+     * Sets whether the control can take the keyboard focus from the {@link FocusManager}.
+     * @param focusable The new focusable status
+     */
+    public void setFocusable(boolean focusable)
+    {
+        this.focusable = focusable;
+    }
+
+    /**
+     * Called when the control takes the keyboard focus.
+     */
+    public void onFocusGained() { /* NOOP */ }
+
+    /**
+     * Called when the control loses the keyboard focus.
+     */
+    public void onFocusLost() { /* NOOP */ }
+
+    /**
+     * Called when a key is pressed down while one of the child controls has the focus,
+     * after the child has handled it. Call {@link FocusManager#consumeKey()} to stop
+     * the event from bubbling further up.
+     * @param keyCode The key code of the key being pressed.
+     */
+    public void onChildKeyDown(int keyCode) { /* NOOP */ }
+
+    /**
+     * Called when a key is released while one of the child controls has the focus,
+     * after the child has handled it. Call {@link FocusManager#consumeKey()} to stop
+     * the event from bubbling further up.
+     * @param keyCode The key code of the key being released.
+     */
+    public void onChildKeyUp(int keyCode) { /* NOOP */ }
+
+    /**
+     * Checks if the control is outside the view of its screen, in which case
+     * it is not painted and its layers are hidden.
+     * @return The culled status, always <code>false</code> unless the screen culls.
+     * @see AbstractGameScreen#setCulling(boolean)
+     */
+    public boolean isCulled()
+    {
+        return this.culled;
+    }
+
+    /**
+     * Culls or restores the control, called by the parent {@link AbstractGameScreen}.
+     * The root layer is hidden while culled, and only shown again if it was
+     * the culling that hid it.
+     * @param culled The new culled status
+     */
+    void setCulled(boolean culled)
+    {
+        if (culled == this.culled) { return; }
+        this.culled = culled;
+        if (culled)
+        {
+            this.hiddenByCulling = this.rootLayer.visible();
+            if (this.hiddenByCulling)
+            {
+                this.rootLayer.setVisible(false);
+            }
+        }
+        else if (this.hiddenByCulling)
+        {
+            this.hiddenByCulling = false;
+            this.rootLayer.setVisible(true);
+        }
+    }
+
+    /**
+     * Checks if the bounds of the control overlap a rectangle.
+     * @param x The x-coordinate of the rectangle
+     * @param y The y-coordinate of the rectangle
+     * @param width The width of the rectangle
+     * @param height The height of the rectangle
+     * @return Whether any part of the control is inside the rectangle.
+     */
+    public boolean intersects(int x, int y, int width, int height)
+    {
+        return this.x < x + width && this.x + this.width > x
+                && this.y < y + height && this.y + this.height > y;
+    }
+
+    /**
+     * Brings the control back to a state where it can be reused, called when
+     * it is freed to a {@link ControlPool}. Detaches the root layer from its parent
+     * and clears any transform left by animations.
+     * Children holding extra state should override this and call the super method.
+     */
+    public void reset()
+    {
+        if (this.rootLayer.parent() != null)
+        {
+            this.rootLayer.parent().remove(this.rootLayer);
+        }
+        this.culled = false;
+        this.hiddenByCulling = false;
+        this.rootLayer.setVisible(true);
+        this.rootLayer.setAlpha(1.0f);
+        this.rootLayer.setRotation(0);
+        this.rootLayer.setScale(1.0f);
+        this.rootLayer.setTranslation(this.x, this.y);
+        this.profile = null;
+    }
+
+    /**
+     * Hands the control back to the {@link ControlPool} it was obtained from.
+     * Does nothing if the control was not obtained from a pool or is already free.
+     * The control must not be used after being freed.
+     */
+    public void free()
+    {
+        if (this.pool != null)
+        {
+            this.pool.freeControl(this);
+        }
+    }
+
+    /**
+     * Checks if the control was obtained from a {@link ControlPool} and has not been freed.
+     * @return Whether {@link #free()} will hand the control back to a pool.
+     */
+    public boolean isPooled()
+    {
+        return this.pool != null;
+    }
+
+    ControlPool<?> getPool()
+    {
+        return this.pool;
+    }
+
+    void setPool(ControlPool<?> pool)
+    {
+        this.pool = pool;
+    }
+
+    /**
+     * Draws the control onto a canvas, used to take a snapshot of a screen
+     * for a {@link ScreenTransition}. Draws the background, nothing if the
+     * control is hidden. Children showing other layers should override this
+     * and call the super method.
+     * @param canvas The canvas to draw on
+     * @param dx The x-coordinate of the parent {@link ControlHolder} on the canvas
+     * @param dy The y-coordinate of the parent {@link ControlHolder} on the canvas
+     */
+    public void drawTo(Canvas canvas, float dx, float dy)
+    {
+        if (!this.rootLayer.visible()) { return; }
+        this.drawBackground(canvas, dx + this.x, dy + this.y);
+    }
+
+    /**
+     * Draws the background image, atlas region or nine-patch of the control.
+     * @param canvas The canvas to draw on
+     * @param x The x-coordinate of the control on the canvas
+     * @param y The y-coordinate of the control on the canvas
+     */
+    protected void drawBackground(Canvas canvas, float x, float y)
+    {
+        if (this.backgroundPatch != null)
+        {
+            this.backgroundPatch.draw(canvas, x, y, this.width, this.height);
+        }
+        else if (this.backgroundRegion != null)
+        {
+            this.backgroundRegion.draw(canvas, x, y);
+        }
+        else if (this.backgroundImage != null)
+        {
+            canvas.drawImage(this.backgroundImage, x, y);
+        }
+    }
+
+    /**
+     * Shows a region of a {@link TextureAtlas} page as the background, so many
+     * controls can share the same texture. Replaces any background set before.
+     * @param backgroundRegion An atlas region to be used as the background, the atlas
+     *        must already be packed. Use <code>null</code> to leave the background empty.
+     */
+    public void setBackgroundRegion(AtlasRegion backgroundRegion)
+    {
+        this.clearBackground();
+        this.backgroundRegion = backgroundRegion;
+        if (backgroundRegion != null)
+        {
+            this.backgroundLayer = backgroundRegion.createLayer();
+            this.attachBackground(this.backgroundLayer);
+        }
+    }
+
+    /**
+     * Gets the atlas region the background is shown from.
+     * @return The region, or <code>null</code> if the background is not a region.
+     */
+    public AtlasRegion getBackgroundRegion()
+    {
+        return this.backgroundRegion;
+    }
+
+    /**
+     * Stretches a {@link NinePatch} over the background, so one small source
+     * image can serve controls of any size. Replaces any background set before.
+     * @param backgroundPatch A nine-patch to be used as the background,
+     *        use <code>null</code> to leave the background empty.
+     */
+    public void setBackgroundPatch(NinePatch backgroundPatch)
+    {
+        this.clearBackground();
+        this.backgroundPatch = backgroundPatch;
+        if (backgroundPatch != null)
+        {
+            this.backgroundPatchLayer = backgroundPatch.createLayer(this.width, this.height);
+            this.attachBackground(this.backgroundPatchLayer);
+        }
+    }
+
+    /**
+     * Removes the background and its layer, before another one is set.
+     */
+    private void clearBackground()
+    {
+        if (this.backgroundLayer != null && this.backgroundLayer.parent() == this.rootLayer)
+        {
+            this.rootLayer.remove(this.backgroundLayer);
+        }
+        if (this.backgroundPatchLayer != null && this.backgroundPatchLayer.parent() == this.rootLayer)
+        {
+            this.rootLayer.remove(this.backgroundPatchLayer);
+        }
+        this.backgroundLayer = null;
+        this.backgroundImage = null;
+        this.backgroundRegion = null;
+        this.backgroundPatchLayer = null;
+        this.backgroundPatch = null;
+        this.markDirty();
+    }
+
+    /**
+     * Adds the layer of a background set after construction to the root layer,
+     * under the other layers. Children showing their background some other way
+     * should override this.
+     * @param layer The layer of the new background
+     */
+    protected void attachBackground(Layer layer)
+    {
+        layer.setDepth(BACKGROUND_DEPTH);
+        this.rootLayer.add(layer);
+    }
+
+    /**
+     * Gets the nine-patch the background is stretched from.
+     * @return The nine-patch, or <code>null</code> if the background is an image or region.
+     */
+    public NinePatch getBackgroundPatch()
+    {
+        return this.backgroundPatch;
+    }
+
+    /**
+     * Estimates the memory held by the images of this control, used by the {@link ScreenCache}.
+     * Children that create their own images or canvases should add them to the estimate.
+     * @return The estimate in bytes.
+     */
+    public long estimateBytes()
+    {
+        long bytes = ScreenCache.estimateBytes(this.backgroundImage);
+        if (this.backgroundPatchLayer != null)
+        {
+            bytes += ScreenCache.estimateBytes(this.backgroundPatchLayer.image());
+        }
+        return bytes;
+    }
+
     /**
      * Checks if the control will auto centre on screen.
      * @return The auto-centring status
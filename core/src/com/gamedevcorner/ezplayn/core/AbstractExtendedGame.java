@@ -30,11 +30,37 @@ public abstract class AbstractExtendedGame implements Game
     public static int screenWidth = 640;
     public static int screenHeight = 480;
 
+    public static final int DEFAULT_MAX_CATCH_UP_STEPS = 5;
+
     private AbstractGameScreen<?> currentScreen = null;
     private AbstractGameScreen<?> defaultLoadingScreen = null;
 
     private int screensLoadCount = -1;
 
+    private float fixedStep = 0;
+    private int maxCatchUpSteps = DEFAULT_MAX_CATCH_UP_STEPS;
+    private float accumulator = 0;
+    private float interpolationAlpha = 0;
+
+    private AbstractGameScreen<?> pendingScreen = null;
+    private AbstractGameScreen<?> pendingPreviousScreen = null;
+    private Object pendingObject = null;
+    private ScreenTransition pendingTransition = null;
+
+    private ScreenTransition transition = null;
+    private CanvasImage snapshotImage = null;
+
+    private ScreenCache screenCache = new ScreenCache(this);
+
+    private FrameProfiler profiler = new FrameProfiler();
+
+    private TweenManager tweens = new TweenManager();
+
+    private InputQueue inputQueue = new InputQueue();
+    private boolean bufferingInput = true;
+
+    private InputRecorder inputRecorder = null;
+
     protected AbstractExtendedGame(int screenWidth, int screenHieght)
     {
         AbstractExtendedGame.screenWidth = screenWidth;
@@ -59,19 +85,19 @@ public abstract class AbstractExtendedGame implements Game
             @Override
             public void onPointerStart(Pointer.Event event)
             {
-                self.onPointerDown((int)event.x(), (int)event.y());
+                self.queueInput(InputQueue.POINTER_DOWN, (int)event.x(), (int)event.y());
             }
 
             @Override
             public void onPointerEnd(Pointer.Event event)
             {
-                self.onPointerUp((int)event.x(), (int)event.y());
+                self.queueInput(InputQueue.POINTER_UP, (int)event.x(), (int)event.y());
             }
 
             @Override
             public void onPointerDrag(Pointer.Event event)
             {
-                self.onPointerMove((int)event.x(), (int)event.y());
+                self.queueInput(InputQueue.POINTER_MOVE, (int)event.x(), (int)event.y());
             }
 
         });
@@ -82,13 +108,13 @@ public abstract class AbstractExtendedGame implements Game
             @Override
             public void onKeyUp(Event event)
             {
-                self.onKeyUp(event.keyCode());
+                self.queueInput(InputQueue.KEY_UP, event.keyCode(), 0);
             }
 
             @Override
             public void onKeyDown(Event event)
             {
-                self.onKeyDown(event.keyCode());
+                self.queueInput(InputQueue.KEY_DOWN, event.keyCode(), 0);
             }
 
         });
@@ -108,10 +134,61 @@ public abstract class AbstractExtendedGame implements Game
     public void update(float delta)
     {
 
+        // dispatch the input received since the last frame, charged to the
+        // screen it started on even if the input switches screens
+        AbstractGameScreen<?> profiled = this.currentScreen;
+        long start = this.profiler.begin();
+        this.drainInput();
+        this.profiler.end(FrameProfiler.INPUT, profiled, start);
+
+        if (this.inputRecorder != null)
+        {
+            this.inputRecorder.recordFrame(delta);
+        }
+
         // do usual updates
-        if (this.currentScreen != null)
+        profiled = this.currentScreen;
+        start = this.profiler.begin();
+        if (this.fixedStep > 0)
         {
-            this.currentScreen.update(delta);
+            this.accumulator += delta;
+            int steps = 0;
+            while (this.accumulator >= this.fixedStep && steps < this.maxCatchUpSteps)
+            {
+                this.step(this.fixedStep);
+                this.accumulator -= this.fixedStep;
+                steps++;
+            }
+            // drop whatever could not be caught up rather than spiralling
+            if (this.accumulator >= this.fixedStep)
+            {
+                this.accumulator = this.accumulator % this.fixedStep;
+            }
+            this.interpolationAlpha = this.accumulator / this.fixedStep;
+        }
+        else
+        {
+            this.step(delta);
+        }
+        this.profiler.end(FrameProfiler.UPDATE, profiled, start);
+
+        // animate the tweens and the screen transition with the real frame time
+        this.tweens.update(delta);
+        if (this.transition != null && this.transition.update(delta))
+        {
+            this.endTransition();
+        }
+
+        // switch to a screen that was waiting for its assets
+        if (this.pendingScreen != null && this.pendingScreen.getAssets().isDone())
+        {
+            AbstractGameScreen<?> screen = this.pendingScreen;
+            ScreenTransition transition = this.pendingTransition;
+            this.pendingScreen = null;
+            this.pendingTransition = null;
+            this.showScreen(screen, this.pendingPreviousScreen, this.pendingObject, transition);
+            this.pendingPreviousScreen = null;
+            this.pendingObject = null;
         }
 
         // load custom screens
@@ -128,16 +205,39 @@ public abstract class AbstractExtendedGame implements Game
 
     }
 
+    /**
+     * Advances the current screen by a single simulation step.
+     * @param delta Time in milliseconds covered by the step.
+     */
+    private void step(float delta)
+    {
+        if (this.currentScreen != null)
+        {
+            this.currentScreen.update(delta);
+        }
+    }
+
     @Override
     public void paint(float alpha)
     {
         // usual paint
-        if (this.currentScreen != null)
+        AbstractGameScreen<?> screen = this.currentScreen;
+        if (screen != null)
         {
-            this.currentScreen.paint(alpha);
+            long start = this.profiler.begin();
+            screen.paint(this.fixedStep > 0 ? this.interpolationAlpha : alpha);
+            if (this.transition != null)
+            {
+                this.transition.paint();
+            }
+            this.profiler.end(FrameProfiler.PAINT, screen, start);
         }
     }
 
+    /**
+     * Always returns 0 so the platform calls {@link #update(float)} once per frame,
+     * fixed stepping is done by this class, see {@link #setFixedStep(float)}.
+     */
     @Override
     public int updateRate()
     {
@@ -147,8 +247,69 @@ public abstract class AbstractExtendedGame implements Game
 
     public abstract AbstractGameScreen<?> loadScreens();
 
+    /**
+     * Queues an input event from the platform listeners, or dispatches it
+     * straight away if input buffering is off.
+     */
+    private void queueInput(int type, int x, int y)
+    {
+        if (this.bufferingInput)
+        {
+            this.inputQueue.offer(type, x, y);
+        }
+        else
+        {
+            this.dispatchInput(type, x, y);
+        }
+    }
+
+    /**
+     * Dispatches the events that were queued before this call,
+     * events queued by the handlers are left for the next frame.
+     */
+    private void drainInput()
+    {
+        InputQueue queue = this.inputQueue;
+        int pending = queue.size();
+        while (pending-- > 0 && queue.poll())
+        {
+            this.dispatchInput(queue.getPolledType(), queue.getPolledX(), queue.getPolledY());
+        }
+    }
+
+    private void dispatchInput(int type, int x, int y)
+    {
+        switch (type)
+        {
+            case InputQueue.POINTER_DOWN:
+                this.onPointerDown(x, y);
+                break;
+            case InputQueue.POINTER_UP:
+                this.onPointerUp(x, y);
+                break;
+            case InputQueue.POINTER_MOVE:
+                this.onPointerMove(x, y);
+                break;
+            case InputQueue.POINTER_SCROLL:
+                this.onPointerScroll(x);
+                break;
+            case InputQueue.KEY_DOWN:
+                this.onKeyDown(x);
+                break;
+            case InputQueue.KEY_UP:
+                this.onKeyUp(x);
+                break;
+            default:
+                break;
+        }
+    }
+
     public void onPointerDown(int x, int y)
     {
+        if (this.inputRecorder != null)
+        {
+            this.inputRecorder.recordEvent(InputQueue.POINTER_DOWN, x, y);
+        }
         if (this.currentScreen != null)
         {
             this.currentScreen.onPointerDown(x, y);
@@ -157,6 +318,10 @@ public abstract class AbstractExtendedGame implements Game
 
     public void onPointerUp(int x, int y)
     {
+        if (this.inputRecorder != null)
+        {
+            this.inputRecorder.recordEvent(InputQueue.POINTER_UP, x, y);
+        }
         if (this.currentScreen != null)
         {
             this.currentScreen.onPointerUp(x, y);
@@ -165,6 +330,10 @@ public abstract class AbstractExtendedGame implements Game
 
     public void onPointerMove(int x, int y)
     {
+        if (this.inputRecorder != null)
+        {
+            this.inputRecorder.recordEvent(InputQueue.POINTER_MOVE, x, y);
+        }
         if (this.currentScreen != null)
         {
             this.currentScreen.onPointerMove(x, y);
@@ -173,6 +342,10 @@ public abstract class AbstractExtendedGame implements Game
 
     public void onPointerScroll(int velocity)
     {
+        if (this.inputRecorder != null)
+        {
+            this.inputRecorder.recordEvent(InputQueue.POINTER_SCROLL, velocity, 0);
+        }
         if (this.currentScreen != null)
         {
             this.currentScreen.onPointerScroll(velocity);
@@ -181,6 +354,10 @@ public abstract class AbstractExtendedGame implements Game
 
     public void onKeyDown(int keyCode)
     {
+        if (this.inputRecorder != null)
+        {
+            this.inputRecorder.recordEvent(InputQueue.KEY_DOWN, keyCode, 0);
+        }
         if (this.currentScreen != null)
         {
             this.currentScreen.onKeyDown(keyCode);
@@ -189,6 +366,10 @@ public abstract class AbstractExtendedGame implements Game
 
     public void onKeyUp(int keyCode)
     {
+        if (this.inputRecorder != null)
+        {
+            this.inputRecorder.recordEvent(InputQueue.KEY_UP, keyCode, 0);
+        }
         if (this.currentScreen != null)
         {
             this.currentScreen.onKeyUp(keyCode);
@@ -197,20 +378,191 @@ public abstract class AbstractExtendedGame implements Game
 
     /* Getters and Setters */
 
+    /**
+     * Switches to the given screen. If the assets declared by the screen are not
+     * all resident yet, they are preloaded while the loading screen is shown and
+     * the switch happens on the first update after they have finished.
+     * The loading screen itself is always shown straight away.
+     * @param screen The screen to show
+     * @param obj Any object to be passed down to {@link AbstractGameScreen#onShown(Object)}
+     */
     public void setCurrentScreen(AbstractGameScreen<?> screen, Object obj)
+    {
+        this.setCurrentScreen(screen, obj, null);
+    }
+
+    /**
+     * Switches to the given screen with an animated transition, see
+     * {@link #setCurrentScreen(AbstractGameScreen, Object)}. The outgoing screen is
+     * drawn once with {@link AbstractGameScreen#drawTo(Canvas)} and only that image is
+     * animated, the new screen is shown and updated straight away.
+     * If the screen has to wait for its assets, the transition is played from
+     * the loading screen instead.
+     * @param screen The screen to show
+     * @param obj Any object to be passed down to {@link AbstractGameScreen#onShown(Object)}
+     * @param transition The transition to play, <code>null</code> to switch instantly
+     */
+    public void setCurrentScreen(AbstractGameScreen<?> screen, Object obj, ScreenTransition transition)
     {
         if (screen != null)
         {
-            screen.previousScreen = this.currentScreen;
-            this.currentScreen = screen;
-            graphics().rootLayer().clear();
-            graphics().rootLayer().add(screen.getRootLayer());
-            if (screen.getMessageLayer() != null)
+            AssetPreloader assets = screen.getAssets();
+            if (screen != this.defaultLoadingScreen)
+            {
+                // screens without assets, or whose assets are resident, finish straight away
+                assets.start(null);
+            }
+            if (screen != this.defaultLoadingScreen && !assets.isDone())
             {
-                graphics().rootLayer().add(screen.getMessageLayer());
+                if (this.pendingScreen == null)
+                {
+                    this.pendingPreviousScreen = this.currentScreen;
+                }
+                this.pendingScreen = screen;
+                this.pendingObject = obj;
+                this.pendingTransition = transition;
+                if (this.currentScreen != this.defaultLoadingScreen)
+                {
+                    this.showScreen(this.defaultLoadingScreen, this.currentScreen, null, null);
+                }
+                return;
             }
-            screen.onShown(obj);
+            this.pendingScreen = null;
+            this.pendingPreviousScreen = null;
+            this.pendingObject = null;
+            this.pendingTransition = null;
+            this.showScreen(screen, this.currentScreen, obj, transition);
+        }
+    }
+
+    private void showScreen(AbstractGameScreen<?> screen, AbstractGameScreen<?> previous, Object obj, ScreenTransition transition)
+    {
+        long start = this.profiler.begin();
+        this.endTransition();
+        // the outgoing screen is drawn while it still has its state
+        Image snapshot = null;
+        if (transition != null && this.currentScreen != null && this.currentScreen != screen)
+        {
+            snapshot = this.snapshot(this.currentScreen);
+        }
+        screen.previousScreen = previous;
+        this.currentScreen = screen;
+        graphics().rootLayer().clear();
+        graphics().rootLayer().add(screen.getRootLayer());
+        if (screen.getMessageLayer() != null)
+        {
+            graphics().rootLayer().add(screen.getMessageLayer());
+        }
+        if (snapshot != null)
+        {
+            this.transition = transition;
+            graphics().rootLayer().add(transition.start(snapshot, screen));
         }
+        this.screenCache.touch(screen);
+        screen.onShown(obj);
+        this.profiler.end(FrameProfiler.SCREEN_SWITCH, screen, start);
+    }
+
+    /**
+     * Draws a screen into the snapshot image, which is reused between transitions.
+     */
+    private Image snapshot(AbstractGameScreen<?> screen)
+    {
+        int width = AbstractExtendedGame.screenWidth;
+        int height = AbstractExtendedGame.screenHeight;
+        if (this.snapshotImage == null || this.snapshotImage.width() != width || this.snapshotImage.height() != height)
+        {
+            this.snapshotImage = graphics().createImage(width, height);
+        }
+        Canvas canvas = this.snapshotImage.canvas();
+        canvas.clear();
+        canvas.setFillColor(Color.rgb(0, 0, 0));
+        canvas.fillRect(0, 0, width, height);
+        screen.drawTo(canvas);
+        return this.snapshotImage;
+    }
+
+    private void endTransition()
+    {
+        if (this.transition != null)
+        {
+            this.transition.finish();
+            this.transition = null;
+        }
+    }
+
+    /**
+     * Checks if a screen transition is being played.
+     * @return Whether the snapshot of the previous screen is still shown.
+     */
+    public boolean isTransitioning()
+    {
+        return this.transition != null;
+    }
+
+    /**
+     * Switches to a screen kept in the {@link ScreenCache}, without rebuilding it.
+     * @param key The key the screen was cached with
+     * @param obj Any object to be passed down to {@link AbstractGameScreen#onShown(Object)}
+     * @return <code>false</code> if no screen is cached under the key.
+     */
+    public boolean showCachedScreen(Object key, Object obj)
+    {
+        AbstractGameScreen<?> screen = this.screenCache.get(key);
+        if (screen == null) { return false; }
+        this.setCurrentScreen(screen, obj);
+        return true;
+    }
+
+    /**
+     * Checks if the screen is being shown, is waiting to be shown or
+     * is the one the current screen goes back to.
+     * @param screen The screen to check
+     * @return Whether the screen must be kept alive.
+     */
+    boolean isScreenInUse(AbstractGameScreen<?> screen)
+    {
+        return screen == this.currentScreen || screen == this.pendingScreen
+                || screen == this.defaultLoadingScreen
+                || (this.currentScreen != null && screen == this.currentScreen.previousScreen);
+    }
+
+    public AbstractGameScreen<?> getCurrentScreen()
+    {
+        return this.currentScreen;
+    }
+
+    /**
+     * Gets the profiler timing the phases of each frame, disabled by default.
+     * @return The frame profiler of the game.
+     */
+    public FrameProfiler getProfiler()
+    {
+        return this.profiler;
+    }
+
+    /**
+     * Gets the tweens advanced once per update with the real frame time.
+     * @return The tween manager of the game.
+     */
+    public TweenManager getTweens()
+    {
+        return this.tweens;
+    }
+
+    public ScreenCache getScreenCache()
+    {
+        return this.screenCache;
+    }
+
+    /**
+     * Gets the asset loading progress of the screen waiting to be shown,
+     * intended to be drawn by the loading screen.
+     * @return The progress from 0 to 1, 1 if no screen is waiting.
+     */
+    public float getLoadingProgress()
+    {
+        return this.pendingScreen == null ? 1.0f : this.pendingScreen.getAssets().getProgress();
     }
 
     protected void overrideLoadingScreen(AbstractGameScreen<?> customScreen)
@@ -246,6 +598,94 @@ public abstract class AbstractExtendedGame implements Game
         AbstractExtendedGame.screenHeight = screenHeight;
     }
 
+    public InputQueue getInputQueue()
+    {
+        return this.inputQueue;
+    }
+
+    public boolean isBufferingInput()
+    {
+        return this.bufferingInput;
+    }
+
+    /**
+     * Sets whether input events are queued and dispatched once at the start of
+     * each update (the default), or dispatched as soon as the platform delivers them.
+     * Switching buffering off dispatches any events still in the queue.
+     * @param bufferingInput The new buffering status.
+     */
+    public void setBufferingInput(boolean bufferingInput)
+    {
+        if (!bufferingInput)
+        {
+            this.drainInput();
+        }
+        this.bufferingInput = bufferingInput;
+    }
+
+    public InputRecorder getInputRecorder()
+    {
+        return this.inputRecorder;
+    }
+
+    /**
+     * Starts or stops recording the dispatched input and the update deltas.
+     * Events that reach the game through the queue are recorded when they
+     * are dispatched, just before the update they belong to.
+     * @param inputRecorder The recorder to append to, <code>null</code> to stop recording.
+     * @see InputReplayer
+     */
+    public void setInputRecorder(InputRecorder inputRecorder)
+    {
+        this.inputRecorder = inputRecorder;
+    }
+
+    public float getFixedStep()
+    {
+        return this.fixedStep;
+    }
+
+    /**
+     * Switches the game to a fixed simulation step. Each frame the elapsed time is
+     * accumulated and the current screen is updated in as many steps of exactly
+     * <code>fixedStep</code> milliseconds as fit, up to {@link #getMaxCatchUpSteps()}.
+     * The left over fraction of a step is passed to the screen's paint as the
+     * interpolation alpha, in the range [0, 1).
+     * @param fixedStep The step size in milliseconds, use 0 to update once per frame
+     *        with the variable frame delta (the default).
+     */
+    public void setFixedStep(float fixedStep)
+    {
+        this.fixedStep = fixedStep > 0 ? fixedStep : 0;
+        this.accumulator = 0;
+        this.interpolationAlpha = 0;
+    }
+
+    public int getMaxCatchUpSteps()
+    {
+        return this.maxCatchUpSteps;
+    }
+
+    /**
+     * Limits the number of fixed steps that are run in a single frame.
+     * Time beyond the limit is dropped, so a slow frame cannot cause
+     * more and more steps on the following frames.
+     * @param maxCatchUpSteps The maximum number of steps per frame, at least 1.
+     */
+    public void setMaxCatchUpSteps(int maxCatchUpSteps)
+    {
+        this.maxCatchUpSteps = Math.max(1, maxCatchUpSteps);
+    }
+
+    /**
+     * Gets the fraction of a fixed step that has elapsed since the last update.
+     * @return The interpolation alpha in the range [0, 1), always 0 when not fixed stepping.
+     */
+    public float getInterpolationAlpha()
+    {
+        return this.interpolationAlpha;
+    }
+
     public AbstractGameScreen<?> getDefaultLoadingScreen()
     {
         return this.defaultLoadingScreen;
@@ -261,8 +701,12 @@ public abstract class AbstractExtendedGame implements Game
     private class DefaultLoadingScreen extends AbstractGameScreen<AbstractExtendedGame>
     {
 
+        private static final int BAR_HEIGHT = 8;
+
         private CanvasLayer rootLayer = null;
 
+        private float drawnProgress = -1;
+
         protected DefaultLoadingScreen(AbstractExtendedGame game, int width, int height)
         {
             super(game, width, height);
@@ -271,19 +715,8 @@ public abstract class AbstractExtendedGame implements Game
         @Override
         public void init(ActionCallback<Void> callback, Object obj)
         {
-
-            int width = this.width;
-            int height = this.height;
-
-            this.rootLayer = graphics().createCanvasLayer(width, height);
-            Canvas canvas = this.rootLayer.canvas();
-
-            // set the contents in one go
-            canvas.setFillColor(Color.rgb(0, 0, 0)); // black
-            canvas.fillRect(0, 0, width, height);
-            canvas.setFillColor(Color.rgb(255, 255, 255)); // white
-            canvas.drawText("Loading...", width/2, height/2);
-
+            this.rootLayer = graphics().createCanvasLayer(this.width, this.height);
+            this.drawProgress(0);
         }
 
         @Override
@@ -295,7 +728,44 @@ public abstract class AbstractExtendedGame implements Game
         @Override
         public void paint(float alpha)
         {
-            // do nothing
+            // only redraw when the progress has moved
+            float progress = this.game.getLoadingProgress();
+            if (progress != this.drawnProgress)
+            {
+                this.drawProgress(progress);
+            }
+        }
+
+        @Override
+        public void drawTo(Canvas canvas)
+        {
+            this.drawProgress(canvas, this.drawnProgress < 0 ? 0 : this.drawnProgress);
+        }
+
+        private void drawProgress(float progress)
+        {
+            this.drawProgress(this.rootLayer.canvas(), progress);
+            this.drawnProgress = progress;
+        }
+
+        private void drawProgress(Canvas canvas, float progress)
+        {
+
+            int width = this.width;
+            int height = this.height;
+            int barWidth = width / 2;
+            int barX = (width - barWidth) / 2;
+            int barY = height/2 + 2*BAR_HEIGHT;
+
+            // set the contents in one go
+            canvas.setFillColor(Color.rgb(0, 0, 0)); // black
+            canvas.fillRect(0, 0, width, height);
+            canvas.setFillColor(Color.rgb(255, 255, 255)); // white
+            canvas.drawText("Loading...", width/2, height/2);
+            canvas.setStrokeColor(Color.rgb(255, 255, 255));
+            canvas.strokeRect(barX, barY, barWidth, BAR_HEIGHT);
+            canvas.fillRect(barX, barY, barWidth * progress, BAR_HEIGHT);
+
         }
 
         @Override
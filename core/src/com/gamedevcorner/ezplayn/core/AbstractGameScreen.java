@@ -37,15 +37,39 @@ public abstract class AbstractGameScreen<T extends AbstractExtendedGame> impleme
     protected GroupLayer messageLayer;
 
     private List<Message> activeMessages = new ArrayList<Message>();
-    private List<AbstractControl> activeControls = new ArrayList<AbstractControl>();
+    private final ChildControls children;
+    private final List<AbstractControl> activeControls;
 
     protected T game = null;
 
     protected AbstractGameScreen<?> previousScreen = null;
 
+    /** The timings of the screen, kept here so the {@link FrameProfiler} holds no references to it. */
+    TimingHistogram[] profile = null;
+    int profileGeneration = 0;
+
     protected int width = 0;
     protected int height = 0;
 
+    private AssetPreloader assets = null;
+
+    private static final int OP_SHOW_MESSAGE = 2;
+    private static final int OP_CLEAR_MESSAGES = 3;
+
+    private FocusManager focusManager = new FocusManager();
+
+    private boolean freezingBackground = false;
+    private CanvasImage frozenImage = null;
+    private ImageLayer frozenLayer = null;
+    private List<Layer> frozenLayers = new ArrayList<Layer>();
+
+    private boolean culling = false;
+    private boolean cullingUpdates = false;
+    private int viewX = 0;
+    private int viewY = 0;
+    private int viewWidth = -1;
+    private int viewHeight = -1;
+
     protected AbstractGameScreen(T game, int width, int height)
     {
 
@@ -57,242 +81,408 @@ public abstract class AbstractGameScreen<T extends AbstractExtendedGame> impleme
         this.controlLayer = graphics().createGroupLayer();
         this.messageLayer = graphics().createGroupLayer();
 
+        this.children = new ChildControls(this) {
+
+            @Override
+            void onAdded(AbstractControl control)
+            {
+                AbstractGameScreen.this.controlLayer.add(control.getRootLayer());
+            }
+
+            @Override
+            void onRemoved(AbstractControl control)
+            {
+                control.setCulled(false);
+            }
+
+            @Override
+            void applyDeferred(int op, Object target)
+            {
+                if (op == OP_SHOW_MESSAGE)
+                {
+                    AbstractGameScreen.this.showMessages((Message)target);
+                }
+                else if (op == OP_CLEAR_MESSAGES)
+                {
+                    AbstractGameScreen.this.clearMessages();
+                }
+            }
+
+        };
+        this.activeControls = this.children.getControls();
+        this.children.setSpatialIndex(new GridSpatialIndex(width, height));
+
     }
 
     public void onShown(Object obj) { /* NOOP */ }
 
+    /**
+     * Called by the {@link ScreenCache} after the screen has been evicted.
+     * Override to release the layers and images held by the screen.
+     */
+    public void onEvicted() { /* NOOP */ }
+
+    /**
+     * Estimates the memory held by this screen, used by the {@link ScreenCache}.
+     * Screens that create their own images or canvases should add them to the estimate.
+     * @return The estimate in bytes, by default the sum of the controls and messages.
+     */
+    public long estimateBytes()
+    {
+        long bytes = 0;
+        for (AbstractControl c : this.activeControls)
+        {
+            bytes += c.estimateBytes();
+        }
+        for (Message m : this.activeMessages)
+        {
+            bytes += m.estimateBytes();
+        }
+        bytes += ScreenCache.estimateBytes(this.frozenImage);
+        return bytes;
+    }
+
+    /**
+     * Draws the screen onto a canvas, used for the snapshot animated by a
+     * {@link ScreenTransition} when switching away from this screen.
+     * By default draws the active controls and then the active messages.
+     * Screens with layers of their own, such as a background, should
+     * override this and draw them before calling the super method.
+     * @param canvas The canvas to draw on, the size of the screen.
+     */
+    public void drawTo(Canvas canvas)
+    {
+        for (int i = 0; i < this.activeControls.size(); i++)
+        {
+            this.activeControls.get(i).drawTo(canvas, 0, 0);
+        }
+        for (int i = 0; i < this.activeMessages.size(); i++)
+        {
+            this.activeMessages.get(i).drawTo(canvas, 0, 0);
+        }
+    }
+
+    /**
+     * Declares the images, text and sounds that have to be resident before
+     * the screen can be shown. Called once, the first time the assets are requested.
+     * @param assets The preloader to add the asset paths to.
+     */
+    protected void declareAssets(AssetPreloader assets) { /* NOOP */ }
+
+    /**
+     * Gets the preloader holding the assets declared by this screen.
+     * @return The preloader, which may not have been started yet.
+     */
+    public AssetPreloader getAssets()
+    {
+        if (this.assets == null)
+        {
+            this.assets = new AssetPreloader();
+            this.declareAssets(this.assets);
+        }
+        return this.assets;
+    }
+
     @Override
     public void update(float delta)
     {
-        if (this.activeMessages.size() > 0)
+        this.beginDispatch();
+        try
         {
-            try
+            if (this.activeMessages.size() > 0)
             {
-                for (Message m : this.activeMessages)
+                for (int i = 0; i < this.activeMessages.size(); i++)
                 {
-                    m.update(delta);
+                    this.activeMessages.get(i).update(delta);
                 }
             }
-            catch (Exception e) { /* Ignore */ }
-        }
-        else
-        {
-            try
+            else
             {
-                for (AbstractControl c : this.activeControls)
+                FrameProfiler profiler = this.game == null ? null : this.game.getProfiler();
+                if (profiler != null && profiler.isProfilingControls())
                 {
-                    c.update(delta);
+                    AbstractControl c;
+                    for (int i = 0; i < this.activeControls.size(); i++)
+                    {
+                        c = this.activeControls.get(i);
+                        if (this.cullingUpdates && c.isCulled()) { continue; }
+                        long start = profiler.begin();
+                        c.update(delta);
+                        profiler.endControl(FrameProfiler.UPDATE, c, start);
+                    }
+                }
+                else
+                {
+                    AbstractControl c;
+                    for (int i = 0; i < this.activeControls.size(); i++)
+                    {
+                        c = this.activeControls.get(i);
+                        if (this.cullingUpdates && c.isCulled()) { continue; }
+                        c.update(delta);
+                    }
                 }
             }
-            catch (Exception e) { /* Ignore */ }
+        }
+        finally
+        {
+            this.endDispatch();
         }
     }
 
     @Override
     public void paint(float alpha)
     {
-        if (this.activeMessages.size() > 0)
+        this.beginDispatch();
+        try
         {
-            try
+            if (this.activeMessages.size() > 0)
             {
-                for (Message m : this.activeMessages)
+                for (int i = 0; i < this.activeMessages.size(); i++)
                 {
-                    m.paint(alpha);
+                    this.activeMessages.get(i).paint(alpha);
                 }
             }
-            catch (Exception e) { /* Ignore */ }
-        }
-        else
-        {
-            try
+            else
             {
-                for (AbstractControl c : this.activeControls)
+                if (this.culling)
                 {
-                    c.paint(alpha);
+                    this.cullControls();
+                }
+                FrameProfiler profiler = this.game == null ? null : this.game.getProfiler();
+                if (profiler != null && profiler.isProfilingControls())
+                {
+                    AbstractControl c;
+                    for (int i = 0; i < this.activeControls.size(); i++)
+                    {
+                        c = this.activeControls.get(i);
+                        if (c.isCulled()) { continue; }
+                        long start = profiler.begin();
+                        c.paint(alpha);
+                        profiler.endControl(FrameProfiler.PAINT, c, start);
+                    }
+                }
+                else
+                {
+                    AbstractControl c;
+                    for (int i = 0; i < this.activeControls.size(); i++)
+                    {
+                        c = this.activeControls.get(i);
+                        if (c.isCulled()) { continue; }
+                        c.paint(alpha);
+                    }
                 }
             }
-            catch (Exception e) { /* Ignore */ }
+        }
+        finally
+        {
+            this.endDispatch();
         }
     }
 
     @Override
     public void onPointerDown(int x, int y)
     {
-        if (this.activeMessages.size() > 0)
+        this.beginDispatch();
+        try
         {
-            try
+            if (this.activeMessages.size() > 0)
             {
-                for (Message m : this.activeMessages)
+                Message m;
+                for (int i = 0; i < this.activeMessages.size(); i++)
                 {
+                    m = this.activeMessages.get(i);
                     m.onPointerDown(x - m.getX(), y - m.getY());
                 }
             }
-            catch (Exception e) { /* Ignore */ }
-        }
-        else
-        {
-            try
+            else
             {
-                int nx, ny;
-                for (AbstractControl c : this.activeControls)
-                {
-                    nx = x - c.getX();
-                    ny = y - c.getY();
-                    if (c.isInNormRange(nx, ny))
-                    {
-                        c.onPointerDown(nx, ny);
-                    }
-                }
+                this.children.pointerDown(x, y);
             }
-            catch (Exception e) { /* Ignore */ }
+        }
+        finally
+        {
+            this.endDispatch();
         }
     }
 
     @Override
     public void onPointerUp(int x, int y)
     {
-        if (this.activeMessages.size() > 0)
+        this.beginDispatch();
+        try
         {
-            try
+            if (this.activeMessages.size() > 0)
             {
-                for (Message m : this.activeMessages)
+                Message m;
+                for (int i = 0; i < this.activeMessages.size(); i++)
                 {
+                    m = this.activeMessages.get(i);
                     m.onPointerUp(x - m.getX(), y - m.getY());
                 }
             }
-            catch (Exception e) { /* Ignore */ }
-        }
-        else
-        {
-            try
+            else
             {
-                for (AbstractControl c : this.activeControls)
-                {
-                    c.onPointerUp(x - c.getX(), y - c.getY());
-                }
+                this.children.pointerUp(x, y);
             }
-            catch (Exception e) { /* Ignore */ }
+        }
+        finally
+        {
+            this.endDispatch();
         }
     }
 
     @Override
     public void onPointerMove(int x, int y)
     {
-        if (this.activeMessages.size() > 0)
+        this.beginDispatch();
+        try
         {
-            try
+            if (this.activeMessages.size() > 0)
             {
-                for (Message m : this.activeMessages)
+                Message m;
+                for (int i = 0; i < this.activeMessages.size(); i++)
                 {
+                    m = this.activeMessages.get(i);
                     m.onPointerMove(x - m.getX(), y - m.getY());
                 }
             }
-            catch (Exception e) { /* Ignore */ }
-        }
-        else
-        {
-            try
+            else
             {
-                int nx, ny;
-                for (AbstractControl c : this.activeControls)
-                {
-                    nx = x - c.getX();
-                    ny = y - c.getY();
-                    if (c.isInNormRange(nx, ny))
-                    {
-                        c.onPointerMove(nx, ny);
-                    }
-                    else
-                    {
-                        c.onPointerLeave(x, y);
-                    }
-                }
+                this.children.pointerMove(x, y);
             }
-            catch (Exception e) { /* Ignore */ }
+        }
+        finally
+        {
+            this.endDispatch();
         }
     }
 
     @Override
     public void onPointerScroll(int velocity)
     {
-        if (this.activeMessages.size() > 0)
+        this.beginDispatch();
+        try
         {
-            try
+            if (this.activeMessages.size() > 0)
             {
-                for (Message m : this.activeMessages)
+                for (int i = 0; i < this.activeMessages.size(); i++)
                 {
-                    m.onPointerScroll(velocity);
+                    this.activeMessages.get(i).onPointerScroll(velocity);
                 }
             }
-            catch (Exception e) { /* Ignore */ }
-        }
-        else
-        {
-            try
+            else
             {
-                for (AbstractControl c : this.activeControls)
+                for (int i = 0; i < this.activeControls.size(); i++)
                 {
-                    c.onPointerScroll(velocity);
+                    this.activeControls.get(i).onPointerScroll(velocity);
                 }
             }
-            catch (Exception e) { /* Ignore */ }
+        }
+        finally
+        {
+            this.endDispatch();
         }
     }
 
     @Override
     public void onKeyDown(int keyCode)
     {
-        if (this.activeMessages.size() > 0)
+        this.beginDispatch();
+        try
         {
-            try
+            if (this.isFocusReachable())
             {
-                for (Message m : this.activeMessages)
+                this.focusManager.dispatchKeyDown(keyCode);
+            }
+            else if (this.activeMessages.size() > 0)
+            {
+                for (int i = 0; i < this.activeMessages.size(); i++)
                 {
-                    m.onKeyDown(keyCode);
+                    this.activeMessages.get(i).onKeyDown(keyCode);
                 }
             }
-            catch (Exception e) { /* Ignore */ }
-        }
-        else
-        {
-            try
+            else
             {
-                for (AbstractControl c : this.activeControls)
+                for (int i = 0; i < this.activeControls.size(); i++)
                 {
-                    c.onKeyDown(keyCode);
+                    this.activeControls.get(i).onKeyDown(keyCode);
                 }
             }
-            catch (Exception e) { /* Ignore */ }
+        }
+        finally
+        {
+            this.endDispatch();
         }
     }
 
     @Override
     public void onKeyUp(int keyCode)
     {
-        if (this.activeMessages.size() > 0)
+        this.beginDispatch();
+        try
         {
-            try
+            if (this.isFocusReachable())
             {
-                for (Message m : this.activeMessages)
+                this.focusManager.dispatchKeyUp(keyCode);
+            }
+            else if (this.activeMessages.size() > 0)
+            {
+                for (int i = 0; i < this.activeMessages.size(); i++)
                 {
-                    m.onKeyUp(keyCode);
+                    this.activeMessages.get(i).onKeyUp(keyCode);
                 }
             }
-            catch (Exception e) { /* Ignore */ }
-        }
-        else
-        {
-            try
+            else
             {
-                for (AbstractControl c : this.activeControls)
+                for (int i = 0; i < this.activeControls.size(); i++)
                 {
-                    c.onKeyUp(keyCode);
+                    this.activeControls.get(i).onKeyUp(keyCode);
                 }
             }
-            catch (Exception e) { /* Ignore */ }
+        }
+        finally
+        {
+            this.endDispatch();
         }
     }
 
+    /**
+     * Checks if the focused control can receive key events, that is it belongs
+     * to an active message, or to this screen while no message is shown.
+     * Otherwise key events are sent to every active message or control.
+     * @return Whether key events go to the focused chain only.
+     */
+    private boolean isFocusReachable()
+    {
+        AbstractControl root = this.focusManager.getFocusRoot();
+        if (root == null) { return false; }
+        if (this.activeMessages.size() > 0)
+        {
+            return this.activeMessages.contains(root);
+        }
+        return root.getParent() == this;
+    }
+
+    /**
+     * Marks the start of a dispatch over the active controls and messages.
+     * Until the matching {@link #endDispatch()}, adding and removing controls
+     * and showing or clearing messages is deferred, so the lists never change
+     * while they are being walked.
+     */
+    private void beginDispatch()
+    {
+        this.children.beginDispatch();
+    }
+
+    /**
+     * Marks the end of a dispatch, applying the deferred changes once the
+     * outermost dispatch has finished.
+     */
+    private void endDispatch()
+    {
+        this.children.endDispatch();
+    }
+
     @Override
     public Layer getRootLayer()
     {
@@ -324,11 +514,13 @@ public abstract class AbstractGameScreen<T extends AbstractExtendedGame> impleme
     public void setWidth(int width)
     {
         this.width = width;
+        this.children.getSpatialIndex().resize(this.width, this.height);
     }
 
     public void setHeight(int height)
     {
         this.height = height;
+        this.children.getSpatialIndex().resize(this.width, this.height);
     }
 
     public T getGame()
@@ -355,25 +547,260 @@ public abstract class AbstractGameScreen<T extends AbstractExtendedGame> impleme
     @Override
     public boolean addChildControl(AbstractControl control)
     {
-        if (control == null) { return false; }
-        this.activeControls.add(control);
-        this.controlLayer.add(control.getRootLayer());
-        return true;
+        return this.children.add(control);
     }
 
     @Override
     public boolean removeChildControl(AbstractControl control)
     {
-        if (control == null) { return false; }
-        return this.activeControls.remove(control);
+        return this.children.remove(control);
+    }
+
+    public PointerTracker getPointerTracker()
+    {
+        return this.children.getPointerTracker();
+    }
+
+    public FocusManager getFocusManager()
+    {
+        return this.focusManager;
+    }
+
+    /**
+     * Moves the keyboard focus to the next focusable control, within the first
+     * active message if there is one, otherwise within this screen.
+     * @return <code>false</code> if there is no focusable control.
+     */
+    public boolean focusNext()
+    {
+        return this.focusManager.focusNext(this.getFocusScope());
+    }
+
+    /**
+     * Moves the keyboard focus to the previous focusable control, within the first
+     * active message if there is one, otherwise within this screen.
+     * @return <code>false</code> if there is no focusable control.
+     */
+    public boolean focusPrevious()
+    {
+        return this.focusManager.focusPrevious(this.getFocusScope());
+    }
+
+    private ControlHolder getFocusScope()
+    {
+        return this.activeMessages.size() > 0 ? this.activeMessages.get(0) : this;
+    }
+
+    public boolean isFreezingBackground()
+    {
+        return this.freezingBackground;
+    }
+
+    /**
+     * Sets whether the screen is flattened into a single image while messages
+     * are shown. Controls are not updated under a message anyway, so the
+     * live layers are hidden behind a snapshot taken with {@link #drawTo(Canvas)}
+     * when the first message is shown, and restored when the messages are cleared.
+     * Changes made to the controls while a message is up only show afterwards.
+     * @param freezingBackground The new status, off by default.
+     */
+    public void setFreezingBackground(boolean freezingBackground)
+    {
+        this.freezingBackground = freezingBackground;
+        if (!freezingBackground)
+        {
+            this.thawBackground();
+        }
+    }
+
+    public boolean isBackgroundFrozen()
+    {
+        return this.frozenLayer != null && this.frozenLayer.parent() != null;
+    }
+
+    /**
+     * Replaces the layers of the screen with a single image of them.
+     */
+    private void freezeBackground()
+    {
+
+        if (this.isBackgroundFrozen()) { return; }
+
+        if (this.frozenImage == null || this.frozenImage.width() != this.width || this.frozenImage.height() != this.height)
+        {
+            this.frozenImage = graphics().createImage(this.width, this.height);
+            this.frozenLayer = null;
+        }
+        Canvas canvas = this.frozenImage.canvas();
+        canvas.clear();
+        this.drawTo(canvas);
+
+        // hide the live layers, remembering which were shown
+        this.frozenLayers.clear();
+        Layer layer;
+        for (int i = 0; i < this.rootLayer.size(); i++)
+        {
+            layer = this.rootLayer.get(i);
+            if (layer.visible())
+            {
+                layer.setVisible(false);
+                this.frozenLayers.add(layer);
+            }
+        }
+
+        if (this.frozenLayer == null)
+        {
+            this.frozenLayer = graphics().createImageLayer(this.frozenImage);
+        }
+        this.rootLayer.add(this.frozenLayer);
+
+    }
+
+    /**
+     * Shows the live layers again after {@link #freezeBackground()}.
+     */
+    private void thawBackground()
+    {
+        if (!this.isBackgroundFrozen()) { return; }
+        this.rootLayer.remove(this.frozenLayer);
+        for (int i = 0; i < this.frozenLayers.size(); i++)
+        {
+            this.frozenLayers.get(i).setVisible(true);
+        }
+        this.frozenLayers.clear();
+    }
+
+    public boolean isCulling()
+    {
+        return this.culling;
+    }
+
+    /**
+     * Sets whether controls entirely outside the view are culled: their layers
+     * are hidden and they are not painted. Culling is worked out at the start
+     * of each paint from the control bounds, so moving a control with
+     * {@link AbstractControl#commitLayout(int, int)} is picked up on the next frame.
+     * Turning culling off shows every culled control again.
+     * @param culling The new culling status, off by default.
+     * @see #setViewport(int, int, int, int)
+     */
+    public void setCulling(boolean culling)
+    {
+        this.culling = culling;
+        if (!culling)
+        {
+            for (int i = 0; i < this.activeControls.size(); i++)
+            {
+                this.activeControls.get(i).setCulled(false);
+            }
+        }
+    }
+
+    public boolean isCullingUpdates()
+    {
+        return this.cullingUpdates;
+    }
+
+    /**
+     * Sets whether culled controls are also skipped by {@link #update(float)}.
+     * Only use this for controls that do not need to change while off-screen.
+     * The update uses the culling worked out by the previous paint.
+     * @param cullingUpdates The new status, off by default.
+     */
+    public void setCullingUpdates(boolean cullingUpdates)
+    {
+        this.cullingUpdates = cullingUpdates;
+    }
+
+    /**
+     * Sets the part of the screen, in control coordinates, that is visible.
+     * Screens that scroll their control layer should move the viewport with it.
+     * By default the view is the whole screen from the origin.
+     * @param x The x-coordinate of the view
+     * @param y The y-coordinate of the view
+     * @param width The width of the view
+     * @param height The height of the view
+     */
+    public void setViewport(int x, int y, int width, int height)
+    {
+        this.viewX = x;
+        this.viewY = y;
+        this.viewWidth = width;
+        this.viewHeight = height;
+    }
+
+    public int getViewX()
+    {
+        return this.viewX;
+    }
+
+    public int getViewY()
+    {
+        return this.viewY;
+    }
+
+    public int getViewWidth()
+    {
+        return this.viewWidth < 0 ? this.width : this.viewWidth;
+    }
+
+    public int getViewHeight()
+    {
+        return this.viewHeight < 0 ? this.height : this.viewHeight;
+    }
+
+    /**
+     * Culls the controls whose bounds are entirely outside the viewport.
+     */
+    private void cullControls()
+    {
+        int vx = this.viewX;
+        int vy = this.viewY;
+        int vw = this.getViewWidth();
+        int vh = this.getViewHeight();
+        AbstractControl c;
+        for (int i = 0; i < this.activeControls.size(); i++)
+        {
+            c = this.activeControls.get(i);
+            c.setCulled(!c.intersects(vx, vy, vw, vh));
+        }
+    }
+
+    public SpatialIndex getSpatialIndex()
+    {
+        return this.children.getSpatialIndex();
+    }
+
+    /**
+     * Replaces the index used for pointer hit-testing of the child controls.
+     * All the currently active controls are moved over to the new index.
+     * @param spatialIndex The new index, <code>null</code> is ignored.
+     */
+    public void setSpatialIndex(SpatialIndex spatialIndex)
+    {
+        if (spatialIndex == null) { return; }
+        this.children.setSpatialIndex(spatialIndex);
     }
 
     protected void clearMessages()
     {
 
+        if (this.children.isDispatching())
+        {
+            this.children.defer(OP_CLEAR_MESSAGES, null);
+            return;
+        }
+
         for (Message m : this.activeMessages)
         {
+            this.focusManager.onControlRemoved(m);
+            if (m.getParent() == this)
+            {
+                m.setParent(null);
+            }
             m.hide();
+            // pooled text messages go back to their pool
+            m.onCleared();
         }
         this.activeMessages.clear();
 
@@ -382,13 +809,26 @@ public abstract class AbstractGameScreen<T extends AbstractExtendedGame> impleme
             this.getMessageLayer().clear();
         }
 
+        this.thawBackground();
+
     }
 
     protected void showMessages(Message msg)
     {
+        if (this.children.isDispatching())
+        {
+            this.children.defer(OP_SHOW_MESSAGE, msg);
+            return;
+        }
         if (this.getMessageLayer() != null && msg.getRootLayer() != null)
         {
+            if (this.freezingBackground && this.activeMessages.isEmpty())
+            {
+                this.freezeBackground();
+            }
             msg.show();
+            // lets the message find the focus manager of the screen
+            msg.setParent(this);
             this.getMessageLayer().add(msg.getRootLayer());
             this.activeMessages.add(msg);
         }
@@ -0,0 +1,57 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+/**
+ * Grows the parallel primitive arrays of {@link SpriteBatch}, {@link ParticleSystem}
+ * and {@link FrameTable}, keeping the values in use.
+ * @author Prageeth Silva
+ */
+final class ArrayGrowth
+{
+
+    private ArrayGrowth() { /* NOOP */ }
+
+    /* Static methods */
+
+    /**
+     * Copies an array into a new one of the given capacity.
+     * @param array The array to grow, <code>null</code> for a new empty array
+     * @param capacity The new length
+     * @param count The number of values in use at the start of the array
+     * @return The grown array.
+     */
+    static float[] grow(float[] array, int capacity, int count)
+    {
+        float[] grown = new float[capacity];
+        if (array != null)
+        {
+            System.arraycopy(array, 0, grown, 0, count);
+        }
+        return grown;
+    }
+
+    static int[] grow(int[] array, int capacity, int count)
+    {
+        int[] grown = new int[capacity];
+        if (array != null)
+        {
+            System.arraycopy(array, 0, grown, 0, count);
+        }
+        return grown;
+    }
+
+}
@@ -0,0 +1,287 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static playn.core.PlayN.*;
+
+import java.util.*;
+
+import playn.core.*;
+
+/**
+ * Loads a set of images, text files and sounds concurrently and keeps track of
+ * the progress. Each {@link AbstractGameScreen} owns one, filled in by
+ * {@link AbstractGameScreen#declareAssets(AssetPreloader)}, and the game only
+ * switches to a screen once all of its assets are resident.
+ * @author Prageeth Silva
+ * @see AbstractExtendedGame#setCurrentScreen(AbstractGameScreen, Object)
+ */
+public class AssetPreloader
+{
+
+    private final Map<String, Image> images = new HashMap<String, Image>();
+    private final Map<String, String> texts = new HashMap<String, String>();
+    private final Map<String, Sound> sounds = new HashMap<String, Sound>();
+
+    private final List<String> declaredImages = new ArrayList<String>();
+    private final List<String> declaredTexts = new ArrayList<String>();
+    private final List<String> declaredSounds = new ArrayList<String>();
+
+    private final List<ActionCallback<Void>> callbacks = new ArrayList<ActionCallback<Void>>();
+
+    private int total = 0;
+    private int settled = 0;
+    private int failed = 0;
+    private Throwable firstError = null;
+
+    private boolean started = false;
+
+    /**
+     * Declares an image to be loaded.
+     * @param path The path of the image as given to {@link AssetManager#getImage(String)}
+     */
+    public void addImage(String path)
+    {
+        if (path == null || this.declaredImages.contains(path)) { return; }
+        this.declaredImages.add(path);
+        this.total++;
+        if (this.started)
+        {
+            this.loadImage(path);
+        }
+    }
+
+    /**
+     * Declares a text file to be loaded.
+     * @param path The path of the text as given to {@link AssetManager#getText(String, ResourceCallback)}
+     */
+    public void addText(String path)
+    {
+        if (path == null || this.declaredTexts.contains(path)) { return; }
+        this.declaredTexts.add(path);
+        this.total++;
+        if (this.started)
+        {
+            this.loadText(path);
+        }
+    }
+
+    /**
+     * Declares a sound to be loaded. PlayN does not report when a sound is ready,
+     * so sounds count as loaded as soon as they are requested.
+     * @param path The path of the sound as given to {@link AssetManager#getSound(String)}
+     */
+    public void addSound(String path)
+    {
+        if (path == null || this.declaredSounds.contains(path)) { return; }
+        this.declaredSounds.add(path);
+        this.total++;
+        if (this.started)
+        {
+            this.loadSound(path);
+        }
+    }
+
+    /**
+     * Starts loading all the declared assets at once, does nothing if already started.
+     * @param callback Notified once every asset has either loaded or failed,
+     *        the error is the first failure if there was any. May be <code>null</code>.
+     */
+    public void start(ActionCallback<Void> callback)
+    {
+
+        if (callback != null)
+        {
+            this.callbacks.add(callback);
+        }
+
+        if (this.started)
+        {
+            if (this.isDone())
+            {
+                this.notifyCallbacks();
+            }
+            return;
+        }
+        this.started = true;
+
+        for (int i = 0; i < this.declaredImages.size(); i++)
+        {
+            this.loadImage(this.declaredImages.get(i));
+        }
+        for (int i = 0; i < this.declaredTexts.size(); i++)
+        {
+            this.loadText(this.declaredTexts.get(i));
+        }
+        for (int i = 0; i < this.declaredSounds.size(); i++)
+        {
+            this.loadSound(this.declaredSounds.get(i));
+        }
+
+        if (this.isDone())
+        {
+            this.notifyCallbacks();
+        }
+
+    }
+
+    /**
+     * Checks if every declared asset has either loaded or failed.
+     * @return <code>false</code> if loading has not been started or is still in progress.
+     */
+    public boolean isDone()
+    {
+        return this.started && this.settled >= this.total;
+    }
+
+    public boolean isStarted()
+    {
+        return this.started;
+    }
+
+    /**
+     * Gets the loading progress.
+     * @return The fraction of the declared assets that have settled, from 0 to 1.
+     */
+    public float getProgress()
+    {
+        return this.total == 0 ? 1.0f : (float)this.settled / this.total;
+    }
+
+    public int getAssetCount()
+    {
+        return this.total;
+    }
+
+    public int getFailedCount()
+    {
+        return this.failed;
+    }
+
+    /**
+     * Gets a loaded image.
+     * @param path The declared path of the image
+     * @return The image, or <code>null</code> if it has not finished loading.
+     */
+    public Image getImage(String path)
+    {
+        return this.images.get(path);
+    }
+
+    /**
+     * Gets a loaded text file.
+     * @param path The declared path of the text
+     * @return The text, or <code>null</code> if it has not finished loading.
+     */
+    public String getText(String path)
+    {
+        return this.texts.get(path);
+    }
+
+    /**
+     * Gets a requested sound.
+     * @param path The declared path of the sound
+     * @return The sound, or <code>null</code> if loading has not been started.
+     */
+    public Sound getSound(String path)
+    {
+        return this.sounds.get(path);
+    }
+
+    private void loadImage(final String path)
+    {
+        final Image image = assetManager().getImage(path);
+        image.addCallback(new ResourceCallback<Image>() {
+
+            @Override
+            public void done(Image resource)
+            {
+                images.put(path, image);
+                settle(null);
+            }
+
+            @Override
+            public void error(Throwable error)
+            {
+                log().error("Failed to load image: " + path, error);
+                settle(error);
+            }
+
+        });
+    }
+
+    private void loadText(final String path)
+    {
+        assetManager().getText(path, new ResourceCallback<String>() {
+
+            @Override
+            public void done(String resource)
+            {
+                texts.put(path, resource);
+                settle(null);
+            }
+
+            @Override
+            public void error(Throwable error)
+            {
+                log().error("Failed to load text: " + path, error);
+                settle(error);
+            }
+
+        });
+    }
+
+    private void loadSound(String path)
+    {
+        this.sounds.put(path, assetManager().getSound(path));
+        this.settle(null);
+    }
+
+    private void settle(Throwable error)
+    {
+        this.settled++;
+        if (error != null)
+        {
+            this.failed++;
+            if (this.firstError == null)
+            {
+                this.firstError = error;
+            }
+        }
+        if (this.isDone())
+        {
+            this.notifyCallbacks();
+        }
+    }
+
+    private void notifyCallbacks()
+    {
+        List<ActionCallback<Void>> pending = new ArrayList<ActionCallback<Void>>(this.callbacks);
+        this.callbacks.clear();
+        for (ActionCallback<Void> callback : pending)
+        {
+            if (this.firstError == null)
+            {
+                callback.done(null);
+            }
+            else
+            {
+                callback.error(this.firstError);
+            }
+        }
+    }
+
+}
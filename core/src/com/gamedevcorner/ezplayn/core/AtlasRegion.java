@@ -0,0 +1,137 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static playn.core.PlayN.*;
+
+import playn.core.*;
+
+/**
+ * A rectangular part of a {@link TextureAtlas} page that holds one source image.
+ * Until the atlas is packed the region refers to the whole source image, once
+ * packed the region only refers to its page and the source image can be collected.
+ * @author Prageeth Silva
+ * @see TextureAtlas
+ */
+public class AtlasRegion
+{
+
+    private Image source;
+
+    private Image page = null;
+    private int x = 0;
+    private int y = 0;
+    private int width = 0;
+    private int height = 0;
+
+    AtlasRegion(Image source)
+    {
+        this.source = source;
+    }
+
+    /**
+     * Creates an image layer showing only this region.
+     * The atlas must already be packed, a layer of the source image would keep
+     * its own texture and never move to the page.
+     * @return A new layer sized to the region.
+     * @throws IllegalStateException If the region has not been packed.
+     */
+    public ImageLayer createLayer()
+    {
+        if (this.page == null)
+        {
+            throw new IllegalStateException("The atlas must be packed before creating layers of its regions");
+        }
+        ImageLayer layer = graphics().createImageLayer(this.page);
+        layer.setSourceRect(this.x, this.y, this.width, this.height);
+        layer.setSize(this.width, this.height);
+        return layer;
+    }
+
+    /**
+     * Draws this region onto a canvas.
+     * @param canvas The canvas to draw on
+     * @param dx The x-coordinate on the canvas
+     * @param dy The y-coordinate on the canvas
+     */
+    public void draw(Canvas canvas, float dx, float dy)
+    {
+        if (this.page == null)
+        {
+            canvas.drawImage(this.source, dx, dy);
+        }
+        else
+        {
+            int w = this.getWidth();
+            int h = this.getHeight();
+            canvas.drawImage(this.page, dx, dy, w, h, this.x, this.y, w, h);
+        }
+    }
+
+    void pack(Image page, int x, int y)
+    {
+        this.width = this.source.width();
+        this.height = this.source.height();
+        this.page = page;
+        this.x = x;
+        this.y = y;
+        this.source = null;
+    }
+
+    public boolean isPacked()
+    {
+        return this.page != null;
+    }
+
+    /**
+     * Gets the image the region was created from.
+     * @return The original image, or <code>null</code> once the region has been packed.
+     */
+    public Image getSource()
+    {
+        return this.source;
+    }
+
+    /**
+     * Gets the atlas page holding the region.
+     * @return The page, or the source image if the region has not been packed.
+     */
+    public Image getPage()
+    {
+        return this.page == null ? this.source : this.page;
+    }
+
+    public int getX()
+    {
+        return this.x;
+    }
+
+    public int getY()
+    {
+        return this.y;
+    }
+
+    public int getWidth()
+    {
+        return this.page == null ? this.source.width() : this.width;
+    }
+
+    public int getHeight()
+    {
+        return this.page == null ? this.source.height() : this.height;
+    }
+
+}
@@ -0,0 +1,338 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import java.util.*;
+
+/**
+ * The child controls of a {@link ControlHolder}, shared by {@link AbstractGameScreen},
+ * {@link Message} and {@link StaticControlGroup}. Keeps the list of controls, finds
+ * the ones under the pointer and tracks the pointer over them, and tells the
+ * {@link FocusManager} about removed controls.
+ * While the holder is dispatching an event to its children, between
+ * {@link #beginDispatch()} and {@link #endDispatch()}, adding and removing
+ * controls is deferred, so the list never changes while it is being walked.
+ * The deferred changes are applied in order through the holder once the
+ * outermost dispatch has finished. Holders can defer changes of their own with
+ * {@link #defer(int, Object)} and apply them in {@link #applyDeferred(int, Object)}.
+ * @author Prageeth Silva
+ * @see ControlHolder
+ */
+class ChildControls
+{
+
+    static final int OP_ADD = 0;
+    static final int OP_REMOVE = 1;
+
+    private final ControlHolder holder;
+
+    private final List<AbstractControl> controls = new ArrayList<AbstractControl>();
+    private final List<AbstractControl> hits = new ArrayList<AbstractControl>();
+    private final PointerTracker pointerTracker = new PointerTracker();
+
+    private SpatialIndex spatialIndex = null;
+
+    private int dispatchDepth = 0;
+    private int[] pendingOps = new int[4];
+    private Object[] pendingTargets = new Object[4];
+    private int pendingCount = 0;
+
+    ChildControls(ControlHolder holder)
+    {
+        this.holder = holder;
+    }
+
+    /**
+     * Called after a control has been added, for the holder to show it.
+     * @param control The added control
+     */
+    void onAdded(AbstractControl control) { /* NOOP */ }
+
+    /**
+     * Called after a control has been removed, for the holder to hide it.
+     * @param control The removed control
+     */
+    void onRemoved(AbstractControl control) { /* NOOP */ }
+
+    /**
+     * Applies a change the holder deferred with {@link #defer(int, Object)}.
+     * @param op The operation of the holder
+     * @param target The object it applies to
+     */
+    void applyDeferred(int op, Object target) { /* NOOP */ }
+
+    List<AbstractControl> getControls()
+    {
+        return this.controls;
+    }
+
+    PointerTracker getPointerTracker()
+    {
+        return this.pointerTracker;
+    }
+
+    SpatialIndex getSpatialIndex()
+    {
+        return this.spatialIndex;
+    }
+
+    /**
+     * Sets the index used to find the controls under the pointer, moving the
+     * controls over to it. Without an index every control is checked.
+     * @param spatialIndex The new index, <code>null</code> for none
+     */
+    void setSpatialIndex(SpatialIndex spatialIndex)
+    {
+        if (this.spatialIndex != null)
+        {
+            this.spatialIndex.clear();
+        }
+        this.spatialIndex = spatialIndex;
+        if (spatialIndex == null) { return; }
+        spatialIndex.clear();
+        AbstractControl c;
+        for (int i = 0; i < this.controls.size(); i++)
+        {
+            c = this.controls.get(i);
+            c.setSpatialIndex(spatialIndex);
+            spatialIndex.insert(c);
+        }
+    }
+
+    /**
+     * Adds a control, or defers it while dispatching.
+     * @param control The control to add
+     * @return <code>false</code> if the control is <code>null</code>.
+     */
+    boolean add(AbstractControl control)
+    {
+        if (control == null) { return false; }
+        if (this.isDispatching())
+        {
+            control.pendingParent = this.holder;
+            this.defer(OP_ADD, control);
+            return true;
+        }
+        this.controls.add(control);
+        control.setParent(this.holder);
+        if (this.spatialIndex != null)
+        {
+            control.setSpatialIndex(this.spatialIndex);
+            this.spatialIndex.insert(control);
+        }
+        this.onAdded(control);
+        return true;
+    }
+
+    /**
+     * Removes a control, or defers it while dispatching.
+     * @param control The control to remove
+     * @return Whether the control belonged, or was about to belong, to the holder.
+     */
+    boolean remove(AbstractControl control)
+    {
+        if (control == null) { return false; }
+        if (this.isDispatching())
+        {
+            boolean known = control.getParent() == this.holder || control.pendingParent == this.holder;
+            this.defer(OP_REMOVE, control);
+            return known;
+        }
+        if (this.spatialIndex != null)
+        {
+            this.spatialIndex.remove(control);
+            control.setSpatialIndex(null);
+        }
+        FocusManager focus = FocusManager.of(this.holder);
+        if (focus != null)
+        {
+            focus.onControlRemoved(control);
+        }
+        if (control.getParent() == this.holder)
+        {
+            control.setParent(null);
+        }
+        this.pointerTracker.remove(control);
+        boolean removed = this.controls.remove(control);
+        if (removed)
+        {
+            this.onRemoved(control);
+        }
+        return removed;
+    }
+
+    /**
+     * Removes every control at once and drops the deferred changes, used when
+     * the holder is reset.
+     */
+    void clear()
+    {
+        FocusManager focus = FocusManager.of(this.holder);
+        AbstractControl c;
+        for (int i = 0; i < this.controls.size(); i++)
+        {
+            c = this.controls.get(i);
+            if (focus != null)
+            {
+                focus.onControlRemoved(c);
+            }
+            if (this.spatialIndex != null)
+            {
+                c.setSpatialIndex(null);
+            }
+            this.onRemoved(c);
+            c.setParent(null);
+        }
+        this.controls.clear();
+        if (this.spatialIndex != null)
+        {
+            this.spatialIndex.clear();
+        }
+        this.pointerTracker.clear();
+        for (int i = 0; i < this.pendingCount; i++)
+        {
+            if (this.pendingOps[i] == OP_ADD)
+            {
+                ((AbstractControl)this.pendingTargets[i]).pendingParent = null;
+            }
+            this.pendingTargets[i] = null;
+        }
+        this.pendingCount = 0;
+    }
+
+    /**
+     * Finds the controls under a point, checking the exact bounds of the
+     * controls found by the index.
+     * @param x The x-coordinate from the left of the holder
+     * @param y The y-coordinate from the top of the holder
+     * @return A reused list of the hit controls, in the order they were added.
+     */
+    List<AbstractControl> query(int x, int y)
+    {
+        List<AbstractControl> hits = this.hits;
+        hits.clear();
+        AbstractControl c;
+        if (this.spatialIndex != null)
+        {
+            this.spatialIndex.query(x, y, hits);
+            for (int i = hits.size() - 1; i >= 0; i--)
+            {
+                c = hits.get(i);
+                if (!c.isInNormRange(x - c.getX(), y - c.getY()))
+                {
+                    hits.remove(i);
+                }
+            }
+            return hits;
+        }
+        for (int i = 0; i < this.controls.size(); i++)
+        {
+            c = this.controls.get(i);
+            if (c.isInNormRange(x - c.getX(), y - c.getY()))
+            {
+                hits.add(c);
+            }
+        }
+        return hits;
+    }
+
+    void pointerDown(int x, int y)
+    {
+        this.pointerTracker.pointerDown(this.query(x, y), x, y);
+    }
+
+    void pointerUp(int x, int y)
+    {
+        this.pointerTracker.pointerUp(this.query(x, y), x, y);
+    }
+
+    void pointerMove(int x, int y)
+    {
+        this.pointerTracker.pointerMove(this.query(x, y), x, y);
+    }
+
+    /**
+     * Sends leave events to the hovered controls, as the pointer has left the holder.
+     */
+    void pointerLeave(int x, int y)
+    {
+        this.hits.clear();
+        this.pointerTracker.pointerMove(this.hits, x, y);
+    }
+
+    /**
+     * Marks the start of a dispatch over the controls.
+     */
+    void beginDispatch()
+    {
+        this.dispatchDepth++;
+    }
+
+    /**
+     * Marks the end of a dispatch, applying the deferred changes in the order
+     * they were requested once the outermost dispatch has finished.
+     */
+    void endDispatch()
+    {
+        if (--this.dispatchDepth > 0 || this.pendingCount == 0) { return; }
+        for (int i = 0; i < this.pendingCount; i++)
+        {
+            Object target = this.pendingTargets[i];
+            this.pendingTargets[i] = null;
+            switch (this.pendingOps[i])
+            {
+                case OP_ADD:
+                    ((AbstractControl)target).pendingParent = null;
+                    this.holder.addChildControl((AbstractControl)target);
+                    break;
+                case OP_REMOVE:
+                    this.holder.removeChildControl((AbstractControl)target);
+                    break;
+                default:
+                    this.applyDeferred(this.pendingOps[i], target);
+                    break;
+            }
+        }
+        this.pendingCount = 0;
+    }
+
+    boolean isDispatching()
+    {
+        return this.dispatchDepth > 0;
+    }
+
+    /**
+     * Defers a change until the outermost dispatch has finished.
+     * @param op The operation, the holder's own ones start after {@link #OP_REMOVE}
+     * @param target The object it applies to
+     */
+    void defer(int op, Object target)
+    {
+        if (this.pendingCount == this.pendingOps.length)
+        {
+            int[] ops = new int[this.pendingCount * 2];
+            Object[] targets = new Object[this.pendingCount * 2];
+            System.arraycopy(this.pendingOps, 0, ops, 0, this.pendingCount);
+            System.arraycopy(this.pendingTargets, 0, targets, 0, this.pendingCount);
+            this.pendingOps = ops;
+            this.pendingTargets = targets;
+        }
+        this.pendingOps[this.pendingCount] = op;
+        this.pendingTargets[this.pendingCount] = target;
+        this.pendingCount++;
+    }
+
+}
@@ -0,0 +1,291 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import pythagoras.f.*;
+
+/**
+ * A shape tested for collisions by a {@link CollisionWorld}, either a rectangle
+ * or a circle. Moving a body only changes its shape, the world picks the new
+ * bounds up on its next update.
+ * Bodies only collide when the category of each one is in the mask of the other.
+ * @author Prageeth Silva
+ * @see CollisionWorld
+ */
+public class CollisionBody
+{
+
+    public static final int RECTANGLE = 0;
+    public static final int CIRCLE = 1;
+
+    public static final int ALL = 0xFFFFFFFF;
+
+    private final int type;
+    private final Rectangle rectangle;
+    private final Circle circle;
+
+    private int category = 1;
+    private int mask = ALL;
+    private boolean fixed = false;
+    private boolean enabled = true;
+
+    private Object userData = null;
+
+    CollisionWorld world = null;
+
+    private CollisionBody(int type)
+    {
+        this.type = type;
+        this.rectangle = type == RECTANGLE ? new Rectangle() : null;
+        this.circle = type == CIRCLE ? new Circle() : null;
+    }
+
+    /**
+     * Creates a rectangular body.
+     * @param x The x-coordinate of the top left
+     * @param y The y-coordinate of the top left
+     * @param width The width
+     * @param height The height
+     * @return A new body.
+     */
+    public static CollisionBody createRectangle(float x, float y, float width, float height)
+    {
+        CollisionBody body = new CollisionBody(RECTANGLE);
+        body.rectangle.setBounds(x, y, width, height);
+        return body;
+    }
+
+    /**
+     * Creates a circular body.
+     * @param x The x-coordinate of the centre
+     * @param y The y-coordinate of the centre
+     * @param radius The radius
+     * @return A new body.
+     */
+    public static CollisionBody createCircle(float x, float y, float radius)
+    {
+        CollisionBody body = new CollisionBody(CIRCLE);
+        body.circle.set(x, y, radius);
+        return body;
+    }
+
+    /**
+     * Creates a body covering the bounds of a control.
+     * @param control The control
+     * @return A new rectangular body.
+     */
+    public static CollisionBody createRectangle(AbstractControl control)
+    {
+        return createRectangle(control.getX(), control.getY(), control.getWidth(), control.getHeight());
+    }
+
+    /**
+     * Moves the body, keeping its size.
+     * @param x The x-coordinate of the top left of a rectangle, or the centre of a circle
+     * @param y The y-coordinate of the top left of a rectangle, or the centre of a circle
+     */
+    public void moveTo(float x, float y)
+    {
+        if (this.type == RECTANGLE)
+        {
+            this.rectangle.setLocation(x, y);
+        }
+        else
+        {
+            this.circle.set(x, y, this.circle.radius);
+        }
+    }
+
+    /**
+     * Moves the body by an offset.
+     * @param dx The horizontal offset
+     * @param dy The vertical offset
+     */
+    public void translate(float dx, float dy)
+    {
+        if (this.type == RECTANGLE)
+        {
+            this.rectangle.translate(dx, dy);
+        }
+        else
+        {
+            this.circle.set(this.circle.x + dx, this.circle.y + dy, this.circle.radius);
+        }
+    }
+
+    /**
+     * Checks if the shapes of two bodies overlap, whatever their type.
+     * @param other The other body
+     * @return Whether the shapes overlap.
+     */
+    public boolean intersects(CollisionBody other)
+    {
+        if (this.type == RECTANGLE)
+        {
+            return other.type == RECTANGLE ? this.rectangle.intersects(other.rectangle)
+                    : intersects(this.rectangle, other.circle);
+        }
+        return other.type == CIRCLE ? this.circle.intersects(other.circle)
+                : intersects(other.rectangle, this.circle);
+    }
+
+    public float getMinX()
+    {
+        return this.type == RECTANGLE ? this.rectangle.x : this.circle.x - this.circle.radius;
+    }
+
+    public float getMinY()
+    {
+        return this.type == RECTANGLE ? this.rectangle.y : this.circle.y - this.circle.radius;
+    }
+
+    public float getMaxX()
+    {
+        return this.type == RECTANGLE ? this.rectangle.x + this.rectangle.width : this.circle.x + this.circle.radius;
+    }
+
+    public float getMaxY()
+    {
+        return this.type == RECTANGLE ? this.rectangle.y + this.rectangle.height : this.circle.y + this.circle.radius;
+    }
+
+    public int getType()
+    {
+        return this.type;
+    }
+
+    /**
+     * Gets the shape of a rectangular body, which can be changed directly.
+     * @return The rectangle, <code>null</code> for circles.
+     */
+    public Rectangle getRectangle()
+    {
+        return this.rectangle;
+    }
+
+    /**
+     * Gets the shape of a circular body, which can be changed directly.
+     * @return The circle, <code>null</code> for rectangles.
+     */
+    public Circle getCircle()
+    {
+        return this.circle;
+    }
+
+    public int getCategory()
+    {
+        return this.category;
+    }
+
+    /**
+     * Sets the categories the body belongs to.
+     * @param category A bit mask of categories, 1 by default
+     */
+    public void setCategory(int category)
+    {
+        this.category = category;
+    }
+
+    public int getMask()
+    {
+        return this.mask;
+    }
+
+    /**
+     * Sets the categories the body collides with.
+     * @param mask A bit mask of categories, {@link #ALL} by default
+     */
+    public void setMask(int mask)
+    {
+        this.mask = mask;
+    }
+
+    /**
+     * Checks if both bodies accept each other's categories.
+     * @param other The other body
+     * @return Whether the bodies can collide.
+     */
+    public boolean accepts(CollisionBody other)
+    {
+        return (this.category & other.mask) != 0 && (other.category & this.mask) != 0;
+    }
+
+    public boolean isFixed()
+    {
+        return this.fixed;
+    }
+
+    /**
+     * Sets whether the body never moves, such as a wall. Fixed bodies are not
+     * tested against each other.
+     * @param fixed The new fixed status, <code>false</code> by default
+     */
+    public void setFixed(boolean fixed)
+    {
+        this.fixed = fixed;
+    }
+
+    public boolean isEnabled()
+    {
+        return this.enabled;
+    }
+
+    /**
+     * Sets whether the body is tested at all, without removing it from its world.
+     * @param enabled The new status, <code>true</code> by default
+     */
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    public Object getUserData()
+    {
+        return this.userData;
+    }
+
+    /**
+     * Attaches an object to the body, such as the game object it belongs to.
+     * @param userData The object, may be <code>null</code>
+     */
+    public void setUserData(Object userData)
+    {
+        this.userData = userData;
+    }
+
+    /**
+     * Gets the world the body has been added to.
+     * @return The world, or <code>null</code> if the body has not been added.
+     */
+    public CollisionWorld getWorld()
+    {
+        return this.world;
+    }
+
+    /* Static methods */
+
+    /**
+     * Checks if a rectangle and a circle overlap, by finding the point of the
+     * rectangle closest to the centre of the circle.
+     */
+    private static boolean intersects(Rectangle r, Circle c)
+    {
+        float x = MathUtil.clamp(c.x, r.x, r.x + r.width);
+        float y = MathUtil.clamp(c.y, r.y, r.y + r.height);
+        return Points.distanceSq(x, y, c.x, c.y) < c.radius * c.radius;
+    }
+
+}
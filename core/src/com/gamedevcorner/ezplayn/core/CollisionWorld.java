@@ -0,0 +1,351 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+/**
+ * Finds the pairs of {@link CollisionBody}s that touch, once per update.
+ * The broadphase is a sweep and prune along the x axis: the bodies are kept
+ * sorted by the left edge of their bounds, kept in parallel arrays, so only
+ * bodies whose bounds overlap along x are compared. The order is kept between
+ * updates with an insertion sort, which costs little more than a pass over the
+ * bodies when they only move a little per frame. Pairs whose bounds also
+ * overlap along y are tested exactly on their shapes.
+ * The contacts found by the last update are kept in reused arrays, and are
+ * also sent to the listener once the search has finished.
+ * @author Prageeth Silva
+ * @see CollisionBody
+ */
+public class CollisionWorld
+{
+
+    public static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * Informs about the contacts found by an update.
+     */
+    public interface Listener
+    {
+
+        /**
+         * Called for each pair of bodies that touch, after all the pairs have been found.
+         * @param a The body further left
+         * @param b The other body
+         */
+        public void onContact(CollisionBody a, CollisionBody b);
+
+    }
+
+    private CollisionBody[] bodies;
+    private float[] minX;
+    private float[] maxX;
+    private float[] minY;
+    private float[] maxY;
+    private int count = 0;
+
+    private CollisionBody[] contactsA;
+    private CollisionBody[] contactsB;
+    private int contactCount = 0;
+
+    private Listener listener = null;
+
+    private int candidateCount = 0;
+
+    public CollisionWorld()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a world with room for the given number of bodies.
+     * @param capacity The initial capacity, which grows when needed
+     */
+    public CollisionWorld(int capacity)
+    {
+        capacity = Math.max(1, capacity);
+        this.bodies = new CollisionBody[capacity];
+        this.minX = new float[capacity];
+        this.maxX = new float[capacity];
+        this.minY = new float[capacity];
+        this.maxY = new float[capacity];
+        this.contactsA = new CollisionBody[capacity];
+        this.contactsB = new CollisionBody[capacity];
+    }
+
+    /**
+     * Adds a body, it is sorted into place on the next update.
+     * @param body The body to add
+     * @return <code>false</code> if the body already belongs to a world.
+     */
+    public boolean add(CollisionBody body)
+    {
+        if (body == null || body.world != null) { return false; }
+        if (this.count == this.bodies.length)
+        {
+            int capacity = this.count * 2;
+            CollisionBody[] bodies = new CollisionBody[capacity];
+            float[] minX = new float[capacity];
+            float[] maxX = new float[capacity];
+            float[] minY = new float[capacity];
+            float[] maxY = new float[capacity];
+            System.arraycopy(this.bodies, 0, bodies, 0, this.count);
+            System.arraycopy(this.minX, 0, minX, 0, this.count);
+            System.arraycopy(this.maxX, 0, maxX, 0, this.count);
+            System.arraycopy(this.minY, 0, minY, 0, this.count);
+            System.arraycopy(this.maxY, 0, maxY, 0, this.count);
+            this.bodies = bodies;
+            this.minX = minX;
+            this.maxX = maxX;
+            this.minY = minY;
+            this.maxY = maxY;
+        }
+        this.bodies[this.count] = body;
+        this.minX[this.count] = body.getMinX();
+        this.maxX[this.count] = body.getMaxX();
+        this.minY[this.count] = body.getMinY();
+        this.maxY[this.count] = body.getMaxY();
+        this.count++;
+        body.world = this;
+        return true;
+    }
+
+    /**
+     * Removes a body, keeping the others in order.
+     * @param body The body to remove
+     * @return <code>false</code> if the body does not belong to this world.
+     */
+    public boolean remove(CollisionBody body)
+    {
+        if (body == null || body.world != this) { return false; }
+        for (int i = 0; i < this.count; i++)
+        {
+            if (this.bodies[i] == body)
+            {
+                int moved = this.count - i - 1;
+                System.arraycopy(this.bodies, i + 1, this.bodies, i, moved);
+                System.arraycopy(this.minX, i + 1, this.minX, i, moved);
+                System.arraycopy(this.maxX, i + 1, this.maxX, i, moved);
+                System.arraycopy(this.minY, i + 1, this.minY, i, moved);
+                System.arraycopy(this.maxY, i + 1, this.maxY, i, moved);
+                this.bodies[--this.count] = null;
+                break;
+            }
+        }
+        body.world = null;
+        return true;
+    }
+
+    public void clear()
+    {
+        for (int i = 0; i < this.count; i++)
+        {
+            this.bodies[i].world = null;
+            this.bodies[i] = null;
+        }
+        this.count = 0;
+        this.clearContacts();
+    }
+
+    /**
+     * Finds the contacts between the bodies at their current positions, usually
+     * called once from the update of the screen after the bodies have moved.
+     * @return The number of contacts found.
+     */
+    public int update()
+    {
+
+        this.clearContacts();
+        this.sort();
+
+        int candidates = 0;
+        CollisionBody[] bodies = this.bodies;
+        for (int i = 0; i < this.count; i++)
+        {
+
+            CollisionBody a = bodies[i];
+            if (!a.isEnabled()) { continue; }
+            float right = this.maxX[i];
+            float top = this.minY[i];
+            float bottom = this.maxY[i];
+
+            // only the bodies starting before this one ends can overlap it
+            for (int j = i + 1; j < this.count && this.minX[j] <= right; j++)
+            {
+                if (this.minY[j] > bottom || this.maxY[j] < top) { continue; }
+                CollisionBody b = bodies[j];
+                if (!b.isEnabled() || (a.isFixed() && b.isFixed()) || !a.accepts(b)) { continue; }
+                candidates++;
+                if (a.intersects(b))
+                {
+                    this.addContact(a, b);
+                }
+            }
+
+        }
+        this.candidateCount = candidates;
+
+        if (this.listener != null)
+        {
+            for (int i = 0; i < this.contactCount; i++)
+            {
+                this.listener.onContact(this.contactsA[i], this.contactsB[i]);
+            }
+        }
+
+        return this.contactCount;
+
+    }
+
+    /**
+     * Refreshes the bounds and restores the order with an insertion sort.
+     */
+    private void sort()
+    {
+
+        CollisionBody body;
+        for (int i = 0; i < this.count; i++)
+        {
+            body = this.bodies[i];
+            this.minX[i] = body.getMinX();
+            this.maxX[i] = body.getMaxX();
+            this.minY[i] = body.getMinY();
+            this.maxY[i] = body.getMaxY();
+        }
+
+        for (int i = 1; i < this.count; i++)
+        {
+            float key = this.minX[i];
+            if (this.minX[i - 1] <= key) { continue; }
+            body = this.bodies[i];
+            float right = this.maxX[i];
+            float top = this.minY[i];
+            float bottom = this.maxY[i];
+            int j = i - 1;
+            while (j >= 0 && this.minX[j] > key)
+            {
+                this.bodies[j + 1] = this.bodies[j];
+                this.minX[j + 1] = this.minX[j];
+                this.maxX[j + 1] = this.maxX[j];
+                this.minY[j + 1] = this.minY[j];
+                this.maxY[j + 1] = this.maxY[j];
+                j--;
+            }
+            this.bodies[j + 1] = body;
+            this.minX[j + 1] = key;
+            this.maxX[j + 1] = right;
+            this.minY[j + 1] = top;
+            this.maxY[j + 1] = bottom;
+        }
+
+    }
+
+    private void addContact(CollisionBody a, CollisionBody b)
+    {
+        if (this.contactCount == this.contactsA.length)
+        {
+            int capacity = this.contactCount * 2;
+            CollisionBody[] contactsA = new CollisionBody[capacity];
+            CollisionBody[] contactsB = new CollisionBody[capacity];
+            System.arraycopy(this.contactsA, 0, contactsA, 0, this.contactCount);
+            System.arraycopy(this.contactsB, 0, contactsB, 0, this.contactCount);
+            this.contactsA = contactsA;
+            this.contactsB = contactsB;
+        }
+        this.contactsA[this.contactCount] = a;
+        this.contactsB[this.contactCount] = b;
+        this.contactCount++;
+    }
+
+    private void clearContacts()
+    {
+        for (int i = 0; i < this.contactCount; i++)
+        {
+            this.contactsA[i] = null;
+            this.contactsB[i] = null;
+        }
+        this.contactCount = 0;
+    }
+
+    /**
+     * Gets the number of contacts found by the last update.
+     * @return The contact count.
+     */
+    public int getContactCount()
+    {
+        return this.contactCount;
+    }
+
+    /**
+     * Gets the first body of a contact found by the last update.
+     * @param i The index of the contact
+     * @return The body further left.
+     */
+    public CollisionBody getContactA(int i)
+    {
+        return this.contactsA[i];
+    }
+
+    /**
+     * Gets the second body of a contact found by the last update.
+     * @param i The index of the contact
+     * @return The other body.
+     */
+    public CollisionBody getContactB(int i)
+    {
+        return this.contactsB[i];
+    }
+
+    /**
+     * Checks if two bodies were found touching by the last update.
+     * @param a One body
+     * @param b The other body
+     * @return Whether the pair is among the contacts, in either order.
+     */
+    public boolean isTouching(CollisionBody a, CollisionBody b)
+    {
+        for (int i = 0; i < this.contactCount; i++)
+        {
+            if ((this.contactsA[i] == a && this.contactsB[i] == b)
+                    || (this.contactsA[i] == b && this.contactsB[i] == a)) { return true; }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of pairs the last update tested exactly, to check how
+     * well the broadphase prunes.
+     * @return The candidate pair count.
+     */
+    public int getCandidateCount()
+    {
+        return this.candidateCount;
+    }
+
+    public int size()
+    {
+        return this.count;
+    }
+
+    public Listener getListener()
+    {
+        return this.listener;
+    }
+
+    public void setListener(Listener listener)
+    {
+        this.listener = listener;
+    }
+
+}
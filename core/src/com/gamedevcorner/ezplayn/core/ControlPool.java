@@ -0,0 +1,75 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+/**
+ * A {@link Pool} of {@link AbstractControl}s. Obtained controls remember the
+ * pool, so they can be handed back with {@link AbstractControl#free()} and are
+ * reset with {@link AbstractControl#reset()}.
+ * @author Prageeth Silva
+ * @param <T> The type of the pooled controls
+ */
+public abstract class ControlPool<T extends AbstractControl> extends Pool<T>
+{
+
+    protected ControlPool(int maxFree)
+    {
+        super(maxFree);
+    }
+
+    protected ControlPool()
+    {
+        super();
+    }
+
+    @Override
+    public T obtain()
+    {
+        T control = super.obtain();
+        control.setPool(this);
+        return control;
+    }
+
+    /**
+     * Frees a control currently obtained from this pool, and forgets the pool
+     * in the control. Controls obtained elsewhere or already freed are ignored.
+     * @param control The control that is no longer in use.
+     */
+    @Override
+    public void free(T control)
+    {
+        if (control == null || control.getPool() != this) { return; }
+        control.setPool(null);
+        super.free(control);
+    }
+
+    @Override
+    protected void reset(T control)
+    {
+        control.reset();
+    }
+
+    /**
+     * Frees a control obtained from this pool without knowing its exact type.
+     * @param control The control to free.
+     */
+    @SuppressWarnings("unchecked")
+    void freeControl(AbstractControl control)
+    {
+        this.free((T)control);
+    }
+
+}
@@ -0,0 +1,227 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import java.util.*;
+
+/**
+ * Keeps track of the single control that has the keyboard focus on an
+ * {@link AbstractGameScreen}. Key events are given to the focused control first
+ * and then bubble up through its parent controls as child key events, unless a
+ * handler calls {@link #consumeKey()}. Focus moves between the focusable controls of a
+ * {@link ControlHolder} tree in the order they were added.
+ * @author Prageeth Silva
+ * @see AbstractControl#setFocusable(boolean)
+ */
+public class FocusManager
+{
+
+    private AbstractControl focused = null;
+
+    private boolean consumed = false;
+
+    private final List<AbstractControl> traversal = new ArrayList<AbstractControl>();
+
+    public AbstractControl getFocusedControl()
+    {
+        return this.focused;
+    }
+
+    /**
+     * Gives the focus to a control, taking it from the previously focused one.
+     * @param control A focusable control, or <code>null</code> to clear the focus.
+     * @return <code>false</code> if the control cannot take the focus.
+     */
+    public boolean setFocusedControl(AbstractControl control)
+    {
+        if (control == this.focused) { return true; }
+        if (control != null && !control.isFocusable()) { return false; }
+        AbstractControl previous = this.focused;
+        this.focused = control;
+        if (previous != null)
+        {
+            previous.onFocusLost();
+        }
+        if (control != null)
+        {
+            control.onFocusGained();
+        }
+        return true;
+    }
+
+    public void clearFocus()
+    {
+        this.setFocusedControl(null);
+    }
+
+    /**
+     * Moves the focus to the next focusable control of the holder,
+     * wrapping around at the end.
+     * @param scope The holder whose controls take part, including nested holders.
+     * @return <code>false</code> if there is no focusable control.
+     */
+    public boolean focusNext(ControlHolder scope)
+    {
+        return this.moveFocus(scope, 1);
+    }
+
+    /**
+     * Moves the focus to the previous focusable control of the holder,
+     * wrapping around at the start.
+     * @param scope The holder whose controls take part, including nested holders.
+     * @return <code>false</code> if there is no focusable control.
+     */
+    public boolean focusPrevious(ControlHolder scope)
+    {
+        return this.moveFocus(scope, -1);
+    }
+
+    /**
+     * Stops the key event that is being dispatched from bubbling up any further.
+     */
+    public void consumeKey()
+    {
+        this.consumed = true;
+    }
+
+    /**
+     * Sends a key down event to the focused control, then bubbles it up
+     * to its parent controls through {@link AbstractControl#onChildKeyDown(int)}.
+     * @param keyCode The key code
+     * @return <code>false</code> if no control has the focus.
+     */
+    public boolean dispatchKeyDown(int keyCode)
+    {
+        if (this.focused == null) { return false; }
+        this.consumed = false;
+        this.focused.onKeyDown(keyCode);
+        for (AbstractControl c = parentControl(this.focused); c != null && !this.consumed; c = parentControl(c))
+        {
+            c.onChildKeyDown(keyCode);
+        }
+        return true;
+    }
+
+    /**
+     * Sends a key up event to the focused control, then bubbles it up
+     * to its parent controls through {@link AbstractControl#onChildKeyUp(int)}.
+     * @param keyCode The key code
+     * @return <code>false</code> if no control has the focus.
+     */
+    public boolean dispatchKeyUp(int keyCode)
+    {
+        if (this.focused == null) { return false; }
+        this.consumed = false;
+        this.focused.onKeyUp(keyCode);
+        for (AbstractControl c = parentControl(this.focused); c != null && !this.consumed; c = parentControl(c))
+        {
+            c.onChildKeyUp(keyCode);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the top-most control in the chain of the focused control.
+     * @return The outermost parent control, or <code>null</code> if nothing is focused.
+     */
+    public AbstractControl getFocusRoot()
+    {
+        AbstractControl c = this.focused;
+        AbstractControl p = c == null ? null : parentControl(c);
+        while (p != null)
+        {
+            c = p;
+            p = parentControl(c);
+        }
+        return c;
+    }
+
+    /**
+     * Clears the focus if it is held by the removed control or one of its children.
+     * @param control The control that was removed from its holder.
+     */
+    void onControlRemoved(AbstractControl control)
+    {
+        for (AbstractControl c = this.focused; c != null; c = parentControl(c))
+        {
+            if (c == control)
+            {
+                this.clearFocus();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Finds the focus manager of the screen a holder is, or has been added to,
+     * through its parent holders.
+     * @param holder The holder
+     * @return The focus manager, or <code>null</code> if the holder is not on a screen.
+     */
+    static FocusManager of(ControlHolder holder)
+    {
+        while (holder instanceof AbstractControl)
+        {
+            holder = ((AbstractControl)holder).getParent();
+        }
+        return holder instanceof AbstractGameScreen ? ((AbstractGameScreen<?>)holder).getFocusManager() : null;
+    }
+
+    private boolean moveFocus(ControlHolder scope, int direction)
+    {
+
+        this.traversal.clear();
+        collectFocusable(scope, this.traversal);
+        int n = this.traversal.size();
+        if (n == 0) { return false; }
+
+        int index = this.traversal.indexOf(this.focused);
+        if (index < 0)
+        {
+            index = direction > 0 ? 0 : n - 1;
+        }
+        else
+        {
+            index = (index + direction + n) % n;
+        }
+        this.setFocusedControl(this.traversal.get(index));
+        this.traversal.clear();
+        return true;
+
+    }
+
+    private static void collectFocusable(ControlHolder holder, List<AbstractControl> result)
+    {
+        for (AbstractControl c : holder.getChildControls())
+        {
+            if (c.isFocusable())
+            {
+                result.add(c);
+            }
+            if (c instanceof ControlHolder)
+            {
+                collectFocusable((ControlHolder)c, result);
+            }
+        }
+    }
+
+    private static AbstractControl parentControl(AbstractControl control)
+    {
+        ControlHolder parent = control.getParent();
+        return parent instanceof AbstractControl ? (AbstractControl)parent : null;
+    }
+
+}
@@ -0,0 +1,233 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static playn.core.PlayN.*;
+
+/**
+ * Records how long each phase of a frame takes: input dispatch, update, paint
+ * and screen switches. Timings are kept in rolling {@link TimingHistogram}s for
+ * the whole game, per screen and, if enabled, per control. The per screen and
+ * per control timings are kept on the screens and controls themselves, so the
+ * profiler never keeps an evicted screen or a freed control alive.
+ * The profiler is disabled by default, in which case timing a phase costs a
+ * single flag check.
+ * @author Prageeth Silva
+ * @see AbstractExtendedGame#getProfiler()
+ */
+public class FrameProfiler
+{
+
+    public static final int INPUT = 0;
+    public static final int UPDATE = 1;
+    public static final int PAINT = 2;
+    public static final int SCREEN_SWITCH = 3;
+
+    public static final int PHASE_COUNT = 4;
+
+    /**
+     * A source of the current time in nanoseconds.
+     */
+    public interface Clock
+    {
+
+        /**
+         * Gets the current time.
+         * @return The time in nanoseconds from an arbitrary origin.
+         */
+        public long nanoTime();
+
+    }
+
+    /**
+     * The default clock, using {@link playn.core.PlayN#currentTime()}.
+     * Its resolution depends on the platform, which may only be milliseconds.
+     */
+    public static final Clock PLATFORM_CLOCK = new Clock() {
+
+        @Override
+        public long nanoTime()
+        {
+            return (long)(currentTime() * 1000000.0);
+        }
+
+    };
+
+    private final TimingHistogram[] phases = new TimingHistogram[PHASE_COUNT];
+
+    /** Incremented by {@link #reset()}, timings recorded before it are ignored. */
+    private int generation = 1;
+
+    private Clock clock = PLATFORM_CLOCK;
+
+    private boolean enabled = false;
+    private boolean profilingControls = false;
+
+    private int window = TimingHistogram.DEFAULT_WINDOW;
+
+    public FrameProfiler()
+    {
+        for (int i = 0; i < PHASE_COUNT; i++)
+        {
+            this.phases[i] = new TimingHistogram(this.window);
+        }
+    }
+
+    /**
+     * Marks the start of a timed phase.
+     * @return The start time to pass to the matching end call, 0 if disabled.
+     */
+    public long begin()
+    {
+        return this.enabled ? this.clock.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time since the matching {@link #begin()} for a phase.
+     * @param phase One of the phase constants of this class
+     * @param screen The screen that was active, may be <code>null</code>
+     * @param start The value returned by {@link #begin()}
+     */
+    public void end(int phase, AbstractGameScreen<?> screen, long start)
+    {
+        if (!this.enabled) { return; }
+        long elapsed = this.clock.nanoTime() - start;
+        this.phases[phase].record(elapsed);
+        if (screen != null)
+        {
+            if (screen.profile == null || screen.profileGeneration != this.generation)
+            {
+                screen.profile = this.createHistograms();
+                screen.profileGeneration = this.generation;
+            }
+            screen.profile[phase].record(elapsed);
+        }
+    }
+
+    /**
+     * Records the time since the matching {@link #begin()} for a single control.
+     * @param phase {@link #UPDATE} or {@link #PAINT}
+     * @param control The control that was timed
+     * @param start The value returned by {@link #begin()}
+     */
+    public void endControl(int phase, AbstractControl control, long start)
+    {
+        if (!this.enabled || !this.profilingControls) { return; }
+        if (control.profile == null || control.profileGeneration != this.generation)
+        {
+            control.profile = this.createHistograms();
+            control.profileGeneration = this.generation;
+        }
+        control.profile[phase].record(this.clock.nanoTime() - start);
+    }
+
+    /**
+     * Gets the timings of a phase over the whole game.
+     * @param phase One of the phase constants of this class
+     * @return The histogram of the phase.
+     */
+    public TimingHistogram getHistogram(int phase)
+    {
+        return this.phases[phase];
+    }
+
+    /**
+     * Gets the timings of a phase while the given screen was active.
+     * @param screen The screen
+     * @param phase One of the phase constants of this class
+     * @return The histogram, or <code>null</code> if nothing was recorded for the screen.
+     */
+    public TimingHistogram getScreenHistogram(AbstractGameScreen<?> screen, int phase)
+    {
+        if (screen.profile == null || screen.profileGeneration != this.generation) { return null; }
+        return screen.profile[phase];
+    }
+
+    /**
+     * Gets the timings of a phase for a single control.
+     * @param control The control
+     * @param phase {@link #UPDATE} or {@link #PAINT}
+     * @return The histogram, or <code>null</code> if nothing was recorded for the control.
+     */
+    public TimingHistogram getControlHistogram(AbstractControl control, int phase)
+    {
+        if (control.profile == null || control.profileGeneration != this.generation) { return null; }
+        return control.profile[phase];
+    }
+
+    /**
+     * Drops all the recorded timings, including the per screen and per control ones.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < PHASE_COUNT; i++)
+        {
+            this.phases[i].reset();
+        }
+        this.generation++;
+    }
+
+    public boolean isEnabled()
+    {
+        return this.enabled;
+    }
+
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    public boolean isProfilingControls()
+    {
+        return this.enabled && this.profilingControls;
+    }
+
+    /**
+     * Sets whether the update and paint of every control are timed separately.
+     * This has a noticeable cost on screens with many controls.
+     * @param profilingControls The new per control status
+     */
+    public void setProfilingControls(boolean profilingControls)
+    {
+        this.profilingControls = profilingControls;
+    }
+
+    public Clock getClock()
+    {
+        return this.clock;
+    }
+
+    /**
+     * Sets the time source, for example one backed by
+     * <code>System.nanoTime()</code> on platforms that have it.
+     * @param clock The new clock, <code>null</code> restores {@link #PLATFORM_CLOCK}.
+     */
+    public void setClock(Clock clock)
+    {
+        this.clock = clock == null ? PLATFORM_CLOCK : clock;
+    }
+
+    private TimingHistogram[] createHistograms()
+    {
+        TimingHistogram[] h = new TimingHistogram[PHASE_COUNT];
+        for (int i = 0; i < PHASE_COUNT; i++)
+        {
+            h[i] = new TimingHistogram(this.window);
+        }
+        return h;
+    }
+
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import playn.core.*;
+
+/**
+ * The frames shown by a {@link SpriteBatch} or a {@link ParticleSystem}, each
+ * one a part of an image such as a sprite sheet or a {@link TextureAtlas} page.
+ * Frames are kept in parallel arrays and referred to by their index, so drawing
+ * one is a lookup. A table can be shared by several batches and systems.
+ * @author Prageeth Silva
+ */
+public class FrameTable
+{
+
+    private Image[] images = new Image[8];
+    private float[] x = new float[8];
+    private float[] y = new float[8];
+    private float[] width = new float[8];
+    private float[] height = new float[8];
+    private int count = 0;
+
+    /**
+     * Adds a frame.
+     * @param image The image holding the frame
+     * @param sx The x-coordinate of the frame in the image
+     * @param sy The y-coordinate of the frame in the image
+     * @param width The width of the frame
+     * @param height The height of the frame
+     * @return The index of the frame.
+     */
+    public int add(Image image, float sx, float sy, float width, float height)
+    {
+        if (this.count == this.images.length)
+        {
+            int capacity = this.count * 2;
+            Image[] images = new Image[capacity];
+            System.arraycopy(this.images, 0, images, 0, this.count);
+            this.images = images;
+            this.x = ArrayGrowth.grow(this.x, capacity, this.count);
+            this.y = ArrayGrowth.grow(this.y, capacity, this.count);
+            this.width = ArrayGrowth.grow(this.width, capacity, this.count);
+            this.height = ArrayGrowth.grow(this.height, capacity, this.count);
+        }
+        int i = this.count++;
+        this.images[i] = image;
+        this.x[i] = sx;
+        this.y[i] = sy;
+        this.width[i] = width;
+        this.height[i] = height;
+        return i;
+    }
+
+    /**
+     * Adds a whole image as a frame.
+     * @param image The image of the frame
+     * @return The index of the frame.
+     */
+    public int add(Image image)
+    {
+        return this.add(image, 0, 0, image.width(), image.height());
+    }
+
+    /**
+     * Adds a region of a {@link TextureAtlas} as a frame, so all the frames can
+     * share one texture. The atlas must already be packed.
+     * @param region The region of the frame
+     * @return The index of the frame.
+     */
+    public int add(AtlasRegion region)
+    {
+        return this.add(region.getPage(), region.getX(), region.getY(), region.getWidth(), region.getHeight());
+    }
+
+    /**
+     * Draws a frame stretched to a size, onto a surface or a canvas.
+     * @param f The index of the frame
+     * @param surface The surface to draw on, <code>null</code> to draw on the canvas
+     * @param canvas The canvas to draw on if there is no surface
+     * @param dx The x-coordinate of the top left of the frame
+     * @param dy The y-coordinate of the top left of the frame
+     * @param dw The width to draw the frame at
+     * @param dh The height to draw the frame at
+     */
+    void draw(int f, Surface surface, Canvas canvas, float dx, float dy, float dw, float dh)
+    {
+        if (surface != null)
+        {
+            surface.drawImage(this.images[f], dx, dy, dw, dh, this.x[f], this.y[f], this.width[f], this.height[f]);
+        }
+        else
+        {
+            canvas.drawImage(this.images[f], dx, dy, dw, dh, this.x[f], this.y[f], this.width[f], this.height[f]);
+        }
+    }
+
+    public int size()
+    {
+        return this.count;
+    }
+
+    public Image getImage(int f)
+    {
+        return this.images[f];
+    }
+
+    public float getX(int f)
+    {
+        return this.x[f];
+    }
+
+    public float getY(int f)
+    {
+        return this.y[f];
+    }
+
+    public float getWidth(int f)
+    {
+        return this.width[f];
+    }
+
+    public float getHeight(int f)
+    {
+        return this.height[f];
+    }
+
+}
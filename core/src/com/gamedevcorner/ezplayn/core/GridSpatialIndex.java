@@ -0,0 +1,255 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import java.util.*;
+
+/**
+ * A {@link SpatialIndex} that divides the area of its holder into a uniform grid
+ * of square cells. Each control is registered in every cell its bounds overlap,
+ * so a point query only has to look at the controls of a single cell.
+ * Controls that lie outside the covered area are clamped to the border cells.
+ * @author Prageeth Silva
+ * @see SpatialIndex
+ */
+public class GridSpatialIndex implements SpatialIndex
+{
+
+    public static final int DEFAULT_CELL_SIZE = 64;
+
+    private final int cellSize;
+    private int columns;
+    private int rows;
+
+    private final List<List<Entry>> cells = new ArrayList<List<Entry>>();
+    private final Map<AbstractControl, Entry> entries = new HashMap<AbstractControl, Entry>();
+
+    private int insertCount = 0;
+
+    /**
+     * Creates a grid covering the given area.
+     * @param width The width of the covered area in pixels
+     * @param height The height of the covered area in pixels
+     * @param cellSize The width and height of a single cell in pixels
+     */
+    public GridSpatialIndex(int width, int height, int cellSize)
+    {
+
+        this.cellSize = Math.max(1, cellSize);
+        this.setGrid(this.cellCount(width), this.cellCount(height));
+
+    }
+
+    /**
+     * Creates a grid covering the given area using the {@link #DEFAULT_CELL_SIZE}.
+     * @param width The width of the covered area in pixels
+     * @param height The height of the covered area in pixels
+     */
+    public GridSpatialIndex(int width, int height)
+    {
+        this(width, height, DEFAULT_CELL_SIZE);
+    }
+
+    @Override
+    public void insert(AbstractControl control)
+    {
+        if (control == null || this.entries.containsKey(control)) { return; }
+        Entry entry = new Entry(control, this.insertCount++);
+        this.entries.put(control, entry);
+        this.place(entry);
+    }
+
+    @Override
+    public void remove(AbstractControl control)
+    {
+        Entry entry = this.entries.remove(control);
+        if (entry != null)
+        {
+            this.unplace(entry);
+        }
+    }
+
+    @Override
+    public void update(AbstractControl control)
+    {
+        Entry entry = this.entries.get(control);
+        if (entry != null)
+        {
+            this.unplace(entry);
+            this.place(entry);
+        }
+    }
+
+    @Override
+    public void clear()
+    {
+        this.entries.clear();
+        for (int i = 0; i < this.cells.size(); i++)
+        {
+            this.cells.set(i, null);
+        }
+        this.insertCount = 0;
+    }
+
+    /**
+     * Rebuilds the grid over the new area, placing the indexed controls into
+     * the new cells. Nothing is done if the number of cells stays the same.
+     */
+    @Override
+    public void resize(int width, int height)
+    {
+        int columns = this.cellCount(width);
+        int rows = this.cellCount(height);
+        if (columns == this.columns && rows == this.rows) { return; }
+        this.setGrid(columns, rows);
+        for (Entry entry : this.entries.values())
+        {
+            this.place(entry);
+        }
+    }
+
+    @Override
+    public void query(int x, int y, List<AbstractControl> result)
+    {
+        List<Entry> cell = this.cells.get(this.row(y) * this.columns + this.column(x));
+        if (cell == null) { return; }
+        Entry e;
+        for (int i = 0, n = cell.size(); i < n; i++)
+        {
+            e = cell.get(i);
+            if (x >= e.left && x <= e.right && y >= e.top && y <= e.bottom)
+            {
+                result.add(e.control);
+            }
+        }
+    }
+
+    public int getCellSize()
+    {
+        return this.cellSize;
+    }
+
+    public int getColumns()
+    {
+        return this.columns;
+    }
+
+    public int getRows()
+    {
+        return this.rows;
+    }
+
+    private int cellCount(int size)
+    {
+        return Math.max(1, (size + this.cellSize - 1) / this.cellSize);
+    }
+
+    private void setGrid(int columns, int rows)
+    {
+        this.columns = columns;
+        this.rows = rows;
+        int count = this.columns * this.rows;
+        this.cells.clear();
+        for (int i = 0; i < count; i++)
+        {
+            this.cells.add(null);
+        }
+    }
+
+    private void place(Entry entry)
+    {
+
+        AbstractControl c = entry.control;
+        entry.left = c.getX();
+        entry.top = c.getY();
+        entry.right = entry.left + c.getWidth();
+        entry.bottom = entry.top + c.getHeight();
+
+        entry.minColumn = this.column(entry.left);
+        entry.maxColumn = this.column(entry.right);
+        entry.minRow = this.row(entry.top);
+        entry.maxRow = this.row(entry.bottom);
+
+        for (int r = entry.minRow; r <= entry.maxRow; r++)
+        {
+            for (int col = entry.minColumn; col <= entry.maxColumn; col++)
+            {
+                int index = r * this.columns + col;
+                List<Entry> cell = this.cells.get(index);
+                if (cell == null)
+                {
+                    cell = new ArrayList<Entry>();
+                    this.cells.set(index, cell);
+                }
+                // keep each cell in insertion order so that dispatch order is unchanged
+                int pos = cell.size();
+                while (pos > 0 && cell.get(pos - 1).order > entry.order)
+                {
+                    pos--;
+                }
+                cell.add(pos, entry);
+            }
+        }
+
+    }
+
+    private void unplace(Entry entry)
+    {
+        for (int r = entry.minRow; r <= entry.maxRow; r++)
+        {
+            for (int col = entry.minColumn; col <= entry.maxColumn; col++)
+            {
+                List<Entry> cell = this.cells.get(r * this.columns + col);
+                if (cell != null)
+                {
+                    cell.remove(entry);
+                }
+            }
+        }
+    }
+
+    private int column(int x)
+    {
+        int col = x < 0 ? 0 : x / this.cellSize;
+        return col >= this.columns ? this.columns - 1 : col;
+    }
+
+    private int row(int y)
+    {
+        int r = y < 0 ? 0 : y / this.cellSize;
+        return r >= this.rows ? this.rows - 1 : r;
+    }
+
+    /* Auxiliary Classes */
+
+    private static class Entry
+    {
+
+        final AbstractControl control;
+        final int order;
+
+        int left, top, right, bottom;
+        int minColumn, maxColumn, minRow, maxRow;
+
+        Entry(AbstractControl control, int order)
+        {
+            this.control = control;
+            this.order = order;
+        }
+
+    }
+
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+/**
+ * A ring buffer of input events stored in preallocated primitive arrays.
+ * The platform listeners offer events as they arrive and the game polls them
+ * once per update. Consecutive pointer moves are merged into the latest one.
+ * The buffer only grows (doubling) if it fills up, so no events are lost.
+ * @author Prageeth Silva
+ * @see AbstractExtendedGame
+ */
+public class InputQueue
+{
+
+    public static final int POINTER_DOWN = 0;
+    public static final int POINTER_UP = 1;
+    public static final int POINTER_MOVE = 2;
+    public static final int POINTER_SCROLL = 3;
+    public static final int KEY_DOWN = 4;
+    public static final int KEY_UP = 5;
+
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private int[] types;
+    private int[] xs;
+    private int[] ys;
+
+    private int mask;
+    private int head = 0;
+    private int size = 0;
+
+    private int polledType = -1;
+    private int polledX = 0;
+    private int polledY = 0;
+
+    private int coalescedCount = 0;
+
+    /**
+     * Creates a queue with at least the given capacity.
+     * @param capacity The initial capacity, rounded up to a power of two.
+     */
+    public InputQueue(int capacity)
+    {
+        int c = 1;
+        while (c < capacity)
+        {
+            c <<= 1;
+        }
+        this.types = new int[c];
+        this.xs = new int[c];
+        this.ys = new int[c];
+        this.mask = c - 1;
+    }
+
+    public InputQueue()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Adds an event to the end of the queue.
+     * @param type One of the event type constants of this class.
+     * @param x The x-coordinate for pointer events, the velocity for scrolls
+     *        or the key code for key events.
+     * @param y The y-coordinate for pointer events, otherwise ignored.
+     */
+    public synchronized void offer(int type, int x, int y)
+    {
+
+        if (type == POINTER_MOVE && this.size > 0)
+        {
+            int last = (this.head + this.size - 1) & this.mask;
+            if (this.types[last] == POINTER_MOVE)
+            {
+                this.xs[last] = x;
+                this.ys[last] = y;
+                this.coalescedCount++;
+                return;
+            }
+        }
+
+        if (this.size == this.types.length)
+        {
+            this.grow();
+        }
+
+        int tail = (this.head + this.size) & this.mask;
+        this.types[tail] = type;
+        this.xs[tail] = x;
+        this.ys[tail] = y;
+        this.size++;
+
+    }
+
+    /**
+     * Removes the event at the front of the queue, its values can then be read with
+     * {@link #getPolledType()}, {@link #getPolledX()} and {@link #getPolledY()}.
+     * @return <code>false</code> if the queue was empty.
+     */
+    public synchronized boolean poll()
+    {
+        if (this.size == 0) { return false; }
+        this.polledType = this.types[this.head];
+        this.polledX = this.xs[this.head];
+        this.polledY = this.ys[this.head];
+        this.head = (this.head + 1) & this.mask;
+        this.size--;
+        return true;
+    }
+
+    public synchronized void clear()
+    {
+        this.head = 0;
+        this.size = 0;
+    }
+
+    public synchronized int size()
+    {
+        return this.size;
+    }
+
+    public int getPolledType()
+    {
+        return this.polledType;
+    }
+
+    public int getPolledX()
+    {
+        return this.polledX;
+    }
+
+    public int getPolledY()
+    {
+        return this.polledY;
+    }
+
+    /**
+     * Gets the number of pointer moves that were merged into a previous move.
+     * @return The number of merged events since the queue was created.
+     */
+    public int getCoalescedCount()
+    {
+        return this.coalescedCount;
+    }
+
+    private void grow()
+    {
+        int capacity = this.types.length;
+        int[] t = new int[capacity * 2];
+        int[] x = new int[capacity * 2];
+        int[] y = new int[capacity * 2];
+        for (int i = 0; i < this.size; i++)
+        {
+            int j = (this.head + i) & this.mask;
+            t[i] = this.types[j];
+            x[i] = this.xs[j];
+            y[i] = this.ys[j];
+        }
+        this.types = t;
+        this.xs = x;
+        this.ys = y;
+        this.mask = t.length - 1;
+        this.head = 0;
+    }
+
+}
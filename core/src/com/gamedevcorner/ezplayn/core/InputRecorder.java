@@ -0,0 +1,228 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+/**
+ * Records the input events dispatched by an {@link AbstractExtendedGame} and
+ * the delta of every update into a compact binary stream, which can be fed
+ * back with an {@link InputReplayer}.
+ * <p>
+ * The stream starts with the bytes <code>EZIR</code> and a version byte. Each
+ * record is a tag byte followed by its values as variable length integers:
+ * the {@link InputQueue} event types carry their coordinates, velocity or key
+ * code, and a frame carries its delta as an exact mantissa and exponent pair.
+ * A frame with the same delta as the one before is a single byte.
+ * </p>
+ * @author Prageeth Silva
+ * @see AbstractExtendedGame#setInputRecorder(InputRecorder)
+ */
+public class InputRecorder
+{
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    static final byte[] MAGIC = { 'E', 'Z', 'I', 'R' };
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 5;
+
+    static final int TAG_FRAME = 6;
+    static final int TAG_FRAME_REPEAT = 7;
+
+    private byte[] buffer;
+    private int length = 0;
+
+    private boolean hasLastDelta = false;
+    private float lastDelta = 0;
+
+    private int frameCount = 0;
+    private int eventCount = 0;
+
+    /**
+     * Creates a recorder with the given initial buffer size.
+     * @param capacity The initial size in bytes, the buffer grows as needed.
+     */
+    public InputRecorder(int capacity)
+    {
+        this.buffer = new byte[Math.max(HEADER_SIZE, capacity)];
+        this.writeHeader();
+    }
+
+    public InputRecorder()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Records an input event.
+     * @param type One of the event type constants of {@link InputQueue}
+     * @param x The x-coordinate for pointer events, the velocity for scrolls
+     *        or the key code for key events.
+     * @param y The y-coordinate for pointer events, otherwise ignored.
+     */
+    public void recordEvent(int type, int x, int y)
+    {
+        this.writeByte(type);
+        this.writeInt(x);
+        if (hasY(type))
+        {
+            this.writeInt(y);
+        }
+        this.eventCount++;
+    }
+
+    /**
+     * Records the start of a simulation update, after the events it dispatches.
+     * @param delta The time in milliseconds passed to the update.
+     */
+    public void recordFrame(float delta)
+    {
+        if (this.hasLastDelta && delta == this.lastDelta)
+        {
+            this.writeByte(TAG_FRAME_REPEAT);
+        }
+        else
+        {
+            this.writeByte(TAG_FRAME);
+            this.writeFloat(delta);
+            this.lastDelta = delta;
+            this.hasLastDelta = true;
+        }
+        this.frameCount++;
+    }
+
+    /**
+     * Copies the recording so far.
+     * @return The recorded stream, including its header.
+     */
+    public byte[] toByteArray()
+    {
+        byte[] data = new byte[this.length];
+        System.arraycopy(this.buffer, 0, data, 0, this.length);
+        return data;
+    }
+
+    /**
+     * Drops everything recorded so far.
+     */
+    public void clear()
+    {
+        this.length = 0;
+        this.hasLastDelta = false;
+        this.frameCount = 0;
+        this.eventCount = 0;
+        this.writeHeader();
+    }
+
+    /**
+     * Gets the size of the recording.
+     * @return The length of the stream in bytes.
+     */
+    public int getLength()
+    {
+        return this.length;
+    }
+
+    public int getFrameCount()
+    {
+        return this.frameCount;
+    }
+
+    public int getEventCount()
+    {
+        return this.eventCount;
+    }
+
+    private void writeHeader()
+    {
+        for (int i = 0; i < MAGIC.length; i++)
+        {
+            this.writeByte(MAGIC[i]);
+        }
+        this.writeByte(VERSION);
+    }
+
+    private void writeByte(int b)
+    {
+        if (this.length == this.buffer.length)
+        {
+            byte[] grown = new byte[this.buffer.length * 2];
+            System.arraycopy(this.buffer, 0, grown, 0, this.length);
+            this.buffer = grown;
+        }
+        this.buffer[this.length++] = (byte)b;
+    }
+
+    /**
+     * Writes a signed value in as few bytes as possible, seven bits per byte,
+     * with the sign folded into the lowest bit so small negatives stay short.
+     */
+    private void writeInt(int value)
+    {
+        int v = (value << 1) ^ (value >> 31);
+        while ((v & ~0x7F) != 0)
+        {
+            this.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        this.writeByte(v);
+    }
+
+    /**
+     * Writes a float exactly, as an integer mantissa and a power of two exponent.
+     * This avoids <code>Float.floatToIntBits</code>, which is not available on every
+     * platform. Values that are not finite are written as 0.
+     */
+    private void writeFloat(float value)
+    {
+        double v = value;
+        int exponent = 0;
+        if (Double.isNaN(v) || Double.isInfinite(v))
+        {
+            v = 0;
+        }
+        if (v != 0)
+        {
+            // shift the fraction into the integer part, exact in double precision
+            while (v != Math.floor(v))
+            {
+                v *= 2;
+                exponent--;
+            }
+            // large values only have zeros in their low bits
+            while (Math.abs(v) >= (1 << 30))
+            {
+                v /= 2;
+                exponent++;
+            }
+            // and small whole values can be shortened
+            while (v != 0 && (long)v % 2 == 0)
+            {
+                v /= 2;
+                exponent++;
+            }
+        }
+        this.writeInt((int)v);
+        this.writeInt(exponent);
+    }
+
+    /* Static methods */
+
+    static boolean hasY(int type)
+    {
+        return type == InputQueue.POINTER_DOWN || type == InputQueue.POINTER_UP || type == InputQueue.POINTER_MOVE;
+    }
+
+}
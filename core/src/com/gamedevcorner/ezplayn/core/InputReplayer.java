@@ -0,0 +1,202 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+/**
+ * Feeds a stream recorded by an {@link InputRecorder} back into a game, as
+ * fast as the game can take it. The events of each frame are dispatched in
+ * the recorded order, followed by the update with the recorded delta, so a
+ * game that only depends on its input and deltas goes through the same states.
+ * Input arriving from the platform while replaying is dropped.
+ * @author Prageeth Silva
+ */
+public class InputReplayer
+{
+
+    private final byte[] data;
+    private int position;
+
+    private float lastDelta = 0;
+    private int frameIndex = 0;
+
+    private boolean painting = true;
+
+    /**
+     * Creates a replayer over a recorded stream.
+     * @param data The bytes returned by {@link InputRecorder#toByteArray()}
+     * @throws IllegalArgumentException If the data is not a recording of a supported version.
+     */
+    public InputReplayer(byte[] data)
+    {
+        if (data == null || data.length < InputRecorder.HEADER_SIZE)
+        {
+            throw new IllegalArgumentException("Not an input recording");
+        }
+        for (int i = 0; i < InputRecorder.MAGIC.length; i++)
+        {
+            if (data[i] != InputRecorder.MAGIC[i])
+            {
+                throw new IllegalArgumentException("Not an input recording");
+            }
+        }
+        if (data[InputRecorder.MAGIC.length] != InputRecorder.VERSION)
+        {
+            throw new IllegalArgumentException("Unsupported input recording version " + data[InputRecorder.MAGIC.length]);
+        }
+        this.data = data;
+        this.rewind();
+    }
+
+    /**
+     * Replays the events of the next frame and then updates the game.
+     * The game is also painted, unless painting has been switched off.
+     * @param game The game to feed
+     * @return <code>false</code> if the recording has no more frames,
+     *         in which case any trailing events have been dispatched.
+     */
+    public boolean replayFrame(AbstractExtendedGame game)
+    {
+
+        while (this.position < this.data.length)
+        {
+            int tag = this.data[this.position++];
+            switch (tag)
+            {
+                case InputRecorder.TAG_FRAME:
+                    this.lastDelta = this.readFloat();
+                    this.runFrame(game, this.lastDelta);
+                    return true;
+                case InputRecorder.TAG_FRAME_REPEAT:
+                    this.runFrame(game, this.lastDelta);
+                    return true;
+                case InputQueue.POINTER_DOWN:
+                    game.onPointerDown(this.readInt(), this.readInt());
+                    break;
+                case InputQueue.POINTER_UP:
+                    game.onPointerUp(this.readInt(), this.readInt());
+                    break;
+                case InputQueue.POINTER_MOVE:
+                    game.onPointerMove(this.readInt(), this.readInt());
+                    break;
+                case InputQueue.POINTER_SCROLL:
+                    game.onPointerScroll(this.readInt());
+                    break;
+                case InputQueue.KEY_DOWN:
+                    game.onKeyDown(this.readInt());
+                    break;
+                case InputQueue.KEY_UP:
+                    game.onKeyUp(this.readInt());
+                    break;
+                default:
+                    throw new IllegalStateException("Corrupt input recording at byte " + (this.position - 1));
+            }
+        }
+        return false;
+
+    }
+
+    /**
+     * Replays the whole recording from the current position.
+     * @param game The game to feed
+     * @return The number of frames replayed.
+     */
+    public int replayAll(AbstractExtendedGame game)
+    {
+        int frames = 0;
+        while (this.replayFrame(game))
+        {
+            frames++;
+        }
+        return frames;
+    }
+
+    /**
+     * Goes back to the start of the recording.
+     */
+    public void rewind()
+    {
+        this.position = InputRecorder.HEADER_SIZE;
+        this.lastDelta = 0;
+        this.frameIndex = 0;
+    }
+
+    public boolean hasMore()
+    {
+        return this.position < this.data.length;
+    }
+
+    /**
+     * Gets the number of frames replayed since the start or the last rewind.
+     * @return The index of the next frame.
+     */
+    public int getFrameIndex()
+    {
+        return this.frameIndex;
+    }
+
+    public boolean isPainting()
+    {
+        return this.painting;
+    }
+
+    /**
+     * Sets whether each replayed frame is painted, on by default.
+     * Switching it off measures the simulation alone.
+     * @param painting The new painting status.
+     */
+    public void setPainting(boolean painting)
+    {
+        this.painting = painting;
+    }
+
+    private void runFrame(AbstractExtendedGame game, float delta)
+    {
+        game.getInputQueue().clear();
+        game.update(delta);
+        if (this.painting)
+        {
+            game.paint(0);
+        }
+        this.frameIndex++;
+    }
+
+    private int readInt()
+    {
+        int v = 0;
+        int shift = 0;
+        int b;
+        do
+        {
+            if (this.position >= this.data.length)
+            {
+                throw new IllegalStateException("Truncated input recording");
+            }
+            b = this.data[this.position++];
+            v |= (b & 0x7F) << shift;
+            shift += 7;
+        }
+        while ((b & 0x80) != 0);
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private float readFloat()
+    {
+        int mantissa = this.readInt();
+        int exponent = this.readInt();
+        return (float)(mantissa * Math.pow(2, exponent));
+    }
+
+}
@@ -30,12 +30,25 @@ import playn.core.*;
 public class Message extends AbstractControl implements ControlHolder
 {
 
-    private List<AbstractControl> activeControls = new ArrayList<AbstractControl>();
+    private final ChildControls children = new ChildControls(this);
+    private final List<AbstractControl> activeControls = this.children.getControls();
 
     private boolean active = false;
 
     private static Message staticMessage = new Message(0,0);
 
+    private static RenderedTextCache textCache = new RenderedTextCache();
+
+    private static ControlPool<TextMessage> textMessagePool = new ControlPool<TextMessage>() {
+
+        @Override
+        protected TextMessage newObject()
+        {
+            return staticMessage.new TextMessage();
+        }
+
+    };
+
     public Message(int width, int height, Image backgroundImage)
     {
         super(width, height, backgroundImage);
@@ -60,37 +73,42 @@ public class Message extends AbstractControl implements ControlHolder
     @Override
     public void onPointerDown(int x, int y)
     {
-        for (AbstractControl c : this.activeControls)
+        this.children.beginDispatch();
+        try
         {
-            c.onPointerDown(x - c.getX(), y - c.getY());
+            this.children.pointerDown(x, y);
+        }
+        finally
+        {
+            this.children.endDispatch();
         }
     }
 
     @Override
     public void onPointerUp(int x, int y)
     {
-        for (AbstractControl c : this.activeControls)
+        this.children.beginDispatch();
+        try
         {
-            c.onPointerUp(x - c.getX(), y - c.getY());
+            this.children.pointerUp(x, y);
+        }
+        finally
+        {
+            this.children.endDispatch();
         }
     }
 
     @Override
     public void onPointerMove(int x, int y)
     {
-        int nx, ny;
-        for (AbstractControl c : this.activeControls)
+        this.children.beginDispatch();
+        try
         {
-            nx = x - c.getX();
-            ny = y - c.getY();
-            if (c.isInNormRange(nx, ny))
-            {
-                c.onPointerMove(nx, ny);
-            }
-            else
-            {
-                c.onPointerLeave(x, y);
-            }
+            this.children.pointerMove(x, y);
+        }
+        finally
+        {
+            this.children.endDispatch();
         }
     }
 
@@ -100,27 +118,51 @@ public class Message extends AbstractControl implements ControlHolder
     @Override
     public void onPointerScroll(int velocity)
     {
-        for (AbstractControl c : this.activeControls)
+        this.children.beginDispatch();
+        try
+        {
+            for (int i = 0; i < this.activeControls.size(); i++)
+            {
+                this.activeControls.get(i).onPointerScroll(velocity);
+            }
+        }
+        finally
         {
-            c.onPointerScroll(velocity);
+            this.children.endDispatch();
         }
     }
 
     @Override
     public void onKeyDown(int keyCode)
     {
-        for (AbstractControl c : this.activeControls)
+        this.children.beginDispatch();
+        try
+        {
+            for (int i = 0; i < this.activeControls.size(); i++)
+            {
+                this.activeControls.get(i).onKeyDown(keyCode);
+            }
+        }
+        finally
         {
-            c.onKeyDown(keyCode);
+            this.children.endDispatch();
         }
     }
 
     @Override
     public void onKeyUp(int keyCode)
     {
-        for (AbstractControl c : this.activeControls)
+        this.children.beginDispatch();
+        try
         {
-            c.onKeyUp(keyCode);
+            for (int i = 0; i < this.activeControls.size(); i++)
+            {
+                this.activeControls.get(i).onKeyUp(keyCode);
+            }
+        }
+        finally
+        {
+            this.children.endDispatch();
         }
     }
 
@@ -133,16 +175,13 @@ public class Message extends AbstractControl implements ControlHolder
     @Override
     public boolean addChildControl(AbstractControl control)
     {
-        if (control == null) { return false; }
-        this.activeControls.add(control);
-        return true;
+        return this.children.add(control);
     }
 
     @Override
     public boolean removeChildControl(AbstractControl control)
     {
-        if (control == null) { return false; }
-        return this.activeControls.remove(control);
+        return this.children.remove(control);
     }
 
     @Override
@@ -150,6 +189,37 @@ public class Message extends AbstractControl implements ControlHolder
     {
         this.rootLayer.setAlpha(0.75f);
         this.rootLayer.setTranslation(this.getX(), this.getY());
+        this.notifyLayoutChanged();
+    }
+
+    @Override
+    public void reset()
+    {
+        super.reset();
+        this.children.clear();
+        this.active = false;
+    }
+
+    @Override
+    public void drawTo(Canvas canvas, float dx, float dy)
+    {
+        if (!this.rootLayer.visible()) { return; }
+        super.drawTo(canvas, dx, dy);
+        for (int i = 0; i < this.activeControls.size(); i++)
+        {
+            this.activeControls.get(i).drawTo(canvas, dx + this.getX(), dy + this.getY());
+        }
+    }
+
+    @Override
+    public long estimateBytes()
+    {
+        long bytes = super.estimateBytes();
+        for (AbstractControl c : this.activeControls)
+        {
+            bytes += c.estimateBytes();
+        }
+        return bytes;
     }
 
     public final void show()
@@ -167,11 +237,17 @@ public class Message extends AbstractControl implements ControlHolder
         return this.active;
     }
 
+    /**
+     * Called when a screen clears the message, only the messages the screen
+     * owns are freed.
+     */
+    void onCleared() { /* NOOP */ }
+
     /* Static methods */
 
     /**
      * Create a message object with only text.
-     * Shows white text on a black translucent rectangle
+     * Shows white text on a black translucent rectangle.
      * @param width The width of the message body
      * @param height The height of the message body
      * @param text The text to display
@@ -179,7 +255,7 @@ public class Message extends AbstractControl implements ControlHolder
      */
     public static Message createTextMessage(int width, int height, String text)
     {
-        return staticMessage.innerCreateTextMessage(width, height, text, Color.argb(150, 0, 0, 0), Color.argb(255, 255, 255, 255));
+        return createTextMessage(width, height, text, Color.argb(150, 0, 0, 0), Color.argb(255, 255, 255, 255));
     }
 
     /**
@@ -193,13 +269,61 @@ public class Message extends AbstractControl implements ControlHolder
      */
     public static Message createTextMessage(int width, int height, String text, int backColor, int textColor)
     {
-        return staticMessage.innerCreateTextMessage(width, height, text, backColor, textColor);
+        TextMessage message = staticMessage.new TextMessage();
+        message.setContent(width, height, text, backColor, textColor);
+        return message;
+    }
+
+    /**
+     * Takes a message with only text from a shared pool.
+     * Shows white text on a black translucent rectangle.
+     * The message is freed when it is cleared from the screen, or by {@link #free()},
+     * and must not be shown again afterwards. Use
+     * {@link #createTextMessage(int, int, String)} for a message to keep.
+     * @param width The width of the message body
+     * @param height The height of the message body
+     * @param text The text to display
+     * @return A pooled message.
+     */
+    public static Message obtainTextMessage(int width, int height, String text)
+    {
+        return obtainTextMessage(width, height, text, Color.argb(150, 0, 0, 0), Color.argb(255, 255, 255, 255));
+    }
+
+    /**
+     * Takes a message with only text from a shared pool, see
+     * {@link #obtainTextMessage(int, int, String)}.
+     * @param width The width of the message body
+     * @param height The height of the message body
+     * @param text The text to display
+     * @param backColor The back color using {@link playn.core.Color}
+     * @param textColor The text color using {@link playn.core.Color}
+     * @return A pooled message.
+     */
+    public static Message obtainTextMessage(int width, int height, String text, int backColor, int textColor)
+    {
+        TextMessage message = textMessagePool.obtain();
+        message.setContent(width, height, text, backColor, textColor);
+        return message;
     }
 
 
-    private Message innerCreateTextMessage(int width, int height, String text, int backColor, int textColor)
+    /**
+     * Gets the cache of the images drawn for text messages, so its bounds can be configured.
+     * @return The shared text image cache.
+     */
+    public static RenderedTextCache getTextCache()
+    {
+        return textCache;
+    }
+
+    /**
+     * Gets the pool that text messages are taken from, so its hit rate can be monitored.
+     * @return The shared text message pool.
+     */
+    public static Pool<? extends Message> getTextMessagePool()
     {
-        return new Message.TextMessage(width, height, text, backColor, textColor);
+        return textMessagePool;
     }
 
     /**
@@ -210,22 +334,52 @@ public class Message extends AbstractControl implements ControlHolder
     private class TextMessage extends Message
     {
 
-        public TextMessage(int width, int height, String text, int backColor, int textColor)
+        private ImageLayer textLayer = null;
+
+        public TextMessage()
+        {
+            super(0, 0);
+        }
+
+        public void setContent(int width, int height, String text, int backColor, int textColor)
         {
 
-            super(width, height);
+            this.setWidth(width);
+            this.setHeight(height);
 
-            CanvasLayer canvasLayer = graphics().createCanvasLayer(this.getWidth(), this.getHeight());
-            Canvas canvas = canvasLayer.canvas();
-            this.rootLayer.add(canvasLayer);
+            // the rendered text is shared through the cache
+            Image image = textCache.get(this.getWidth(), this.getHeight(), text, backColor, textColor);
+            if (this.textLayer == null)
+            {
+                this.textLayer = graphics().createImageLayer(image);
+                this.rootLayer.add(this.textLayer);
+            }
+            else
+            {
+                this.textLayer.setImage(image);
+            }
+
+            // the text layer carries the position, not the root layer
+            this.rootLayer.setTranslation(0, 0);
+            this.textLayer.setTranslation(this.getX(), this.getY());
 
-            canvas.setFillColor(backColor);
-            canvas.fillRect(0, 0, this.getWidth(), this.getHeight());
-            canvas.setFillColor(textColor);
-            canvas.drawText(text, 20, this.getHeight()/2);
+        }
 
-            canvasLayer.setTranslation(this.getX(), this.getY());
+        @Override
+        void onCleared()
+        {
+            // only the messages from obtainTextMessage are pooled
+            this.free();
+        }
 
+        @Override
+        public void drawTo(Canvas canvas, float dx, float dy)
+        {
+            super.drawTo(canvas, dx, dy);
+            if (this.rootLayer.visible() && this.textLayer != null)
+            {
+                canvas.drawImage(this.textLayer.image(), dx + this.getX(), dy + this.getY());
+            }
         }
 
     }
@@ -0,0 +1,345 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static playn.core.PlayN.*;
+
+import java.util.*;
+
+import playn.core.*;
+
+/**
+ * A background that can be shown at any size from one small source image.
+ * The source is split into nine parts by the left, top, right and bottom insets.
+ * The corners keep their size, the edges are stretched along their length and
+ * the centre is stretched both ways. If the target is smaller than the corners,
+ * they are shrunk to fit.
+ * The source can be an image or a region of a {@link TextureAtlas} page.
+ * Layers show the nine parts drawn into a single image of their size, so a
+ * background is one textured quad instead of nine. The images are cached by
+ * size, so controls of the same size share one, and the least recently used
+ * sizes are dropped when the cache goes over its memory budget. Layers keep
+ * showing a dropped image, it is only no longer shared.
+ * @author Prageeth Silva
+ * @see AbstractControl
+ */
+public class NinePatch
+{
+
+    public static final long DEFAULT_BUDGET = 2L * 1024 * 1024;
+
+    private final Image image;
+    private final AtlasRegion region;
+
+    private final int left;
+    private final int top;
+    private final int right;
+    private final int bottom;
+
+    private final LinkedHashMap<Long, CanvasImage> images = new LinkedHashMap<Long, CanvasImage>(16, 0.75f, true);
+    private long budget = DEFAULT_BUDGET;
+    private long usedBytes = 0;
+
+    /**
+     * Creates a nine-patch from an image.
+     * @param image The source image
+     * @param left The width of the left column in pixels
+     * @param top The height of the top row in pixels
+     * @param right The width of the right column in pixels
+     * @param bottom The height of the bottom row in pixels
+     */
+    public NinePatch(Image image, int left, int top, int right, int bottom)
+    {
+        this(image, null, left, top, right, bottom);
+    }
+
+    /**
+     * Creates a nine-patch from an atlas region, so the source shares a texture
+     * with other images.
+     * @param region The source region
+     * @param left The width of the left column in pixels
+     * @param top The height of the top row in pixels
+     * @param right The width of the right column in pixels
+     * @param bottom The height of the bottom row in pixels
+     */
+    public NinePatch(AtlasRegion region, int left, int top, int right, int bottom)
+    {
+        this(null, region, left, top, right, bottom);
+    }
+
+    private NinePatch(Image image, AtlasRegion region, int left, int top, int right, int bottom)
+    {
+        this.image = image;
+        this.region = region;
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+    }
+
+    /**
+     * Creates a layer showing the nine-patch.
+     * @param width The width to show it at
+     * @param height The height to show it at
+     * @return A new image layer.
+     * @see #layout(ImageLayer, float, float)
+     */
+    public ImageLayer createLayer(float width, float height)
+    {
+        return graphics().createImageLayer(this.getImage(width, height));
+    }
+
+    /**
+     * Resizes a layer created by {@link #createLayer(float, float)}, leaving it
+     * alone if it already shows the nine-patch at that size.
+     * @param layer The layer of this nine-patch
+     * @param width The new width
+     * @param height The new height
+     */
+    public void layout(ImageLayer layer, float width, float height)
+    {
+        Image image = layer.image();
+        if (image != null && image.width() == size(width) && image.height() == size(height)) { return; }
+        layer.setImage(this.getImage(width, height));
+    }
+
+    /**
+     * Gets the nine-patch drawn at the given size, from the cache if that size
+     * has been drawn before.
+     * @param width The width to draw it at, rounded up
+     * @param height The height to draw it at, rounded up
+     * @return The image of the nine-patch at that size.
+     */
+    public Image getImage(float width, float height)
+    {
+
+        int w = size(width);
+        int h = size(height);
+        Long key = Long.valueOf(((long)w << 32) | h);
+
+        CanvasImage image = this.images.get(key);
+        if (image == null)
+        {
+            image = graphics().createImage(w, h);
+            this.render(image, w, h);
+            this.images.put(key, image);
+            this.usedBytes += ScreenCache.estimateBytes(w, h);
+            this.trim(image);
+        }
+        return image;
+
+    }
+
+    /**
+     * Drops the least recently used sizes until the cache fits in the budget,
+     * always keeping the image just drawn.
+     */
+    private void trim(Image kept)
+    {
+        Iterator<CanvasImage> it = this.images.values().iterator();
+        while (this.usedBytes > this.budget && it.hasNext())
+        {
+            CanvasImage image = it.next();
+            if (image == kept) { continue; }
+            it.remove();
+            this.usedBytes -= ScreenCache.estimateBytes(image);
+        }
+    }
+
+    /**
+     * Gets the memory held by the cached images.
+     * @return The estimate in bytes.
+     */
+    public long getUsedBytes()
+    {
+        return this.usedBytes;
+    }
+
+    public long getBudget()
+    {
+        return this.budget;
+    }
+
+    /**
+     * Sets the memory budget of the cached images, dropping the least recently
+     * used sizes if the cache is over it.
+     * @param budget The budget in bytes, {@link #DEFAULT_BUDGET} by default
+     */
+    public void setBudget(long budget)
+    {
+        this.budget = budget;
+        this.trim(null);
+    }
+
+    /**
+     * Draws the nine-patch into a new image, once the source has loaded.
+     */
+    private void render(final CanvasImage image, final int width, final int height)
+    {
+        Image page = this.getPage();
+        if (page.isReady())
+        {
+            this.draw(image.canvas(), 0, 0, width, height);
+            return;
+        }
+        page.addCallback(new ResourceCallback<Image>() {
+
+            @Override
+            public void done(Image resource)
+            {
+                NinePatch.this.draw(image.canvas(), 0, 0, width, height);
+            }
+
+            @Override
+            public void error(Throwable err) { /* NOOP */ }
+
+        });
+    }
+
+    /**
+     * Draws the nine-patch onto a canvas.
+     * @param canvas The canvas to draw on
+     * @param x The x-coordinate on the canvas
+     * @param y The y-coordinate on the canvas
+     * @param width The width to draw it at
+     * @param height The height to draw it at
+     */
+    public void draw(Canvas canvas, float x, float y, float width, float height)
+    {
+
+        float l = fit(this.left, this.right, width);
+        float r = fit(this.right, this.left, width);
+        float t = fit(this.top, this.bottom, height);
+        float b = fit(this.bottom, this.top, height);
+
+        Image page = this.getPage();
+        int sx = this.getPageX();
+        int sy = this.getPageY();
+        int sw = this.getWidth();
+        int sh = this.getHeight();
+
+        for (int row = 0; row < 3; row++)
+        {
+            for (int col = 0; col < 3; col++)
+            {
+                float dw = part(col, l, r, width);
+                float dh = part(row, t, b, height);
+                float sw0 = part(col, this.left, this.right, sw);
+                float sh0 = part(row, this.top, this.bottom, sh);
+                if (dw <= 0 || dh <= 0 || sw0 <= 0 || sh0 <= 0) { continue; }
+                canvas.drawImage(page,
+                        x + offset(col, l, r, width), y + offset(row, t, b, height), dw, dh,
+                        sx + offset(col, this.left, this.right, sw), sy + offset(row, this.top, this.bottom, sh), sw0, sh0);
+            }
+        }
+
+    }
+
+    /**
+     * Gets the image holding the source, the atlas page for regions.
+     * @return The image the patches are taken from.
+     */
+    public Image getPage()
+    {
+        return this.region == null ? this.image : this.region.getPage();
+    }
+
+    public int getWidth()
+    {
+        return this.region == null ? this.image.width() : this.region.getWidth();
+    }
+
+    public int getHeight()
+    {
+        return this.region == null ? this.image.height() : this.region.getHeight();
+    }
+
+    public int getLeft()
+    {
+        return this.left;
+    }
+
+    public int getTop()
+    {
+        return this.top;
+    }
+
+    public int getRight()
+    {
+        return this.right;
+    }
+
+    public int getBottom()
+    {
+        return this.bottom;
+    }
+
+    private int getPageX()
+    {
+        return this.region == null ? 0 : this.region.getX();
+    }
+
+    private int getPageY()
+    {
+        return this.region == null ? 0 : this.region.getY();
+    }
+
+    /* Static methods */
+
+    /**
+     * Gets the size of the image a nine-patch is drawn into.
+     */
+    private static int size(float size)
+    {
+        return Math.max(1, (int)Math.ceil(size));
+    }
+
+    /**
+     * Gets the size of a border, shrunk with the opposite one if both do not fit.
+     */
+    private static float fit(int border, int opposite, float size)
+    {
+        int total = border + opposite;
+        return total > size && total > 0 ? size * border / total : border;
+    }
+
+    /**
+     * Gets the size of the first, middle or last part along an axis.
+     */
+    private static float part(int index, float first, float last, float size)
+    {
+        switch (index)
+        {
+            case 0: return first;
+            case 1: return size - first - last;
+            default: return last;
+        }
+    }
+
+    /**
+     * Gets the start of the first, middle or last part along an axis.
+     */
+    private static float offset(int index, float first, float last, float size)
+    {
+        switch (index)
+        {
+            case 0: return 0;
+            case 1: return first;
+            default: return size - last;
+        }
+    }
+
+}
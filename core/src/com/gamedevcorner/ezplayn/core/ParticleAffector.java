@@ -0,0 +1,42 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+/**
+ * Changes the live particles of a {@link ParticleSystem} every update, for
+ * example to apply gravity or drag. Affectors work on the arrays of the system
+ * directly, so they must not allocate or keep references to the arrays.
+ * @author Prageeth Silva
+ * @see ParticleSystem
+ */
+public interface ParticleAffector
+{
+
+    /**
+     * Changes the particles, called once per update before they are moved.
+     * Only the first <code>count</code> entries of the arrays are live.
+     * @param x The x-coordinates of the particles
+     * @param y The y-coordinates of the particles
+     * @param vx The horizontal velocities in pixels per second
+     * @param vy The vertical velocities in pixels per second
+     * @param age The ages of the particles in milliseconds
+     * @param life The life spans of the particles in milliseconds
+     * @param count The number of live particles
+     * @param delta The time in milliseconds since the last update
+     */
+    public void affect(float[] x, float[] y, float[] vx, float[] vy, float[] age, float[] life, int count, float delta);
+
+}
@@ -0,0 +1,231 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+/**
+ * Describes how a {@link ParticleSystem} spawns particles: where, how many per
+ * second, in which directions, how fast, for how long and at what sizes.
+ * Emitters are configured once and reused, moving one along with a game object
+ * gives a trail, and {@link #burst(int)} gives an explosion.
+ * @author Prageeth Silva
+ * @see ParticleSystem#addEmitter(ParticleEmitter)
+ */
+public class ParticleEmitter
+{
+
+    private float x = 0;
+    private float y = 0;
+    private float width = 0;
+    private float height = 0;
+
+    private float rate = 0;
+    private float accumulator = 0;
+    private int pendingBurst = 0;
+    private boolean enabled = true;
+
+    private float angle = 0;
+    private float spread = (float)(Math.PI * 2);
+    private float minSpeed = 0;
+    private float maxSpeed = 0;
+
+    private float minLife = 1000;
+    private float maxLife = 1000;
+
+    private float startSize = 1;
+    private float endSize = 1;
+
+    /**
+     * Sets where particles are spawned, relative to the particle system.
+     * @param x The x-coordinate of the top left of the spawn area
+     * @param y The y-coordinate of the top left of the spawn area
+     */
+    public void setPosition(float x, float y)
+    {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Sets the size of the area particles are spawned in, 0 by 0 for a point.
+     * @param width The width of the spawn area
+     * @param height The height of the spawn area
+     */
+    public void setArea(float width, float height)
+    {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Sets the number of particles spawned per second while enabled.
+     * @param rate The spawn rate, 0 for bursts only.
+     */
+    public void setRate(float rate)
+    {
+        this.rate = rate;
+    }
+
+    /**
+     * Spawns a number of particles on the next update, even if disabled.
+     * @param count The number of particles
+     */
+    public void burst(int count)
+    {
+        this.pendingBurst += count;
+    }
+
+    /**
+     * Sets the directions particles leave in.
+     * @param angle The centre direction in radians, 0 to the right and PI/2 down
+     * @param spread The width of the range of directions in radians, 2*PI for all of them
+     */
+    public void setDirection(float angle, float spread)
+    {
+        this.angle = angle;
+        this.spread = spread;
+    }
+
+    /**
+     * Sets the range of speeds particles leave at.
+     * @param minSpeed The minimum speed in pixels per second
+     * @param maxSpeed The maximum speed in pixels per second
+     */
+    public void setSpeed(float minSpeed, float maxSpeed)
+    {
+        this.minSpeed = minSpeed;
+        this.maxSpeed = maxSpeed;
+    }
+
+    /**
+     * Sets the range of life spans of the particles.
+     * @param minLife The minimum life span in milliseconds
+     * @param maxLife The maximum life span in milliseconds
+     */
+    public void setLife(float minLife, float maxLife)
+    {
+        this.minLife = minLife;
+        this.maxLife = maxLife;
+    }
+
+    /**
+     * Sets the scale of the particles at the start and at the end of their lives.
+     * @param startSize The scale of the frame when spawned
+     * @param endSize The scale of the frame when it dies
+     */
+    public void setSize(float startSize, float endSize)
+    {
+        this.startSize = startSize;
+        this.endSize = endSize;
+    }
+
+    public boolean isEnabled()
+    {
+        return this.enabled;
+    }
+
+    /**
+     * Starts or stops the continuous spawning, bursts are not affected.
+     * @param enabled The new status
+     */
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+        if (!enabled)
+        {
+            this.accumulator = 0;
+        }
+    }
+
+    /**
+     * Gets the number of particles to spawn for an update, and consumes them.
+     * @param delta The time in milliseconds since the last update
+     * @return The number of particles to spawn.
+     */
+    int take(float delta)
+    {
+        int count = this.pendingBurst;
+        this.pendingBurst = 0;
+        if (this.enabled && this.rate > 0)
+        {
+            this.accumulator += this.rate * delta / 1000f;
+            int whole = (int)this.accumulator;
+            this.accumulator -= whole;
+            count += whole;
+        }
+        return count;
+    }
+
+    public float getX()
+    {
+        return this.x;
+    }
+
+    public float getY()
+    {
+        return this.y;
+    }
+
+    public float getWidth()
+    {
+        return this.width;
+    }
+
+    public float getHeight()
+    {
+        return this.height;
+    }
+
+    public float getAngle()
+    {
+        return this.angle;
+    }
+
+    public float getSpread()
+    {
+        return this.spread;
+    }
+
+    public float getMinSpeed()
+    {
+        return this.minSpeed;
+    }
+
+    public float getMaxSpeed()
+    {
+        return this.maxSpeed;
+    }
+
+    public float getMinLife()
+    {
+        return this.minLife;
+    }
+
+    public float getMaxLife()
+    {
+        return this.maxLife;
+    }
+
+    public float getStartSize()
+    {
+        return this.startSize;
+    }
+
+    public float getEndSize()
+    {
+        return this.endSize;
+    }
+
+}
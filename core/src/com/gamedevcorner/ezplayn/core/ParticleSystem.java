@@ -0,0 +1,445 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static playn.core.PlayN.*;
+
+import java.util.*;
+
+import playn.core.*;
+
+/**
+ * Explosions, trails and other effects made of many short lived particles.
+ * The particles live in a fixed number of slots of parallel primitive arrays,
+ * spawned by {@link ParticleEmitter}s, changed by {@link ParticleAffector}s and
+ * drawn onto a single surface layer. Particles show the frames in the order they
+ * were added over their lives, so a sequence of fading images fades them out.
+ * The system is added to an {@link AbstractGameScreen} like any other control,
+ * which advances it in update and draws it in paint. Nothing is allocated per
+ * particle, when every slot is taken new particles are dropped.
+ * @author Prageeth Silva
+ * @see ParticleEmitter
+ * @see ParticleAffector
+ */
+public class ParticleSystem extends AbstractControl
+{
+
+    private final SurfaceLayer surfaceLayer;
+
+    private final float[] x;
+    private final float[] y;
+    private final float[] vx;
+    private final float[] vy;
+    private final float[] age;
+    private final float[] life;
+    private final float[] startSize;
+    private final float[] endSize;
+    private int count = 0;
+
+    private List<ParticleEmitter> emitters = new ArrayList<ParticleEmitter>();
+    private List<ParticleAffector> affectors = new ArrayList<ParticleAffector>();
+
+    private final FrameTable frameTable;
+
+    private int seed = 0x2545F491;
+    private int droppedCount = 0;
+    private boolean drawn = false;
+
+    /**
+     * Creates a particle system covering an area of the screen.
+     * @param width The width of the area, particles outside it are not seen
+     * @param height The height of the area
+     * @param capacity The maximum number of live particles
+     */
+    public ParticleSystem(int width, int height, int capacity)
+    {
+        this(width, height, capacity, new FrameTable());
+    }
+
+    /**
+     * Creates a particle system showing the frames of a table, which may be shared.
+     * @param width The width of the area, particles outside it are not seen
+     * @param height The height of the area
+     * @param capacity The maximum number of live particles
+     * @param frameTable The frames the particles show over their lives
+     */
+    public ParticleSystem(int width, int height, int capacity, FrameTable frameTable)
+    {
+        super(width, height, null);
+        this.frameTable = frameTable;
+        this.setAutoCentring(false);
+        capacity = Math.max(1, capacity);
+        this.x = new float[capacity];
+        this.y = new float[capacity];
+        this.vx = new float[capacity];
+        this.vy = new float[capacity];
+        this.age = new float[capacity];
+        this.life = new float[capacity];
+        this.startSize = new float[capacity];
+        this.endSize = new float[capacity];
+        this.surfaceLayer = graphics().createSurfaceLayer(Math.max(1, width), Math.max(1, height));
+        this.rootLayer.add(this.surfaceLayer);
+    }
+
+    /**
+     * Adds a frame shown by the particles, a part of an image such as a sprite sheet.
+     * The frames are shown in the order they were added, spread over the life of a particle.
+     * @param image The image holding the frame
+     * @param sx The x-coordinate of the frame in the image
+     * @param sy The y-coordinate of the frame in the image
+     * @param width The width of the frame
+     * @param height The height of the frame
+     */
+    public void addFrame(Image image, float sx, float sy, float width, float height)
+    {
+        this.frameTable.add(image, sx, sy, width, height);
+    }
+
+    public void addFrame(Image image)
+    {
+        this.frameTable.add(image);
+    }
+
+    /**
+     * Adds a region of a {@link TextureAtlas} as a frame. The atlas must already be packed.
+     * @param region The region of the frame
+     */
+    public void addFrame(AtlasRegion region)
+    {
+        this.frameTable.add(region);
+    }
+
+    public FrameTable getFrameTable()
+    {
+        return this.frameTable;
+    }
+
+    public void addEmitter(ParticleEmitter emitter)
+    {
+        if (emitter != null && !this.emitters.contains(emitter))
+        {
+            this.emitters.add(emitter);
+        }
+    }
+
+    public boolean removeEmitter(ParticleEmitter emitter)
+    {
+        return this.emitters.remove(emitter);
+    }
+
+    /**
+     * Adds an affector, affectors are applied in the order they were added.
+     * @param affector The affector to add
+     */
+    public void addAffector(ParticleAffector affector)
+    {
+        if (affector != null && !this.affectors.contains(affector))
+        {
+            this.affectors.add(affector);
+        }
+    }
+
+    public boolean removeAffector(ParticleAffector affector)
+    {
+        return this.affectors.remove(affector);
+    }
+
+    /**
+     * Sets the seed of the random numbers used to spawn particles, so effects
+     * can be repeated exactly, for example when replaying recorded input.
+     * @param seed The new seed
+     */
+    public void setSeed(int seed)
+    {
+        this.seed = seed == 0 ? 0x2545F491 : seed;
+    }
+
+    /**
+     * Gets the number of live particles.
+     * @return The particle count.
+     */
+    public int size()
+    {
+        return this.count;
+    }
+
+    public int getCapacity()
+    {
+        return this.x.length;
+    }
+
+    /**
+     * Gets the number of particles that could not be spawned because every slot was taken.
+     * @return The dropped particle count since the last clear.
+     */
+    public int getDroppedCount()
+    {
+        return this.droppedCount;
+    }
+
+    /**
+     * Removes all the live particles.
+     */
+    public void clear()
+    {
+        this.count = 0;
+        this.droppedCount = 0;
+    }
+
+    @Override
+    public void init(ActionCallback<Void> callback, Object obj) { /* NOOP */ }
+
+    /**
+     * Spawns the particles of the emitters, applies the affectors, moves the
+     * particles and removes the ones that have reached the end of their lives.
+     */
+    @Override
+    public void update(float delta)
+    {
+
+        for (int e = 0; e < this.emitters.size(); e++)
+        {
+            ParticleEmitter emitter = this.emitters.get(e);
+            int spawn = emitter.take(delta);
+            for (int n = 0; n < spawn; n++)
+            {
+                this.spawn(emitter);
+            }
+        }
+
+        for (int a = 0; a < this.affectors.size(); a++)
+        {
+            this.affectors.get(a).affect(this.x, this.y, this.vx, this.vy, this.age, this.life, this.count, delta);
+        }
+
+        float seconds = delta / 1000f;
+        int i = 0;
+        while (i < this.count)
+        {
+            this.age[i] += delta;
+            if (this.age[i] >= this.life[i])
+            {
+                this.remove(i);
+                continue;
+            }
+            this.x[i] += this.vx[i] * seconds;
+            this.y[i] += this.vy[i] * seconds;
+            i++;
+        }
+
+    }
+
+    private void spawn(ParticleEmitter emitter)
+    {
+
+        if (this.count == this.x.length)
+        {
+            this.droppedCount++;
+            return;
+        }
+
+        int i = this.count++;
+        this.x[i] = emitter.getX() + emitter.getWidth() * this.random();
+        this.y[i] = emitter.getY() + emitter.getHeight() * this.random();
+
+        double direction = emitter.getAngle() + emitter.getSpread() * (this.random() - 0.5f);
+        float speed = emitter.getMinSpeed() + (emitter.getMaxSpeed() - emitter.getMinSpeed()) * this.random();
+        this.vx[i] = (float)Math.cos(direction) * speed;
+        this.vy[i] = (float)Math.sin(direction) * speed;
+
+        this.age[i] = 0;
+        this.life[i] = Math.max(1, emitter.getMinLife() + (emitter.getMaxLife() - emitter.getMinLife()) * this.random());
+        this.startSize[i] = emitter.getStartSize();
+        this.endSize[i] = emitter.getEndSize();
+
+    }
+
+    /**
+     * Removes a particle by moving the last one into its slot.
+     */
+    private void remove(int i)
+    {
+        int last = --this.count;
+        this.x[i] = this.x[last];
+        this.y[i] = this.y[last];
+        this.vx[i] = this.vx[last];
+        this.vy[i] = this.vy[last];
+        this.age[i] = this.age[last];
+        this.life[i] = this.life[last];
+        this.startSize[i] = this.startSize[last];
+        this.endSize[i] = this.endSize[last];
+    }
+
+    /**
+     * Gets a random number between 0 and 1 from a xorshift generator.
+     */
+    private float random()
+    {
+        int s = this.seed;
+        s ^= s << 13;
+        s ^= s >>> 17;
+        s ^= s << 5;
+        this.seed = s;
+        return (s >>> 8) / 16777216f;
+    }
+
+    /**
+     * Draws the particles onto the surface, nothing if there were none
+     * in this and the last paint.
+     */
+    @Override
+    public void paint(float alpha)
+    {
+        if (this.count == 0 && !this.drawn) { return; }
+        Surface surface = this.surfaceLayer.surface();
+        surface.clear();
+        this.drawParticles(surface, null, 0, 0);
+        this.drawn = this.count > 0;
+    }
+
+    @Override
+    public void drawTo(Canvas canvas, float dx, float dy)
+    {
+        if (!this.rootLayer.visible()) { return; }
+        this.drawParticles(null, canvas, dx + this.getX(), dy + this.getY());
+    }
+
+    /**
+     * Draws the particles centred on their positions, onto a surface or a canvas.
+     */
+    private void drawParticles(Surface surface, Canvas canvas, float dx, float dy)
+    {
+
+        int frameCount = this.frameTable.size();
+        if (frameCount == 0) { return; }
+
+        for (int i = 0; i < this.count; i++)
+        {
+
+            float t = this.age[i] / this.life[i];
+            int f = Math.min(frameCount - 1, (int)(t * frameCount));
+            float size = this.startSize[i] + (this.endSize[i] - this.startSize[i]) * t;
+            float sw = this.frameTable.getWidth(f);
+            float sh = this.frameTable.getHeight(f);
+            float w = sw * size;
+            float h = sh * size;
+            if (w <= 0 || h <= 0) { continue; }
+
+            this.frameTable.draw(f, surface, canvas, dx + this.x[i] - w / 2, dy + this.y[i] - h / 2, w, h);
+
+        }
+
+    }
+
+    @Override
+    public void onPointerDown(int x, int y) { /* NOOP */ }
+
+    @Override
+    public void onPointerUp(int x, int y) { /* NOOP */ }
+
+    @Override
+    public void onPointerMove(int x, int y) { /* NOOP */ }
+
+    @Override
+    public void onPointerLeave(int x, int y) { /* NOOP */ }
+
+    @Override
+    public void onPointerScroll(int velocity) { /* NOOP */ }
+
+    @Override
+    public void onKeyDown(int keyCode) { /* NOOP */ }
+
+    @Override
+    public void onKeyUp(int keyCode) { /* NOOP */ }
+
+    @Override
+    public void reset()
+    {
+        super.reset();
+        this.clear();
+    }
+
+    @Override
+    public long estimateBytes()
+    {
+        return super.estimateBytes() + ScreenCache.estimateBytes(this.getWidth(), this.getHeight());
+    }
+
+    /* Auxiliary Classes */
+
+    /**
+     * Accelerates the particles at a constant rate, for example downwards for gravity.
+     */
+    public static class Gravity implements ParticleAffector
+    {
+
+        private float ax;
+        private float ay;
+
+        /**
+         * @param ax The horizontal acceleration in pixels per second squared
+         * @param ay The vertical acceleration in pixels per second squared
+         */
+        public Gravity(float ax, float ay)
+        {
+            this.ax = ax;
+            this.ay = ay;
+        }
+
+        @Override
+        public void affect(float[] x, float[] y, float[] vx, float[] vy, float[] age, float[] life, int count, float delta)
+        {
+            float dvx = this.ax * delta / 1000f;
+            float dvy = this.ay * delta / 1000f;
+            for (int i = 0; i < count; i++)
+            {
+                vx[i] += dvx;
+                vy[i] += dvy;
+            }
+        }
+
+    }
+
+    /**
+     * Slows the particles down, like air resistance.
+     */
+    public static class Drag implements ParticleAffector
+    {
+
+        private float damping;
+
+        /**
+         * @param damping The fraction of the velocity lost per second, between 0 and 1
+         */
+        public Drag(float damping)
+        {
+            this.damping = damping;
+        }
+
+        @Override
+        public void affect(float[] x, float[] y, float[] vx, float[] vy, float[] age, float[] life, int count, float delta)
+        {
+            float keep = Math.max(0, 1 - this.damping * delta / 1000f);
+            for (int i = 0; i < count; i++)
+            {
+                vx[i] *= keep;
+                vy[i] *= keep;
+            }
+        }
+
+    }
+
+}
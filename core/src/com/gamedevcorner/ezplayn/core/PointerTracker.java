@@ -0,0 +1,152 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import java.util.*;
+
+/**
+ * Tracks pointer capture and hover for the controls of a {@link ControlHolder}.
+ * The controls that receive a pointer down capture the pointer, so the
+ * following moves and the release go only to them, even outside their bounds.
+ * {@link AbstractControl#onPointerLeave(int, int)} is only sent when the pointer
+ * actually leaves a control it was over. Downs and ups also update the controls
+ * under the pointer, as touch pointers can go down and up without moving.
+ * @author Prageeth Silva
+ * @see AbstractGameScreen
+ * @see Message
+ */
+public class PointerTracker
+{
+
+    private final List<AbstractControl> captured = new ArrayList<AbstractControl>();
+    private final List<AbstractControl> hovered = new ArrayList<AbstractControl>();
+
+    /**
+     * Sends a pointer down to the controls under the pointer, which then capture it.
+     * @param hits The controls under the pointer
+     * @param x The x-coordinate from the left of the holder
+     * @param y The y-coordinate from the top of the holder
+     */
+    public void pointerDown(List<AbstractControl> hits, int x, int y)
+    {
+        this.hover(hits, x, y);
+        this.captured.clear();
+        AbstractControl c;
+        for (int i = 0; i < hits.size(); i++)
+        {
+            c = hits.get(i);
+            this.captured.add(c);
+            c.onPointerDown(x - c.getX(), y - c.getY());
+        }
+    }
+
+    /**
+     * Sends a pointer up to the capturing controls and releases the capture.
+     * If nothing has captured the pointer, it goes to the controls under the pointer.
+     * @param hits The controls under the pointer
+     * @param x The x-coordinate from the left of the holder
+     * @param y The y-coordinate from the top of the holder
+     */
+    public void pointerUp(List<AbstractControl> hits, int x, int y)
+    {
+        List<AbstractControl> targets = this.captured.isEmpty() ? hits : this.captured;
+        AbstractControl c;
+        for (int i = 0; i < targets.size(); i++)
+        {
+            c = targets.get(i);
+            c.onPointerUp(x - c.getX(), y - c.getY());
+        }
+        this.captured.clear();
+        this.hover(hits, x, y);
+    }
+
+    /**
+     * Sends leave events to the controls the pointer has just left, then sends the
+     * move to the capturing controls, or to the controls under the pointer if nothing
+     * has captured it.
+     * @param hits The controls under the pointer
+     * @param x The x-coordinate from the left of the holder
+     * @param y The y-coordinate from the top of the holder
+     */
+    public void pointerMove(List<AbstractControl> hits, int x, int y)
+    {
+        this.hover(hits, x, y);
+        List<AbstractControl> targets = this.captured.isEmpty() ? hits : this.captured;
+        AbstractControl c;
+        for (int i = 0; i < targets.size(); i++)
+        {
+            c = targets.get(i);
+            c.onPointerMove(x - c.getX(), y - c.getY());
+        }
+    }
+
+    /**
+     * Sends leave events to the hovered controls that are no longer under the
+     * pointer, then makes the hit controls the hovered ones.
+     * @param hits The controls under the pointer
+     * @param x The x-coordinate from the left of the holder
+     * @param y The y-coordinate from the top of the holder
+     */
+    private void hover(List<AbstractControl> hits, int x, int y)
+    {
+        AbstractControl c;
+        for (int i = 0; i < this.hovered.size(); i++)
+        {
+            c = this.hovered.get(i);
+            if (!hits.contains(c))
+            {
+                c.onPointerLeave(x, y);
+            }
+        }
+        this.hovered.clear();
+        for (int i = 0; i < hits.size(); i++)
+        {
+            this.hovered.add(hits.get(i));
+        }
+    }
+
+    /**
+     * Forgets a control that has been removed from the holder.
+     * @param control The removed control
+     */
+    public void remove(AbstractControl control)
+    {
+        this.captured.remove(control);
+        this.hovered.remove(control);
+    }
+
+    public void clear()
+    {
+        this.captured.clear();
+        this.hovered.clear();
+    }
+
+    public boolean isCaptured()
+    {
+        return !this.captured.isEmpty();
+    }
+
+    public boolean isCapturing(AbstractControl control)
+    {
+        return this.captured.contains(control);
+    }
+
+    public boolean isHovering(AbstractControl control)
+    {
+        return this.hovered.contains(control);
+    }
+
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import java.util.*;
+
+/**
+ * A pool of reusable objects. Objects are taken with {@link #obtain()} and
+ * handed back with {@link #free(Object)}, where they are reset and kept for
+ * the next caller instead of being left to the garbage collector.
+ * @author Prageeth Silva
+ * @param <T> The type of the pooled objects
+ * @see ControlPool
+ */
+public abstract class Pool<T>
+{
+
+    public static final int DEFAULT_MAX_FREE = 16;
+
+    private final List<T> freeObjects = new ArrayList<T>();
+
+    private int maxFree;
+
+    private int hits = 0;
+    private int misses = 0;
+
+    protected Pool(int maxFree)
+    {
+        this.maxFree = maxFree;
+    }
+
+    protected Pool()
+    {
+        this(DEFAULT_MAX_FREE);
+    }
+
+    /**
+     * Creates a new object when the pool has none free.
+     * @return The new object.
+     */
+    protected abstract T newObject();
+
+    /**
+     * Brings a freed object back to its initial state.
+     * @param obj The object being freed.
+     */
+    protected void reset(T obj) { /* NOOP */ }
+
+    /**
+     * Takes a free object from the pool, or creates a new one if there is none.
+     * @return An object ready to be used.
+     */
+    public T obtain()
+    {
+        int n = this.freeObjects.size();
+        if (n > 0)
+        {
+            this.hits++;
+            return this.freeObjects.remove(n - 1);
+        }
+        this.misses++;
+        return this.newObject();
+    }
+
+    /**
+     * Resets an object and keeps it for reuse. If the pool already holds its
+     * maximum number of free objects the object is dropped instead.
+     * Freeing an object that is already free does nothing, so it cannot be
+     * handed out twice.
+     * @param obj The object that is no longer in use.
+     */
+    public void free(T obj)
+    {
+        if (obj == null || this.isFree(obj)) { return; }
+        this.reset(obj);
+        if (this.freeObjects.size() < this.maxFree)
+        {
+            this.freeObjects.add(obj);
+        }
+    }
+
+    /**
+     * Checks if an object is among the free ones, by identity.
+     */
+    private boolean isFree(T obj)
+    {
+        for (int i = 0; i < this.freeObjects.size(); i++)
+        {
+            if (this.freeObjects.get(i) == obj) { return true; }
+        }
+        return false;
+    }
+
+    /**
+     * Drops all the free objects.
+     */
+    public void clear()
+    {
+        this.freeObjects.clear();
+    }
+
+    public int getFreeCount()
+    {
+        return this.freeObjects.size();
+    }
+
+    public int getMaxFree()
+    {
+        return this.maxFree;
+    }
+
+    public void setMaxFree(int maxFree)
+    {
+        this.maxFree = maxFree;
+        while (this.freeObjects.size() > maxFree)
+        {
+            this.freeObjects.remove(this.freeObjects.size() - 1);
+        }
+    }
+
+    public int getHitCount()
+    {
+        return this.hits;
+    }
+
+    public int getMissCount()
+    {
+        return this.misses;
+    }
+
+    /**
+     * Gets the fraction of {@link #obtain()} calls that were served by a free object.
+     * @return The hit rate from 0 to 1, 0 if nothing has been obtained yet.
+     */
+    public float getHitRate()
+    {
+        int total = this.hits + this.misses;
+        return total == 0 ? 0 : (float)this.hits / total;
+    }
+
+}
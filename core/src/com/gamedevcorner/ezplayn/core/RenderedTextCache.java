@@ -0,0 +1,209 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static playn.core.PlayN.*;
+
+import java.util.*;
+
+import playn.core.*;
+
+/**
+ * A least recently used cache of rendered text images, as drawn by
+ * {@link Message#createTextMessage(int, int, String, int, int)}.
+ * Images are keyed by their text, size and colours, so showing the same
+ * message again reuses the image without any canvas work. A lookup that
+ * hits the cache does not allocate.
+ * @author Prageeth Silva
+ * @see Message
+ */
+public class RenderedTextCache
+{
+
+    public static final int DEFAULT_MAX_ENTRIES = 32;
+    public static final long DEFAULT_MAX_BYTES = 4L * 1024 * 1024;
+
+    private final LinkedHashMap<Key, CanvasImage> images = new LinkedHashMap<Key, CanvasImage>(16, 0.75f, true);
+
+    private final Key probe = new Key();
+
+    private int maxEntries;
+    private long maxBytes;
+    private long usedBytes = 0;
+
+    private int hits = 0;
+    private int misses = 0;
+
+    public RenderedTextCache(int maxEntries, long maxBytes)
+    {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    public RenderedTextCache()
+    {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Gets the image of the given text, drawing it only if it is not already cached.
+     * @param width The width of the image
+     * @param height The height of the image
+     * @param text The text to display
+     * @param backColor The back color using {@link playn.core.Color}
+     * @param textColor The text color using {@link playn.core.Color}
+     * @return The rendered image, shared with every other caller asking for the same text.
+     */
+    public CanvasImage get(int width, int height, String text, int backColor, int textColor)
+    {
+
+        this.probe.set(width, height, text, backColor, textColor);
+        CanvasImage image = this.images.get(this.probe);
+        if (image != null)
+        {
+            this.hits++;
+            return image;
+        }
+        this.misses++;
+
+        image = graphics().createImage(width, height);
+        Canvas canvas = image.canvas();
+        canvas.setFillColor(backColor);
+        canvas.fillRect(0, 0, width, height);
+        canvas.setFillColor(textColor);
+        canvas.drawText(text, 20, height/2);
+
+        Key key = new Key();
+        key.set(width, height, text, backColor, textColor);
+        this.images.put(key, image);
+        this.usedBytes += ScreenCache.estimateBytes(width, height);
+        this.trim();
+
+        return image;
+
+    }
+
+    public void clear()
+    {
+        this.images.clear();
+        this.usedBytes = 0;
+    }
+
+    public int size()
+    {
+        return this.images.size();
+    }
+
+    public long getUsedBytes()
+    {
+        return this.usedBytes;
+    }
+
+    public int getMaxEntries()
+    {
+        return this.maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries)
+    {
+        this.maxEntries = maxEntries;
+        this.trim();
+    }
+
+    public long getMaxBytes()
+    {
+        return this.maxBytes;
+    }
+
+    public void setMaxBytes(long maxBytes)
+    {
+        this.maxBytes = maxBytes;
+        this.trim();
+    }
+
+    public int getHitCount()
+    {
+        return this.hits;
+    }
+
+    public int getMissCount()
+    {
+        return this.misses;
+    }
+
+    /**
+     * Drops the least recently used images until both bounds are met.
+     * The most recently used image is always kept.
+     */
+    private void trim()
+    {
+        Iterator<Map.Entry<Key, CanvasImage>> it = this.images.entrySet().iterator();
+        while (this.images.size() > 1 && it.hasNext()
+                && (this.images.size() > this.maxEntries || this.usedBytes > this.maxBytes))
+        {
+            Key key = it.next().getKey();
+            this.usedBytes -= ScreenCache.estimateBytes(key.width, key.height);
+            it.remove();
+        }
+    }
+
+    /* Auxiliary Classes */
+
+    private static class Key
+    {
+
+        int width;
+        int height;
+        String text;
+        int backColor;
+        int textColor;
+
+        private int hash;
+
+        void set(int width, int height, String text, int backColor, int textColor)
+        {
+            this.width = width;
+            this.height = height;
+            this.text = text;
+            this.backColor = backColor;
+            this.textColor = textColor;
+            int h = text == null ? 0 : text.hashCode();
+            h = 31*h + width;
+            h = 31*h + height;
+            h = 31*h + backColor;
+            h = 31*h + textColor;
+            this.hash = h;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (!(obj instanceof Key)) { return false; }
+            Key k = (Key)obj;
+            return this.width == k.width && this.height == k.height
+                    && this.backColor == k.backColor && this.textColor == k.textColor
+                    && (this.text == null ? k.text == null : this.text.equals(k.text));
+        }
+
+    }
+
+}
@@ -0,0 +1,293 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import java.util.*;
+
+import playn.core.*;
+
+/**
+ * Keeps recently used, already initialised {@link AbstractGameScreen}s so they
+ * can be shown again without being rebuilt. When the estimated memory of the
+ * cached screens goes over the budget, the least recently used screens are
+ * evicted and told so through {@link AbstractGameScreen#onEvicted()}.
+ * The current screen, the screen it goes back to and a screen waiting for
+ * its assets are never evicted.
+ * The estimate of a screen is taken when it is added and refreshed whenever
+ * it is shown, the total is kept as screens come and go.
+ * The cache also bounds the chain of previous screens of the screen being
+ * shown, so screens that are not cached are not kept alive by it forever.
+ * @author Prageeth Silva
+ * @see AbstractExtendedGame#showCachedScreen(Object, Object)
+ */
+public class ScreenCache
+{
+
+    public static final long DEFAULT_BUDGET = 32L * 1024 * 1024;
+    public static final int DEFAULT_MAX_HISTORY = 8;
+
+    private final AbstractExtendedGame game;
+
+    private final LinkedHashMap<Object, Entry> screens = new LinkedHashMap<Object, Entry>(16, 0.75f, true);
+    private final Map<AbstractGameScreen<?>, Entry> entries = new IdentityHashMap<AbstractGameScreen<?>, Entry>();
+
+    private long budget;
+    private long usedBytes = 0;
+
+    private int maxHistory = DEFAULT_MAX_HISTORY;
+
+    public ScreenCache(AbstractExtendedGame game, long budget)
+    {
+        this.game = game;
+        this.budget = budget;
+    }
+
+    public ScreenCache(AbstractExtendedGame game)
+    {
+        this(game, DEFAULT_BUDGET);
+    }
+
+    /**
+     * Adds a screen to the cache as the most recently used one, replacing
+     * (without evicting) any screen already cached under the key.
+     * @param key The key to look the screen up with later.
+     * @param screen The initialised screen.
+     */
+    public void put(Object key, AbstractGameScreen<?> screen)
+    {
+        if (key == null || screen == null) { return; }
+        this.remove(key);
+        Entry entry = new Entry(key, screen);
+        this.screens.put(key, entry);
+        this.entries.put(screen, entry);
+        this.usedBytes += entry.bytes;
+        this.trim();
+    }
+
+    /**
+     * Gets a cached screen and marks it as the most recently used.
+     * @param key The key the screen was added with.
+     * @return The screen, or <code>null</code> if it is not cached.
+     */
+    public AbstractGameScreen<?> get(Object key)
+    {
+        Entry entry = this.screens.get(key);
+        return entry == null ? null : entry.screen;
+    }
+
+    /**
+     * Marks a cached screen as the most recently used and refreshes its
+     * estimate, then bounds the chain of screens it goes back to.
+     * @param screen The screen that is being shown.
+     */
+    public void touch(AbstractGameScreen<?> screen)
+    {
+        Entry entry = this.entries.get(screen);
+        if (entry != null)
+        {
+            this.screens.get(entry.key);
+            long bytes = screen.estimateBytes();
+            this.usedBytes += bytes - entry.bytes;
+            entry.bytes = bytes;
+        }
+        this.trimHistory(screen);
+        this.trim();
+    }
+
+    public boolean contains(Object key)
+    {
+        return this.screens.containsKey(key);
+    }
+
+    /**
+     * Removes a screen from the cache without evicting it.
+     * @param key The key the screen was added with.
+     * @return The removed screen, or <code>null</code> if it was not cached.
+     */
+    public AbstractGameScreen<?> remove(Object key)
+    {
+        Entry entry = this.screens.remove(key);
+        if (entry == null) { return null; }
+        this.forget(entry);
+        return entry.screen;
+    }
+
+    /**
+     * Evicts every screen except the ones in use by the game.
+     */
+    public void evictAll()
+    {
+        long budget = this.budget;
+        this.budget = -1;
+        this.trim();
+        this.budget = budget;
+    }
+
+    public int size()
+    {
+        return this.screens.size();
+    }
+
+    public long getBudget()
+    {
+        return this.budget;
+    }
+
+    /**
+     * Sets the memory budget and evicts screens if it is exceeded.
+     * @param budget The budget in bytes.
+     */
+    public void setBudget(long budget)
+    {
+        this.budget = budget;
+        this.trim();
+    }
+
+    /**
+     * Gets the estimated memory used by all the cached screens.
+     * @return The total in bytes.
+     */
+    public long getUsedBytes()
+    {
+        return this.usedBytes;
+    }
+
+    public int getMaxHistory()
+    {
+        return this.maxHistory;
+    }
+
+    /**
+     * Sets how many screens back the previous screen links of the shown
+     * screen may reach, the link after the last one is cut.
+     * @param maxHistory The number of links, at least 1 so the current screen can go back.
+     */
+    public void setMaxHistory(int maxHistory)
+    {
+        this.maxHistory = Math.max(1, maxHistory);
+    }
+
+    /**
+     * Evicts the least recently used screens until the cache fits in the budget.
+     */
+    void trim()
+    {
+
+        if (this.usedBytes <= this.budget) { return; }
+
+        List<AbstractGameScreen<?>> evicted = new ArrayList<AbstractGameScreen<?>>();
+        Iterator<Entry> it = this.screens.values().iterator();
+        while (this.usedBytes > this.budget && it.hasNext())
+        {
+            Entry entry = it.next();
+            if (this.game.isScreenInUse(entry.screen)) { continue; }
+            it.remove();
+            this.forget(entry);
+            evicted.add(entry.screen);
+        }
+
+        for (AbstractGameScreen<?> s : evicted)
+        {
+            // do not let the remaining screens keep an evicted one alive
+            for (Entry other : this.screens.values())
+            {
+                if (other.screen.previousScreen == s)
+                {
+                    other.screen.previousScreen = null;
+                }
+            }
+            s.previousScreen = null;
+            s.onEvicted();
+        }
+
+    }
+
+    /**
+     * Cuts the chain of previous screens after {@link #getMaxHistory()} links.
+     * A chain that loops back on itself holds no other screens and is left alone.
+     */
+    private void trimHistory(AbstractGameScreen<?> screen)
+    {
+        AbstractGameScreen<?> s = screen;
+        for (int depth = 1; s.previousScreen != null; depth++)
+        {
+            if (depth > this.maxHistory)
+            {
+                s.previousScreen = null;
+                return;
+            }
+            // stop at the first screen already seen in the chain
+            AbstractGameScreen<?> seen = screen;
+            for (int i = 0; i < depth; i++)
+            {
+                if (seen == s.previousScreen) { return; }
+                seen = seen.previousScreen;
+            }
+            s = s.previousScreen;
+        }
+    }
+
+    private void forget(Entry entry)
+    {
+        this.usedBytes -= entry.bytes;
+        if (this.entries.get(entry.screen) == entry)
+        {
+            this.entries.remove(entry.screen);
+        }
+    }
+
+    /* Static methods */
+
+    /**
+     * Estimates the memory held by an image, assuming 4 bytes per pixel.
+     * @param image The image, may be <code>null</code>.
+     * @return The estimate in bytes, 0 for a <code>null</code> image.
+     */
+    public static long estimateBytes(Image image)
+    {
+        return image == null ? 0 : estimateBytes(image.width(), image.height());
+    }
+
+    /**
+     * Estimates the memory held by a bitmap of the given size, assuming 4 bytes per pixel.
+     * @param width The width in pixels
+     * @param height The height in pixels
+     * @return The estimate in bytes.
+     */
+    public static long estimateBytes(int width, int height)
+    {
+        return 4L * Math.max(0, width) * Math.max(0, height);
+    }
+
+    /* Auxiliary Classes */
+
+    private static class Entry
+    {
+
+        final Object key;
+        final AbstractGameScreen<?> screen;
+        long bytes;
+
+        Entry(Object key, AbstractGameScreen<?> screen)
+        {
+            this.key = key;
+            this.screen = screen;
+            this.bytes = screen.estimateBytes();
+        }
+
+    }
+
+}
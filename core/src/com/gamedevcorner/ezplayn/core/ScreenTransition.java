@@ -0,0 +1,252 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static playn.core.PlayN.*;
+
+import playn.core.*;
+
+/**
+ * An animated switch between two screens. The outgoing screen is drawn once
+ * into a snapshot image, and only that image is animated on top of the
+ * incoming screen, so the outgoing screen's layers are gone straight away and
+ * a transition costs a single image layer per frame.
+ * A transition can be reused for any number of screen switches.
+ * @author Prageeth Silva
+ * @see AbstractExtendedGame#setCurrentScreen(AbstractGameScreen, Object, ScreenTransition)
+ * @see AbstractGameScreen#drawTo(Canvas)
+ */
+public class ScreenTransition
+{
+
+    /** The outgoing screen fades out over the incoming one. */
+    public static final int CROSS_FADE = 0;
+    /** The outgoing screen fades to black, then the incoming one fades in from black. */
+    public static final int FADE = 1;
+    /** The outgoing screen slides out to the left, uncovering the incoming one. */
+    public static final int SLIDE_LEFT = 2;
+    public static final int SLIDE_RIGHT = 3;
+    public static final int SLIDE_UP = 4;
+    public static final int SLIDE_DOWN = 5;
+
+    public static final float DEFAULT_DURATION = 400;
+
+    private final int type;
+    private final float duration;
+
+    private ImageLayer layer = null;
+    private CanvasImage black = null;
+
+    private AbstractGameScreen<?> incoming = null;
+    private int width = 0;
+    private int height = 0;
+
+    private float elapsed = 0;
+    private boolean running = false;
+    private boolean secondHalf = false;
+
+    /**
+     * Creates a transition.
+     * @param type One of the transition type constants of this class
+     * @param duration The length of the transition in milliseconds
+     */
+    public ScreenTransition(int type, float duration)
+    {
+        this.type = type;
+        this.duration = duration > 0 ? duration : DEFAULT_DURATION;
+    }
+
+    public ScreenTransition(int type)
+    {
+        this(type, DEFAULT_DURATION);
+    }
+
+    /**
+     * Starts animating the snapshot of the outgoing screen.
+     * @param snapshot The image of the outgoing screen
+     * @param incoming The screen being switched to, whose layers are already shown
+     * @return The layer to show on top of the incoming screen.
+     */
+    Layer start(Image snapshot, AbstractGameScreen<?> incoming)
+    {
+
+        this.incoming = incoming;
+        this.width = snapshot.width();
+        this.height = snapshot.height();
+        this.elapsed = 0;
+        this.secondHalf = false;
+        this.running = true;
+
+        if (this.layer == null)
+        {
+            this.layer = graphics().createImageLayer(snapshot);
+        }
+        else
+        {
+            this.layer.setImage(snapshot);
+        }
+        this.layer.setSize(this.width, this.height);
+        this.layer.setTranslation(0, 0);
+        this.layer.setAlpha(1.0f);
+        this.layer.setVisible(true);
+
+        if (this.type == FADE)
+        {
+            // black shows through while the incoming screen is hidden
+            this.setIncomingVisible(false);
+        }
+
+        this.apply();
+        return this.layer;
+
+    }
+
+    /**
+     * Moves the transition forward.
+     * @param delta Time in milliseconds since the last update.
+     * @return <code>true</code> once the transition has finished.
+     */
+    boolean update(float delta)
+    {
+        if (!this.running) { return true; }
+        this.elapsed += delta;
+        return this.elapsed >= this.duration;
+    }
+
+    /**
+     * Positions the snapshot for the current progress.
+     */
+    void paint()
+    {
+        if (this.running)
+        {
+            this.apply();
+        }
+    }
+
+    /**
+     * Stops the transition, removing its layer and showing the incoming screen fully.
+     */
+    void finish()
+    {
+        if (!this.running) { return; }
+        this.running = false;
+        if (this.type == FADE)
+        {
+            this.setIncomingVisible(true);
+        }
+        if (this.layer.parent() != null)
+        {
+            this.layer.parent().remove(this.layer);
+        }
+        this.incoming = null;
+    }
+
+    public boolean isRunning()
+    {
+        return this.running;
+    }
+
+    public int getType()
+    {
+        return this.type;
+    }
+
+    public float getDuration()
+    {
+        return this.duration;
+    }
+
+    /**
+     * Gets how far the transition has gone.
+     * @return The progress from 0 to 1.
+     */
+    public float getProgress()
+    {
+        return Math.min(1.0f, this.elapsed / this.duration);
+    }
+
+    private void apply()
+    {
+
+        float t = TweenManager.ease(TweenManager.SMOOTH, this.getProgress());
+
+        switch (this.type)
+        {
+            case CROSS_FADE:
+                this.layer.setAlpha(1.0f - t);
+                break;
+            case FADE:
+                if (t < 0.5f)
+                {
+                    this.layer.setAlpha(1.0f - 2*t);
+                }
+                else
+                {
+                    if (!this.secondHalf)
+                    {
+                        // swap the snapshot for black over the incoming screen
+                        this.secondHalf = true;
+                        this.layer.setImage(this.getBlack());
+                        this.layer.setSize(this.width, this.height);
+                        this.setIncomingVisible(true);
+                    }
+                    this.layer.setAlpha(2 - 2*t);
+                }
+                break;
+            case SLIDE_LEFT:
+                this.layer.setTranslation(-t * this.width, 0);
+                break;
+            case SLIDE_RIGHT:
+                this.layer.setTranslation(t * this.width, 0);
+                break;
+            case SLIDE_UP:
+                this.layer.setTranslation(0, -t * this.height);
+                break;
+            case SLIDE_DOWN:
+                this.layer.setTranslation(0, t * this.height);
+                break;
+            default:
+                break;
+        }
+
+    }
+
+    private void setIncomingVisible(boolean visible)
+    {
+        if (this.incoming == null) { return; }
+        this.incoming.getRootLayer().setVisible(visible);
+        if (this.incoming.getMessageLayer() != null)
+        {
+            this.incoming.getMessageLayer().setVisible(visible);
+        }
+    }
+
+    /**
+     * Gets a single black pixel, stretched over the screen by the layer.
+     */
+    private Image getBlack()
+    {
+        if (this.black == null)
+        {
+            this.black = graphics().createImage(1, 1);
+            this.black.canvas().setFillColor(Color.rgb(0, 0, 0));
+            this.black.canvas().fillRect(0, 0, 1, 1);
+        }
+        return this.black;
+    }
+
+}
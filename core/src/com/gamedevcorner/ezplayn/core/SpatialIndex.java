@@ -0,0 +1,70 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import java.util.*;
+
+/**
+ * An index over the bounds of {@link AbstractControl}s that allows a
+ * {@link ControlHolder} to find the controls under a point without visiting
+ * every control it holds.
+ * @author Prageeth Silva
+ * @see GridSpatialIndex
+ */
+public interface SpatialIndex
+{
+
+    /**
+     * Adds a control to the index using its current bounds.
+     * @param control The control to add.
+     */
+    public void insert(AbstractControl control);
+
+    /**
+     * Removes a control from the index.
+     * @param control The control to remove.
+     */
+    public void remove(AbstractControl control);
+
+    /**
+     * Refreshes the bounds of an already indexed control,
+     * called whenever the control commits its layout.
+     * @param control The control that has moved or changed size.
+     */
+    public void update(AbstractControl control);
+
+    /**
+     * Removes all controls from the index.
+     */
+    public void clear();
+
+    /**
+     * Adapts the index to a new size of its holder, keeping the indexed controls.
+     * @param width The new width of the holder in pixels
+     * @param height The new height of the holder in pixels
+     */
+    public void resize(int width, int height);
+
+    /**
+     * Finds the controls whose bounds contain the given point.
+     * The candidates are appended in the order they were inserted.
+     * @param x The x-coordinate from the left of the parent {@link ControlHolder}
+     * @param y The y-coordinate from the top of the parent {@link ControlHolder}
+     * @param result The list that the candidates will be appended to.
+     */
+    public void query(int x, int y, List<AbstractControl> result);
+
+}
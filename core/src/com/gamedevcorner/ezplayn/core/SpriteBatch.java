@@ -0,0 +1,471 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static playn.core.PlayN.*;
+
+import playn.core.*;
+
+/**
+ * A large number of simple moving sprites drawn through a single surface layer.
+ * Sprites are not objects, each one is an index into parallel primitive arrays
+ * holding its position, velocity, frame and flags, so updating and drawing them
+ * is a loop over the arrays. The batch is added to an {@link AbstractGameScreen}
+ * like any other control, which advances it in update and draws it in paint.
+ * The surface is only drawn again in a frame where a sprite has changed.
+ * Sprites are kept packed, so removing a sprite moves the last sprite to its index.
+ * @author Prageeth Silva
+ * @see AbstractControl
+ */
+public class SpriteBatch extends AbstractControl
+{
+
+    public static final int VISIBLE = 1;
+    public static final int BOUNCE = 2;
+    public static final int WRAP = 4;
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final SurfaceLayer surfaceLayer;
+
+    private float[] x;
+    private float[] y;
+    private float[] prevX;
+    private float[] prevY;
+    private float[] vx;
+    private float[] vy;
+    private int[] frames;
+    private int[] flags;
+    private int count = 0;
+
+    private final FrameTable frameTable;
+
+    private boolean interpolating = false;
+    private boolean dirty = true;
+
+    private int drawnCount = 0;
+
+    public SpriteBatch(int width, int height)
+    {
+        this(width, height, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a batch covering an area of the screen.
+     * @param width The width of the area, sprites outside it are not seen
+     * @param height The height of the area
+     * @param capacity The initial number of sprites there is room for, which grows when needed
+     */
+    public SpriteBatch(int width, int height, int capacity)
+    {
+        this(width, height, capacity, new FrameTable());
+    }
+
+    /**
+     * Creates a batch showing the frames of a table, which may be shared.
+     * @param width The width of the area, sprites outside it are not seen
+     * @param height The height of the area
+     * @param capacity The initial number of sprites there is room for, which grows when needed
+     * @param frameTable The frames the sprites show
+     */
+    public SpriteBatch(int width, int height, int capacity, FrameTable frameTable)
+    {
+        super(width, height, null);
+        this.frameTable = frameTable;
+        this.setAutoCentring(false);
+        this.allocate(Math.max(1, capacity));
+        this.surfaceLayer = graphics().createSurfaceLayer(Math.max(1, width), Math.max(1, height));
+        this.rootLayer.add(this.surfaceLayer);
+    }
+
+    /**
+     * Adds a frame that sprites can show, a part of an image such as a sprite sheet.
+     * @param image The image holding the frame
+     * @param sx The x-coordinate of the frame in the image
+     * @param sy The y-coordinate of the frame in the image
+     * @param width The width of the frame
+     * @param height The height of the frame
+     * @return The index of the frame.
+     */
+    public int addFrame(Image image, float sx, float sy, float width, float height)
+    {
+        return this.frameTable.add(image, sx, sy, width, height);
+    }
+
+    /**
+     * Adds a whole image as a frame.
+     * @param image The image of the frame
+     * @return The index of the frame.
+     */
+    public int addFrame(Image image)
+    {
+        return this.frameTable.add(image);
+    }
+
+    /**
+     * Adds a region of a {@link TextureAtlas} as a frame, so all the frames can
+     * share one texture. The atlas must already be packed.
+     * @param region The region of the frame
+     * @return The index of the frame.
+     */
+    public int addFrame(AtlasRegion region)
+    {
+        return this.frameTable.add(region);
+    }
+
+    public FrameTable getFrameTable()
+    {
+        return this.frameTable;
+    }
+
+    /**
+     * Adds a visible sprite, which starts at rest and is not interpolated
+     * from anywhere else.
+     * @param x The x-coordinate of the top left of the sprite in the batch
+     * @param y The y-coordinate of the top left of the sprite in the batch
+     * @param frame The index of the frame shown by the sprite
+     * @return The index of the new sprite.
+     * @throws IndexOutOfBoundsException If the frame has not been added.
+     */
+    public int add(float x, float y, int frame)
+    {
+        this.checkFrame(frame);
+        if (this.count == this.x.length)
+        {
+            this.allocate(this.count * 2);
+        }
+        int i = this.count++;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.prevX[i] = x;
+        this.prevY[i] = y;
+        this.vx[i] = 0;
+        this.vy[i] = 0;
+        this.frames[i] = frame;
+        this.flags[i] = VISIBLE;
+        this.dirty = true;
+        return i;
+    }
+
+    /**
+     * Removes a sprite, the last sprite is moved to its index.
+     * @param i The index of the sprite
+     */
+    public void remove(int i)
+    {
+        int last = --this.count;
+        this.x[i] = this.x[last];
+        this.y[i] = this.y[last];
+        this.prevX[i] = this.prevX[last];
+        this.prevY[i] = this.prevY[last];
+        this.vx[i] = this.vx[last];
+        this.vy[i] = this.vy[last];
+        this.frames[i] = this.frames[last];
+        this.flags[i] = this.flags[last];
+        this.dirty = true;
+    }
+
+    public void clear()
+    {
+        this.count = 0;
+        this.dirty = true;
+    }
+
+    /**
+     * Moves a sprite straight to a position, it is not interpolated from the old one.
+     * @param i The index of the sprite
+     * @param x The new x-coordinate of the top left of the sprite
+     * @param y The new y-coordinate of the top left of the sprite
+     */
+    public void setPosition(int i, float x, float y)
+    {
+        this.x[i] = x;
+        this.y[i] = y;
+        this.prevX[i] = x;
+        this.prevY[i] = y;
+        this.dirty = true;
+    }
+
+    /**
+     * Sets the velocity of a sprite.
+     * @param i The index of the sprite
+     * @param vx The horizontal velocity in pixels per second
+     * @param vy The vertical velocity in pixels per second
+     */
+    public void setVelocity(int i, float vx, float vy)
+    {
+        this.vx[i] = vx;
+        this.vy[i] = vy;
+    }
+
+    /**
+     * Sets the frame shown by a sprite.
+     * @param i The index of the sprite
+     * @param frame The index of the frame
+     * @throws IndexOutOfBoundsException If the frame has not been added.
+     */
+    public void setFrame(int i, int frame)
+    {
+        this.checkFrame(frame);
+        this.frames[i] = frame;
+        this.dirty = true;
+    }
+
+    /**
+     * Sets the flags of a sprite.
+     * @param i The index of the sprite
+     * @param flags A combination of {@link #VISIBLE}, {@link #BOUNCE} and {@link #WRAP}
+     */
+    public void setFlags(int i, int flags)
+    {
+        this.flags[i] = flags;
+        this.dirty = true;
+    }
+
+    public float getSpriteX(int i)
+    {
+        return this.x[i];
+    }
+
+    public float getSpriteY(int i)
+    {
+        return this.y[i];
+    }
+
+    public float getVelocityX(int i)
+    {
+        return this.vx[i];
+    }
+
+    public float getVelocityY(int i)
+    {
+        return this.vy[i];
+    }
+
+    public int getFrame(int i)
+    {
+        return this.frames[i];
+    }
+
+    public int getFlags(int i)
+    {
+        return this.flags[i];
+    }
+
+    /**
+     * Gets the number of sprites in the batch.
+     * @return The sprite count.
+     */
+    public int size()
+    {
+        return this.count;
+    }
+
+    public int getCapacity()
+    {
+        return this.x.length;
+    }
+
+    /**
+     * Gets the number of sprites drawn in the last paint that drew the surface.
+     * @return The number of sprites that were visible and inside the batch.
+     */
+    public int getDrawnCount()
+    {
+        return this.drawnCount;
+    }
+
+    public boolean isInterpolating()
+    {
+        return this.interpolating;
+    }
+
+    /**
+     * Sets whether sprites are drawn between their last two positions using the
+     * paint alpha, which smooths the motion with {@link AbstractExtendedGame#setFixedStep(float)}.
+     * @param interpolating The new interpolation status, off by default.
+     */
+    public void setInterpolating(boolean interpolating)
+    {
+        this.interpolating = interpolating;
+        this.dirty = true;
+    }
+
+    @Override
+    public void init(ActionCallback<Void> callback, Object obj) { /* NOOP */ }
+
+    /**
+     * Moves the sprites by their velocities, bouncing or wrapping them at the
+     * edges of the batch if flagged to.
+     */
+    @Override
+    public void update(float delta)
+    {
+
+        float seconds = delta / 1000f;
+        float width = this.getWidth();
+        float height = this.getHeight();
+        float[] x = this.x;
+        float[] y = this.y;
+        float[] vx = this.vx;
+        float[] vy = this.vy;
+
+        for (int i = 0; i < this.count; i++)
+        {
+
+            this.prevX[i] = x[i];
+            this.prevY[i] = y[i];
+            if (vx[i] == 0 && vy[i] == 0) { continue; }
+
+            x[i] += vx[i] * seconds;
+            y[i] += vy[i] * seconds;
+            this.dirty = true;
+
+            int f = this.flags[i];
+            if ((f & BOUNCE) != 0)
+            {
+                float w = this.frameTable.getWidth(this.frames[i]);
+                float h = this.frameTable.getHeight(this.frames[i]);
+                if ((x[i] < 0 && vx[i] < 0) || (x[i] + w > width && vx[i] > 0)) { vx[i] = -vx[i]; }
+                if ((y[i] < 0 && vy[i] < 0) || (y[i] + h > height && vy[i] > 0)) { vy[i] = -vy[i]; }
+            }
+            else if ((f & WRAP) != 0)
+            {
+                if (x[i] < 0) { x[i] += width; this.prevX[i] = x[i]; }
+                else if (x[i] >= width) { x[i] -= width; this.prevX[i] = x[i]; }
+                if (y[i] < 0) { y[i] += height; this.prevY[i] = y[i]; }
+                else if (y[i] >= height) { y[i] -= height; this.prevY[i] = y[i]; }
+            }
+
+        }
+
+    }
+
+    /**
+     * Draws the sprites onto the surface, if any has changed since the last paint.
+     */
+    @Override
+    public void paint(float alpha)
+    {
+        if (!this.dirty && !this.interpolating) { return; }
+        Surface surface = this.surfaceLayer.surface();
+        surface.clear();
+        this.drawnCount = this.drawSprites(surface, null, 0, 0, this.interpolating ? alpha : 1);
+        this.dirty = false;
+    }
+
+    @Override
+    public void drawTo(Canvas canvas, float dx, float dy)
+    {
+        if (!this.rootLayer.visible()) { return; }
+        this.drawSprites(null, canvas, dx + this.getX(), dy + this.getY(), 1);
+    }
+
+    /**
+     * Draws the visible sprites that overlap the batch, onto a surface or a canvas.
+     * @return The number of sprites drawn.
+     */
+    private int drawSprites(Surface surface, Canvas canvas, float dx, float dy, float alpha)
+    {
+
+        float width = this.getWidth();
+        float height = this.getHeight();
+        int drawn = 0;
+
+        for (int i = 0; i < this.count; i++)
+        {
+
+            if ((this.flags[i] & VISIBLE) == 0) { continue; }
+
+            int f = this.frames[i];
+            float w = this.frameTable.getWidth(f);
+            float h = this.frameTable.getHeight(f);
+            float sx = this.x[i];
+            float sy = this.y[i];
+            if (alpha < 1)
+            {
+                sx = this.prevX[i] + (sx - this.prevX[i]) * alpha;
+                sy = this.prevY[i] + (sy - this.prevY[i]) * alpha;
+            }
+            if (sx + w <= 0 || sy + h <= 0 || sx >= width || sy >= height) { continue; }
+
+            this.frameTable.draw(f, surface, canvas, dx + sx, dy + sy, w, h);
+            drawn++;
+
+        }
+
+        return drawn;
+
+    }
+
+    @Override
+    public void onPointerDown(int x, int y) { /* NOOP */ }
+
+    @Override
+    public void onPointerUp(int x, int y) { /* NOOP */ }
+
+    @Override
+    public void onPointerMove(int x, int y) { /* NOOP */ }
+
+    @Override
+    public void onPointerLeave(int x, int y) { /* NOOP */ }
+
+    @Override
+    public void onPointerScroll(int velocity) { /* NOOP */ }
+
+    @Override
+    public void onKeyDown(int keyCode) { /* NOOP */ }
+
+    @Override
+    public void onKeyUp(int keyCode) { /* NOOP */ }
+
+    @Override
+    public void reset()
+    {
+        super.reset();
+        this.clear();
+    }
+
+    @Override
+    public long estimateBytes()
+    {
+        return super.estimateBytes() + ScreenCache.estimateBytes(this.getWidth(), this.getHeight());
+    }
+
+    /**
+     * Frames are checked once when given to a sprite, so drawing never has to.
+     */
+    private void checkFrame(int frame)
+    {
+        if (frame < 0 || frame >= this.frameTable.size())
+        {
+            throw new IndexOutOfBoundsException("No frame " + frame + ", the batch has " + this.frameTable.size());
+        }
+    }
+
+    private void allocate(int capacity)
+    {
+        this.x = ArrayGrowth.grow(this.x, capacity, this.count);
+        this.y = ArrayGrowth.grow(this.y, capacity, this.count);
+        this.prevX = ArrayGrowth.grow(this.prevX, capacity, this.count);
+        this.prevY = ArrayGrowth.grow(this.prevY, capacity, this.count);
+        this.vx = ArrayGrowth.grow(this.vx, capacity, this.count);
+        this.vy = ArrayGrowth.grow(this.vy, capacity, this.count);
+        this.frames = ArrayGrowth.grow(this.frames, capacity, this.count);
+        this.flags = ArrayGrowth.grow(this.flags, capacity, this.count);
+    }
+
+}
@@ -0,0 +1,413 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static playn.core.PlayN.*;
+
+import java.util.*;
+
+import playn.core.*;
+
+/**
+ * A group of controls that rarely change, drawn as a single image.
+ * The layers of the child controls are never added to the scene, instead the
+ * group draws them with {@link AbstractControl#drawTo(Canvas, float, float)}
+ * into one image, which is only drawn again after a child is marked dirty.
+ * Children are marked dirty when their layout is committed, or by calling
+ * {@link AbstractControl#markDirty()} after any other change to their look.
+ * Children that transform their own layers, see {@link AbstractControl#isAnimated()},
+ * are left out of the image and shown through their layers instead.
+ * The group can be added to an {@link AbstractGameScreen} or a {@link Message}
+ * like any other control, and passes the input events on to its children.
+ * @author Prageeth Silva
+ * @see AbstractControl
+ * @see ControlHolder
+ */
+public class StaticControlGroup extends AbstractControl implements ControlHolder
+{
+
+    private final ChildControls children = new ChildControls(this) {
+
+        @Override
+        void onAdded(AbstractControl control)
+        {
+            if (control.isAnimated())
+            {
+                StaticControlGroup.this.setLive(control, true);
+            }
+            StaticControlGroup.this.markDirty();
+        }
+
+        @Override
+        void onRemoved(AbstractControl control)
+        {
+            StaticControlGroup.this.setLive(control, false);
+            StaticControlGroup.this.markDirty();
+        }
+
+    };
+    private final List<AbstractControl> activeControls = this.children.getControls();
+
+    private CanvasImage flatImage = null;
+    private ImageLayer flatLayer = graphics().createImageLayer();
+
+    private boolean dirty = true;
+    private int rasterCount = 0;
+
+    public StaticControlGroup(int width, int height, Image backgroundImage)
+    {
+        super(width, height, backgroundImage);
+        this.detachBackground();
+    }
+
+    public StaticControlGroup(int width, int height)
+    {
+        this(width, height, null);
+    }
+
+    /**
+     * The background is drawn into the flat image, so its layer is not shown.
+     * The flat layer goes first, under the layers of any animated children.
+     */
+    private void detachBackground()
+    {
+        if (this.backgroundLayer != null)
+        {
+            this.rootLayer.remove(this.backgroundLayer);
+        }
+        this.rootLayer.add(this.flatLayer);
+    }
+
+    /**
+     * Backgrounds set later are drawn into the flat image as well.
+     */
+    @Override
+    protected void attachBackground(Layer layer)
+    {
+        this.markDirty();
+    }
+
+    @Override
+    public void init(ActionCallback<Void> callback, Object obj) { /* NOOP */ }
+
+    @Override
+    public void update(float delta)
+    {
+        for (int i = 0; i < this.activeControls.size(); i++)
+        {
+            this.activeControls.get(i).update(delta);
+        }
+    }
+
+    @Override
+    public void paint(float alpha)
+    {
+        AbstractControl c;
+        for (int i = 0; i < this.activeControls.size(); i++)
+        {
+            c = this.activeControls.get(i);
+            c.paint(alpha);
+            // children may start or stop animating after they are added
+            if (c.isAnimated() != this.isLive(c))
+            {
+                this.setLive(c, c.isAnimated());
+                this.dirty = true;
+            }
+        }
+        if (this.dirty)
+        {
+            this.rasterize();
+        }
+    }
+
+    /**
+     * Also draws the flat image if needed, for holders that do not paint
+     * their children such as {@link Message}.
+     */
+    @Override
+    public void commitLayout()
+    {
+        super.commitLayout();
+        if (this.dirty)
+        {
+            this.rasterize();
+        }
+    }
+
+    /**
+     * Moving the group does not change its image, but it still has to be
+     * drawn again into a group holding it.
+     */
+    @Override
+    protected void notifyLayoutChanged()
+    {
+        boolean dirty = this.dirty;
+        super.notifyLayoutChanged();
+        this.dirty = dirty || this.flatImage == null
+                || this.flatImage.width() != Math.max(1, this.getWidth())
+                || this.flatImage.height() != Math.max(1, this.getHeight());
+    }
+
+    /**
+     * Draws the background and the child controls into the flat image.
+     */
+    private void rasterize()
+    {
+
+        int width = Math.max(1, this.getWidth());
+        int height = Math.max(1, this.getHeight());
+        if (this.flatImage == null || this.flatImage.width() != width || this.flatImage.height() != height)
+        {
+            this.flatImage = graphics().createImage(width, height);
+            this.flatLayer.setImage(this.flatImage);
+        }
+
+        Canvas canvas = this.flatImage.canvas();
+        canvas.clear();
+        this.drawBackground(canvas, 0, 0);
+        AbstractControl c;
+        for (int i = 0; i < this.activeControls.size(); i++)
+        {
+            c = this.activeControls.get(i);
+            if (!this.isLive(c))
+            {
+                c.drawTo(canvas, 0, 0);
+            }
+        }
+
+        this.dirty = false;
+        this.rasterCount++;
+
+    }
+
+    /**
+     * Marks the flat image to be drawn again on the next paint or layout commit.
+     */
+    @Override
+    public void markDirty()
+    {
+        this.dirty = true;
+        super.markDirty();
+    }
+
+    public boolean isDirty()
+    {
+        return this.dirty;
+    }
+
+    /**
+     * Gets how many times the flat image has been drawn, to check that the
+     * children are not marked dirty every frame.
+     * @return The number of times the group has been drawn.
+     */
+    public int getRasterCount()
+    {
+        return this.rasterCount;
+    }
+
+    /**
+     * Checks if a child is shown through its own layer rather than the flat image.
+     * @param control A child control
+     * @return Whether the layer of the child is shown.
+     */
+    private boolean isLive(AbstractControl control)
+    {
+        return control.getRootLayer().parent() == this.rootLayer;
+    }
+
+    private void setLive(AbstractControl control, boolean live)
+    {
+        if (live)
+        {
+            this.rootLayer.add(control.getRootLayer());
+        }
+        else if (this.isLive(control))
+        {
+            this.rootLayer.remove(control.getRootLayer());
+        }
+    }
+
+    @Override
+    public void onPointerDown(int x, int y)
+    {
+        this.children.beginDispatch();
+        try
+        {
+            this.children.pointerDown(x, y);
+        }
+        finally
+        {
+            this.children.endDispatch();
+        }
+    }
+
+    @Override
+    public void onPointerUp(int x, int y)
+    {
+        this.children.beginDispatch();
+        try
+        {
+            this.children.pointerUp(x, y);
+        }
+        finally
+        {
+            this.children.endDispatch();
+        }
+    }
+
+    @Override
+    public void onPointerMove(int x, int y)
+    {
+        this.children.beginDispatch();
+        try
+        {
+            this.children.pointerMove(x, y);
+        }
+        finally
+        {
+            this.children.endDispatch();
+        }
+    }
+
+    @Override
+    public void onPointerLeave(int x, int y)
+    {
+        // nothing is under the pointer any more, so the hovered children leave
+        this.children.beginDispatch();
+        try
+        {
+            this.children.pointerLeave(x, y);
+        }
+        finally
+        {
+            this.children.endDispatch();
+        }
+    }
+
+    @Override
+    public void onPointerScroll(int velocity)
+    {
+        this.children.beginDispatch();
+        try
+        {
+            for (int i = 0; i < this.activeControls.size(); i++)
+            {
+                this.activeControls.get(i).onPointerScroll(velocity);
+            }
+        }
+        finally
+        {
+            this.children.endDispatch();
+        }
+    }
+
+    @Override
+    public void onKeyDown(int keyCode)
+    {
+        this.children.beginDispatch();
+        try
+        {
+            for (int i = 0; i < this.activeControls.size(); i++)
+            {
+                this.activeControls.get(i).onKeyDown(keyCode);
+            }
+        }
+        finally
+        {
+            this.children.endDispatch();
+        }
+    }
+
+    @Override
+    public void onKeyUp(int keyCode)
+    {
+        this.children.beginDispatch();
+        try
+        {
+            for (int i = 0; i < this.activeControls.size(); i++)
+            {
+                this.activeControls.get(i).onKeyUp(keyCode);
+            }
+        }
+        finally
+        {
+            this.children.endDispatch();
+        }
+    }
+
+    @Override
+    public Collection<AbstractControl> getChildControls()
+    {
+        return this.activeControls;
+    }
+
+    /**
+     * Adds a child control, positioned relative to the group.
+     * While the group is dispatching an event to its children, the control is
+     * added once the dispatch has finished.
+     */
+    @Override
+    public boolean addChildControl(AbstractControl control)
+    {
+        return this.children.add(control);
+    }
+
+    @Override
+    public boolean removeChildControl(AbstractControl control)
+    {
+        return this.children.remove(control);
+    }
+
+    @Override
+    public void reset()
+    {
+        super.reset();
+        this.children.clear();
+        this.dirty = true;
+    }
+
+    @Override
+    public void drawTo(Canvas canvas, float dx, float dy)
+    {
+        if (!this.rootLayer.visible()) { return; }
+        if (this.dirty)
+        {
+            this.rasterize();
+        }
+        canvas.drawImage(this.flatImage, dx + this.getX(), dy + this.getY());
+        AbstractControl c;
+        for (int i = 0; i < this.activeControls.size(); i++)
+        {
+            c = this.activeControls.get(i);
+            if (this.isLive(c))
+            {
+                c.drawTo(canvas, dx + this.getX(), dy + this.getY());
+            }
+        }
+    }
+
+    @Override
+    public long estimateBytes()
+    {
+        long bytes = super.estimateBytes() + ScreenCache.estimateBytes(this.flatImage);
+        for (AbstractControl c : this.activeControls)
+        {
+            bytes += c.estimateBytes();
+        }
+        return bytes;
+    }
+
+}
@@ -0,0 +1,258 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static playn.core.PlayN.*;
+
+import java.util.*;
+
+import playn.core.*;
+
+/**
+ * Packs many small images into a few large page images at load time, so that
+ * controls can share textures by showing sub-regions of a page.
+ * Images are added first, each giving an {@link AtlasRegion}, and then
+ * {@link #pack()} copies them onto the pages. Images must have finished loading
+ * before they can be packed, for example by preloading them with an {@link AssetPreloader}.
+ * The atlas and its regions let go of the images once they are packed.
+ * @author Prageeth Silva
+ * @see AtlasRegion
+ */
+public class TextureAtlas
+{
+
+    public static final int DEFAULT_PAGE_SIZE = 1024;
+    public static final int DEFAULT_PADDING = 1;
+
+    private final int pageSize;
+    private final int padding;
+
+    private final List<AtlasRegion> regions = new ArrayList<AtlasRegion>();
+    private final Map<Image, AtlasRegion> unpacked = new IdentityHashMap<Image, AtlasRegion>();
+    private final List<Image> pages = new ArrayList<Image>();
+
+    /**
+     * Creates an empty atlas.
+     * @param pageSize The maximum width and height of a page in pixels
+     * @param padding The gap in pixels left between regions to avoid bleeding when scaled
+     */
+    public TextureAtlas(int pageSize, int padding)
+    {
+        this.pageSize = pageSize;
+        this.padding = Math.max(0, padding);
+    }
+
+    public TextureAtlas()
+    {
+        this(DEFAULT_PAGE_SIZE, DEFAULT_PADDING);
+    }
+
+    /**
+     * Adds an image to the atlas. Adding the same image again before it is
+     * packed gives the same region.
+     * @param image The image to pack
+     * @return The region that will hold the image once packed.
+     */
+    public AtlasRegion add(Image image)
+    {
+        AtlasRegion region = this.unpacked.get(image);
+        if (region == null)
+        {
+            region = new AtlasRegion(image);
+            this.regions.add(region);
+            this.unpacked.put(image, region);
+        }
+        return region;
+    }
+
+    /**
+     * Packs all the added images that are ready and not yet packed onto new pages.
+     * Images are placed on shelves from tallest to shortest, and each page is
+     * only as large as its content. An image larger than a page gets its own page.
+     * @return The number of regions that were packed.
+     */
+    public int pack()
+    {
+
+        List<AtlasRegion> pending = new ArrayList<AtlasRegion>();
+        for (AtlasRegion r : this.unpacked.values())
+        {
+            if (r.getSource().isReady() && r.getWidth() > 0 && r.getHeight() > 0)
+            {
+                pending.add(r);
+            }
+        }
+        if (pending.isEmpty()) { return 0; }
+
+        Collections.sort(pending, new Comparator<AtlasRegion>() {
+
+            @Override
+            public int compare(AtlasRegion a, AtlasRegion b)
+            {
+                if (a.getHeight() != b.getHeight())
+                {
+                    return b.getHeight() - a.getHeight();
+                }
+                return b.getWidth() - a.getWidth();
+            }
+
+        });
+
+        List<PageLayout> layouts = new ArrayList<PageLayout>();
+        for (AtlasRegion r : pending)
+        {
+            int w = r.getWidth();
+            int h = r.getHeight();
+            if (w > this.pageSize || h > this.pageSize)
+            {
+                PageLayout own = new PageLayout();
+                own.place(r, 0, 0);
+                layouts.add(own);
+                continue;
+            }
+            boolean placed = false;
+            for (PageLayout layout : layouts)
+            {
+                if (layout.tryPlace(r))
+                {
+                    placed = true;
+                    break;
+                }
+            }
+            if (!placed)
+            {
+                PageLayout layout = new PageLayout();
+                layout.tryPlace(r);
+                layouts.add(layout);
+            }
+        }
+
+        for (PageLayout layout : layouts)
+        {
+            CanvasImage page = graphics().createImage(layout.usedWidth, layout.usedHeight);
+            Canvas canvas = page.canvas();
+            for (int i = 0; i < layout.regions.size(); i++)
+            {
+                AtlasRegion r = layout.regions.get(i);
+                int x = layout.xs[i];
+                int y = layout.ys[i];
+                canvas.drawImage(r.getSource(), x, y);
+                this.unpacked.remove(r.getSource());
+                r.pack(page, x, y);
+            }
+            this.pages.add(page);
+        }
+
+        return pending.size();
+
+    }
+
+    public List<AtlasRegion> getRegions()
+    {
+        return Collections.unmodifiableList(this.regions);
+    }
+
+    public List<Image> getPages()
+    {
+        return Collections.unmodifiableList(this.pages);
+    }
+
+    /**
+     * Estimates the memory held by the pages of the atlas.
+     * @return The estimate in bytes.
+     */
+    public long estimateBytes()
+    {
+        long bytes = 0;
+        for (Image page : this.pages)
+        {
+            bytes += ScreenCache.estimateBytes(page);
+        }
+        return bytes;
+    }
+
+    /* Auxiliary Classes */
+
+    /**
+     * The shelf layout of a single page before it is drawn.
+     */
+    private class PageLayout
+    {
+
+        final List<AtlasRegion> regions = new ArrayList<AtlasRegion>();
+        int[] xs = new int[16];
+        int[] ys = new int[16];
+
+        int shelfY = 0;
+        int shelfHeight = 0;
+        int cursorX = 0;
+
+        int usedWidth = 0;
+        int usedHeight = 0;
+
+        boolean tryPlace(AtlasRegion r)
+        {
+
+            int w = r.getWidth();
+            int h = r.getHeight();
+            int size = TextureAtlas.this.pageSize;
+            int pad = TextureAtlas.this.padding;
+
+            // regions arrive tallest first, so a new region always fits the shelf height
+            if (this.cursorX + w <= size && this.shelfY + h <= size)
+            {
+                this.place(r, this.cursorX, this.shelfY);
+                return true;
+            }
+
+            int nextShelf = this.shelfY + this.shelfHeight + pad;
+            if (w <= size && nextShelf + h <= size)
+            {
+                this.shelfY = nextShelf;
+                this.shelfHeight = 0;
+                this.cursorX = 0;
+                this.place(r, 0, this.shelfY);
+                return true;
+            }
+
+            return false;
+
+        }
+
+        void place(AtlasRegion r, int x, int y)
+        {
+            int i = this.regions.size();
+            if (i == this.xs.length)
+            {
+                int[] xs = new int[i * 2];
+                int[] ys = new int[i * 2];
+                System.arraycopy(this.xs, 0, xs, 0, i);
+                System.arraycopy(this.ys, 0, ys, 0, i);
+                this.xs = xs;
+                this.ys = ys;
+            }
+            this.regions.add(r);
+            this.xs[i] = x;
+            this.ys[i] = y;
+            this.cursorX = x + r.getWidth() + TextureAtlas.this.padding;
+            this.shelfHeight = Math.max(this.shelfHeight, r.getHeight());
+            this.usedWidth = Math.max(this.usedWidth, x + r.getWidth());
+            this.usedHeight = Math.max(this.usedHeight, y + r.getHeight());
+        }
+
+    }
+
+}
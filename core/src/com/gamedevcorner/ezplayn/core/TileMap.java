@@ -0,0 +1,494 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static playn.core.PlayN.*;
+
+import java.util.*;
+
+import playn.core.*;
+
+/**
+ * A scrollable map of tiles from a tile set image, shown through a window the
+ * size of the control. The map is split into square chunks of tiles, and each
+ * chunk is drawn into its own cached image the first time it becomes visible.
+ * Painting the window then costs one draw per visible chunk, and only happens
+ * when the map has scrolled or a visible tile has changed.
+ * When the cached chunks go over the memory budget, the least recently shown
+ * chunks are evicted and their images reused for the newly visible ones.
+ * @author Prageeth Silva
+ * @see AbstractControl
+ */
+public class TileMap extends AbstractControl
+{
+
+    public static final int EMPTY = -1;
+
+    public static final int DEFAULT_CHUNK_SIZE = 16;
+    public static final long DEFAULT_BUDGET = 16L * 1024 * 1024;
+
+    private final SurfaceLayer surfaceLayer;
+
+    private final Image tileset;
+    private final int tileWidth;
+    private final int tileHeight;
+
+    private final int columns;
+    private final int rows;
+    private final int[] tiles;
+
+    private final int chunkSize;
+    private final int chunkColumns;
+    private final int chunkRows;
+
+    private final Chunk[] chunks;
+    private Chunk oldest = null;
+    private Chunk newest = null;
+    private int chunkCount = 0;
+    private long budget = DEFAULT_BUDGET;
+
+    private float scrollX = 0;
+    private float scrollY = 0;
+    private boolean redraw = true;
+    private int paintCount = 0;
+
+    private int renderedChunkCount = 0;
+    private int drawnChunkCount = 0;
+
+    public TileMap(int width, int height, Image tileset, int tileWidth, int tileHeight, int columns, int rows)
+    {
+        this(width, height, tileset, tileWidth, tileHeight, columns, rows, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates an empty map.
+     * @param width The width of the window the map is shown through
+     * @param height The height of the window
+     * @param tileset The image holding the tiles, in rows from the top left
+     * @param tileWidth The width of a tile in pixels
+     * @param tileHeight The height of a tile in pixels
+     * @param columns The number of tiles across the map
+     * @param rows The number of tiles down the map
+     * @param chunkSize The number of tiles across and down a chunk
+     */
+    public TileMap(int width, int height, Image tileset, int tileWidth, int tileHeight, int columns, int rows, int chunkSize)
+    {
+        super(width, height, null);
+        this.setAutoCentring(false);
+        this.tileset = tileset;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.columns = columns;
+        this.rows = rows;
+        this.tiles = new int[columns * rows];
+        Arrays.fill(this.tiles, EMPTY);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.chunkColumns = (columns + this.chunkSize - 1) / this.chunkSize;
+        this.chunkRows = (rows + this.chunkSize - 1) / this.chunkSize;
+        this.chunks = new Chunk[this.chunkColumns * this.chunkRows];
+        this.surfaceLayer = graphics().createSurfaceLayer(Math.max(1, width), Math.max(1, height));
+        this.rootLayer.add(this.surfaceLayer);
+    }
+
+    public int getTile(int column, int row)
+    {
+        if (column < 0 || row < 0 || column >= this.columns || row >= this.rows) { return EMPTY; }
+        return this.tiles[row * this.columns + column];
+    }
+
+    /**
+     * Sets a tile, the chunk holding it is drawn again if it is cached.
+     * @param column The column of the tile
+     * @param row The row of the tile
+     * @param tile The index of the tile in the tile set, {@link #EMPTY} for none
+     */
+    public void setTile(int column, int row, int tile)
+    {
+        if (column < 0 || row < 0 || column >= this.columns || row >= this.rows) { return; }
+        this.tiles[row * this.columns + column] = tile;
+        Chunk chunk = this.chunks[this.slotOf(column / this.chunkSize, row / this.chunkSize)];
+        if (chunk != null)
+        {
+            chunk.dirty = true;
+            this.redraw = true;
+        }
+    }
+
+    /**
+     * Replaces all the tiles, row by row from the top left, and drops the cached chunks.
+     * @param tiles The tile indices, at least columns times rows of them
+     */
+    public void setTiles(int[] tiles)
+    {
+        System.arraycopy(tiles, 0, this.tiles, 0, this.tiles.length);
+        this.invalidate();
+    }
+
+    public void fill(int tile)
+    {
+        Arrays.fill(this.tiles, tile);
+        this.invalidate();
+    }
+
+    /**
+     * Marks every cached chunk to be drawn again.
+     */
+    public void invalidate()
+    {
+        for (Chunk chunk = this.oldest; chunk != null; chunk = chunk.next)
+        {
+            chunk.dirty = true;
+        }
+        this.redraw = true;
+    }
+
+    /**
+     * Scrolls the map so the given point of the map is at the top left of the window.
+     * @param x The x-coordinate in the map in pixels
+     * @param y The y-coordinate in the map in pixels
+     */
+    public void setScroll(float x, float y)
+    {
+        if (x == this.scrollX && y == this.scrollY) { return; }
+        this.scrollX = x;
+        this.scrollY = y;
+        this.redraw = true;
+    }
+
+    public float getScrollX()
+    {
+        return this.scrollX;
+    }
+
+    public float getScrollY()
+    {
+        return this.scrollY;
+    }
+
+    /**
+     * Gets the column of the tile under a point of the window.
+     * @param x The x-coordinate from the left of the control
+     * @return The column, which may be outside the map.
+     */
+    public int columnAt(int x)
+    {
+        return (int)Math.floor((x + this.scrollX) / this.tileWidth);
+    }
+
+    /**
+     * Gets the row of the tile under a point of the window.
+     * @param y The y-coordinate from the top of the control
+     * @return The row, which may be outside the map.
+     */
+    public int rowAt(int y)
+    {
+        return (int)Math.floor((y + this.scrollY) / this.tileHeight);
+    }
+
+    public int getColumns()
+    {
+        return this.columns;
+    }
+
+    public int getRows()
+    {
+        return this.rows;
+    }
+
+    public long getBudget()
+    {
+        return this.budget;
+    }
+
+    /**
+     * Sets the memory budget of the cached chunk images. It should hold at least
+     * the chunks covering the window, or chunks are drawn again every paint.
+     * @param budget The budget in bytes
+     */
+    public void setBudget(long budget)
+    {
+        this.budget = budget;
+        this.trim(0);
+    }
+
+    public int getCachedChunkCount()
+    {
+        return this.chunkCount;
+    }
+
+    /**
+     * Gets the number of chunks drawn into their images since the map was created,
+     * which only grows while new parts of the map are shown.
+     * @return The chunk render count.
+     */
+    public int getRenderedChunkCount()
+    {
+        return this.renderedChunkCount;
+    }
+
+    /**
+     * Gets the number of chunks drawn onto the window by the last paint that drew it.
+     * @return The visible chunk count.
+     */
+    public int getDrawnChunkCount()
+    {
+        return this.drawnChunkCount;
+    }
+
+    @Override
+    public void init(ActionCallback<Void> callback, Object obj) { /* NOOP */ }
+
+    @Override
+    public void update(float delta) { /* NOOP */ }
+
+    /**
+     * Draws the visible chunks onto the window if the map has scrolled or changed.
+     */
+    @Override
+    public void paint(float alpha)
+    {
+        if (!this.redraw) { return; }
+        Surface surface = this.surfaceLayer.surface();
+        surface.clear();
+        this.drawnChunkCount = this.drawChunks(surface, null, 0, 0);
+        this.redraw = false;
+    }
+
+    @Override
+    public void drawTo(Canvas canvas, float dx, float dy)
+    {
+        if (!this.rootLayer.visible()) { return; }
+        this.drawChunks(null, canvas, dx + this.getX(), dy + this.getY());
+    }
+
+    /**
+     * Draws the chunks overlapping the window, onto a surface or a canvas.
+     * @return The number of chunks drawn.
+     */
+    private int drawChunks(Surface surface, Canvas canvas, float dx, float dy)
+    {
+
+        int chunkWidth = this.chunkSize * this.tileWidth;
+        int chunkHeight = this.chunkSize * this.tileHeight;
+
+        int cx0 = Math.max(0, (int)Math.floor(this.scrollX / chunkWidth));
+        int cy0 = Math.max(0, (int)Math.floor(this.scrollY / chunkHeight));
+        int cx1 = Math.min(this.chunkColumns - 1, (int)Math.floor((this.scrollX + this.getWidth() - 1) / chunkWidth));
+        int cy1 = Math.min(this.chunkRows - 1, (int)Math.floor((this.scrollY + this.getHeight() - 1) / chunkHeight));
+
+        this.paintCount++;
+        int drawn = 0;
+        for (int cy = cy0; cy <= cy1; cy++)
+        {
+            for (int cx = cx0; cx <= cx1; cx++)
+            {
+                Chunk chunk = this.obtainChunk(cx, cy);
+                chunk.shown = this.paintCount;
+                if (chunk.dirty)
+                {
+                    this.renderChunk(chunk);
+                }
+                float x = cx * chunkWidth - this.scrollX;
+                float y = cy * chunkHeight - this.scrollY;
+                if (surface != null)
+                {
+                    surface.drawImage(chunk.image, x, y);
+                }
+                else
+                {
+                    canvas.drawImage(chunk.image, dx + x, dy + y);
+                }
+                drawn++;
+            }
+        }
+        return drawn;
+
+    }
+
+    /**
+     * Gets the cached chunk, or makes room for it in the cache.
+     */
+    private Chunk obtainChunk(int cx, int cy)
+    {
+
+        int slot = this.slotOf(cx, cy);
+        Chunk chunk = this.chunks[slot];
+        if (chunk != null)
+        {
+            this.unlink(chunk);
+            this.link(chunk);
+            return chunk;
+        }
+
+        // reuse the least recently shown chunk if a new one would not fit
+        chunk = this.trim(this.chunkBytes());
+        if (chunk == null)
+        {
+            chunk = new Chunk(graphics().createImage(this.chunkSize * this.tileWidth, this.chunkSize * this.tileHeight));
+        }
+        chunk.column = cx;
+        chunk.row = cy;
+        chunk.dirty = true;
+        this.chunks[slot] = chunk;
+        this.link(chunk);
+        this.chunkCount++;
+        return chunk;
+
+    }
+
+    /**
+     * Evicts the least recently shown chunks, except the ones shown by the current
+     * paint, until the cache and the extra bytes fit in the budget.
+     * @param extra The bytes about to be added to the cache
+     * @return The last evicted chunk, to be reused, or <code>null</code> if none was evicted.
+     */
+    private Chunk trim(long extra)
+    {
+        long used = this.chunkCount * this.chunkBytes() + extra;
+        Chunk evicted = null;
+        Chunk chunk = this.oldest;
+        while (used > this.budget && chunk != null)
+        {
+            Chunk next = chunk.next;
+            if (chunk.shown != this.paintCount)
+            {
+                this.unlink(chunk);
+                this.chunks[this.slotOf(chunk.column, chunk.row)] = null;
+                this.chunkCount--;
+                used -= this.chunkBytes();
+                evicted = chunk;
+            }
+            chunk = next;
+        }
+        return evicted;
+    }
+
+    /**
+     * Draws the tiles of a chunk into its image.
+     */
+    private void renderChunk(Chunk chunk)
+    {
+
+        Canvas canvas = chunk.image.canvas();
+        canvas.clear();
+
+        int tilesetColumns = Math.max(1, this.tileset.width() / this.tileWidth);
+        int column0 = chunk.column * this.chunkSize;
+        int row0 = chunk.row * this.chunkSize;
+        int column1 = Math.min(this.columns, column0 + this.chunkSize);
+        int row1 = Math.min(this.rows, row0 + this.chunkSize);
+
+        for (int row = row0; row < row1; row++)
+        {
+            for (int column = column0; column < column1; column++)
+            {
+                int tile = this.tiles[row * this.columns + column];
+                if (tile < 0) { continue; }
+                canvas.drawImage(this.tileset,
+                        (column - column0) * this.tileWidth, (row - row0) * this.tileHeight, this.tileWidth, this.tileHeight,
+                        (tile % tilesetColumns) * this.tileWidth, (tile / tilesetColumns) * this.tileHeight, this.tileWidth, this.tileHeight);
+            }
+        }
+
+        chunk.dirty = false;
+        this.renderedChunkCount++;
+
+    }
+
+    private int slotOf(int cx, int cy)
+    {
+        return cy * this.chunkColumns + cx;
+    }
+
+    /**
+     * Appends a chunk to the recently shown end of the cache order.
+     */
+    private void link(Chunk chunk)
+    {
+        chunk.previous = this.newest;
+        chunk.next = null;
+        if (this.newest != null) { this.newest.next = chunk; }
+        else { this.oldest = chunk; }
+        this.newest = chunk;
+    }
+
+    private void unlink(Chunk chunk)
+    {
+        if (chunk.previous != null) { chunk.previous.next = chunk.next; }
+        else { this.oldest = chunk.next; }
+        if (chunk.next != null) { chunk.next.previous = chunk.previous; }
+        else { this.newest = chunk.previous; }
+        chunk.previous = null;
+        chunk.next = null;
+    }
+
+    private long chunkBytes()
+    {
+        return ScreenCache.estimateBytes(this.chunkSize * this.tileWidth, this.chunkSize * this.tileHeight);
+    }
+
+    @Override
+    public void onPointerDown(int x, int y) { /* NOOP */ }
+
+    @Override
+    public void onPointerUp(int x, int y) { /* NOOP */ }
+
+    @Override
+    public void onPointerMove(int x, int y) { /* NOOP */ }
+
+    @Override
+    public void onPointerLeave(int x, int y) { /* NOOP */ }
+
+    @Override
+    public void onPointerScroll(int velocity) { /* NOOP */ }
+
+    @Override
+    public void onKeyDown(int keyCode) { /* NOOP */ }
+
+    @Override
+    public void onKeyUp(int keyCode) { /* NOOP */ }
+
+    @Override
+    public long estimateBytes()
+    {
+        return super.estimateBytes() + ScreenCache.estimateBytes(this.getWidth(), this.getHeight())
+                + this.chunkCount * this.chunkBytes();
+    }
+
+    /* Auxiliary Classes */
+
+    /**
+     * A cached image of a square of tiles, linked in the order it was last shown.
+     */
+    private static class Chunk
+    {
+
+        private final CanvasImage image;
+        private int column;
+        private int row;
+        private boolean dirty = true;
+        private int shown = 0;
+        private Chunk previous = null;
+        private Chunk next = null;
+
+        public Chunk(CanvasImage image)
+        {
+            this.image = image;
+        }
+
+    }
+
+}
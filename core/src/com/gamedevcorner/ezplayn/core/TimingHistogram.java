@@ -0,0 +1,206 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+/**
+ * A histogram of nanosecond timings over a rolling window of the most recent samples.
+ * Buckets are logarithmic with eight linear steps per power of two, so reported
+ * percentiles are within 12.5% of the real value. All storage is allocated up
+ * front and recording a sample does not allocate.
+ * @author Prageeth Silva
+ * @see FrameProfiler
+ */
+public class TimingHistogram
+{
+
+    public static final int DEFAULT_WINDOW = 600;
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_BITS = 40;
+    private static final int BUCKET_COUNT = (MAX_BITS - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final int[] counts = new int[BUCKET_COUNT];
+    private final int[] window;
+
+    private int next = 0;
+    private int size = 0;
+
+    private long total = 0;
+    private long max = 0;
+
+    /**
+     * Creates a histogram over the given number of most recent samples.
+     * @param window The number of samples kept.
+     */
+    public TimingHistogram(int window)
+    {
+        this.window = new int[Math.max(1, window)];
+    }
+
+    public TimingHistogram()
+    {
+        this(DEFAULT_WINDOW);
+    }
+
+    /**
+     * Records a sample, dropping the oldest one if the window is full.
+     * @param nanos The timing in nanoseconds
+     */
+    public void record(long nanos)
+    {
+
+        int bucket = bucketOf(nanos);
+
+        if (this.size == this.window.length)
+        {
+            this.counts[this.window[this.next]]--;
+        }
+        else
+        {
+            this.size++;
+        }
+        this.window[this.next] = bucket;
+        this.next = (this.next + 1) % this.window.length;
+        this.counts[bucket]++;
+
+        this.total++;
+        if (nanos > this.max)
+        {
+            this.max = nanos;
+        }
+
+    }
+
+    /**
+     * Gets the timing below which the given fraction of the windowed samples fall.
+     * @param fraction The percentile as a fraction, for example 0.95 for p95
+     * @return The upper bound of the bucket holding the percentile in nanoseconds, 0 if empty.
+     */
+    public long getPercentile(double fraction)
+    {
+        if (this.size == 0) { return 0; }
+        long rank = (long)Math.ceil(fraction * this.size);
+        if (rank < 1)
+        {
+            rank = 1;
+        }
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            seen += this.counts[i];
+            if (seen >= rank)
+            {
+                return upperBoundOf(i);
+            }
+        }
+        return upperBoundOf(BUCKET_COUNT - 1);
+    }
+
+    public long getP50()
+    {
+        return this.getPercentile(0.50);
+    }
+
+    public long getP95()
+    {
+        return this.getPercentile(0.95);
+    }
+
+    public long getP99()
+    {
+        return this.getPercentile(0.99);
+    }
+
+    /**
+     * Gets the number of samples currently in the window.
+     * @return The windowed sample count.
+     */
+    public int getSampleCount()
+    {
+        return this.size;
+    }
+
+    /**
+     * Gets the number of samples ever recorded.
+     * @return The total sample count since the last reset.
+     */
+    public long getTotalCount()
+    {
+        return this.total;
+    }
+
+    /**
+     * Gets the largest sample ever recorded.
+     * @return The maximum in nanoseconds since the last reset.
+     */
+    public long getMax()
+    {
+        return this.max;
+    }
+
+    public void reset()
+    {
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            this.counts[i] = 0;
+        }
+        this.next = 0;
+        this.size = 0;
+        this.total = 0;
+        this.max = 0;
+    }
+
+    private static int bucketOf(long nanos)
+    {
+        if (nanos < SUB_BUCKETS)
+        {
+            return nanos < 0 ? 0 : (int)nanos;
+        }
+        int msb = highestBit(nanos);
+        if (msb >= MAX_BITS)
+        {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = msb - SUB_BITS;
+        int sub = (int)(nanos >> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static int highestBit(long v)
+    {
+        int bit = 0;
+        if (v >= (1L << 32)) { v >>>= 32; bit += 32; }
+        if (v >= (1L << 16)) { v >>>= 16; bit += 16; }
+        if (v >= (1L << 8)) { v >>>= 8; bit += 8; }
+        if (v >= (1L << 4)) { v >>>= 4; bit += 4; }
+        if (v >= (1L << 2)) { v >>>= 2; bit += 2; }
+        if (v >= (1L << 1)) { bit += 1; }
+        return bit;
+    }
+
+    private static long upperBoundOf(int bucket)
+    {
+        if (bucket < SUB_BUCKETS)
+        {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+
+}
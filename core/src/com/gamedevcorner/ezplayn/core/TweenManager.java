@@ -0,0 +1,429 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import playn.core.*;
+
+/**
+ * Animates the translation, scale, alpha and rotation of layers over time.
+ * Each tween animates one property of one layer, and starting a tween on a
+ * property that is already animated replaces the running one.
+ * The tweens are kept in parallel primitive arrays that only grow when more
+ * tweens run at once than ever before, so advancing them does not allocate.
+ * The game advances its manager once per {@link AbstractExtendedGame#update(float)}.
+ * @author Prageeth Silva
+ * @see AbstractExtendedGame#getTweens()
+ */
+public class TweenManager
+{
+
+    public static final int X = 0;
+    public static final int Y = 1;
+    public static final int SCALE = 2;
+    public static final int SCALE_X = 3;
+    public static final int SCALE_Y = 4;
+    public static final int ALPHA = 5;
+    public static final int ROTATION = 6;
+
+    public static final int LINEAR = 0;
+    public static final int QUAD_IN = 1;
+    public static final int QUAD_OUT = 2;
+    public static final int QUAD_IN_OUT = 3;
+    public static final int CUBIC_OUT = 4;
+    public static final int SMOOTH = 5;
+    public static final int BACK_OUT = 6;
+
+    public static final int DEFAULT_CAPACITY = 32;
+
+    /**
+     * Informs about tweens that have run to the end.
+     */
+    public interface Listener
+    {
+
+        /**
+         * Called after the final value has been set, the tween is no longer running.
+         * New tweens may be started from here.
+         * @param layer The animated layer
+         * @param property The animated property
+         */
+        public void onTweenFinished(Layer layer, int property);
+
+    }
+
+    private Layer[] layers;
+    private Listener[] listeners;
+    private int[] properties;
+    private int[] easings;
+    private float[] from;
+    private float[] to;
+    private float[] delays;
+    private float[] durations;
+    private float[] elapsed;
+
+    private int count = 0;
+
+    public TweenManager()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a manager with room for the given number of running tweens.
+     * @param capacity The initial capacity, which grows when needed.
+     */
+    public TweenManager(int capacity)
+    {
+        this.allocate(Math.max(1, capacity));
+    }
+
+    /**
+     * Animates a property from its current value when the tween starts.
+     * @param drawable The object whose root layer is animated
+     * @param property One of the property constants of this class
+     * @param to The final value
+     * @param duration The duration in milliseconds
+     * @param easing One of the easing constants of this class
+     */
+    public void to(Drawable drawable, int property, float to, float duration, int easing)
+    {
+        this.start(drawable.getRootLayer(), property, Float.NaN, to, 0, duration, easing, null);
+    }
+
+    /**
+     * Animates a property from its current value when the tween starts.
+     * @param layer The layer to animate
+     * @param property One of the property constants of this class
+     * @param to The final value
+     * @param duration The duration in milliseconds
+     * @param easing One of the easing constants of this class
+     */
+    public void to(Layer layer, int property, float to, float duration, int easing)
+    {
+        this.start(layer, property, Float.NaN, to, 0, duration, easing, null);
+    }
+
+    /**
+     * Animates a property between two values.
+     * @param layer The layer to animate
+     * @param property One of the property constants of this class
+     * @param from The start value
+     * @param to The final value
+     * @param duration The duration in milliseconds
+     * @param easing One of the easing constants of this class
+     */
+    public void fromTo(Layer layer, int property, float from, float to, float duration, int easing)
+    {
+        this.start(layer, property, from, to, 0, duration, easing, null);
+    }
+
+    /**
+     * Animates a property, with all the options.
+     * @param layer The layer to animate
+     * @param property One of the property constants of this class
+     * @param from The start value, {@link Float#NaN} to start from the value at the end of the delay
+     * @param to The final value
+     * @param delay The time in milliseconds before the value starts to change
+     * @param duration The duration in milliseconds
+     * @param easing One of the easing constants of this class
+     * @param listener Informed when the tween finishes, may be <code>null</code>
+     */
+    public void start(Layer layer, int property, float from, float to, float delay, float duration, int easing, Listener listener)
+    {
+
+        if (layer == null) { return; }
+
+        int i = this.indexOf(layer, property);
+        if (i < 0)
+        {
+            if (this.count == this.layers.length)
+            {
+                this.allocate(this.layers.length * 2);
+            }
+            i = this.count++;
+        }
+
+        this.layers[i] = layer;
+        this.listeners[i] = listener;
+        this.properties[i] = property;
+        this.easings[i] = easing;
+        this.from[i] = from;
+        this.to[i] = to;
+        this.delays[i] = delay;
+        this.durations[i] = duration;
+        this.elapsed[i] = 0;
+
+    }
+
+    /**
+     * Advances all the running tweens, called once per frame by the game.
+     * @param delta The time in milliseconds since the last update
+     */
+    public void update(float delta)
+    {
+
+        int i = 0;
+        while (i < this.count)
+        {
+
+            this.elapsed[i] += delta;
+            float time = this.elapsed[i] - this.delays[i];
+            if (time < 0)
+            {
+                i++;
+                continue;
+            }
+
+            if (this.from[i] != this.from[i])
+            {
+                // NaN, the tween starts from the current value
+                this.from[i] = get(this.layers[i], this.properties[i]);
+            }
+
+            float t = this.durations[i] > 0 ? time / this.durations[i] : 1;
+            if (t < 1)
+            {
+                set(this.layers[i], this.properties[i], this.from[i] + (this.to[i] - this.from[i]) * ease(this.easings[i], t));
+                i++;
+                continue;
+            }
+
+            Layer layer = this.layers[i];
+            int property = this.properties[i];
+            Listener listener = this.listeners[i];
+            set(layer, property, this.to[i]);
+            this.remove(i);
+            if (listener != null)
+            {
+                listener.onTweenFinished(layer, property);
+            }
+
+        }
+
+    }
+
+    /**
+     * Stops all the tweens of a layer, leaving its properties as they are.
+     * @param layer The animated layer
+     */
+    public void cancel(Layer layer)
+    {
+        for (int i = this.count - 1; i >= 0; i--)
+        {
+            if (this.layers[i] == layer)
+            {
+                this.remove(i);
+            }
+        }
+    }
+
+    /**
+     * Stops the tween of a single property, leaving it as it is.
+     * @param layer The animated layer
+     * @param property One of the property constants of this class
+     */
+    public void cancel(Layer layer, int property)
+    {
+        int i = this.indexOf(layer, property);
+        if (i >= 0)
+        {
+            this.remove(i);
+        }
+    }
+
+    /**
+     * Sets every running tween to its final value and stops it, without informing the listeners.
+     */
+    public void finishAll()
+    {
+        for (int i = 0; i < this.count; i++)
+        {
+            set(this.layers[i], this.properties[i], this.to[i]);
+        }
+        this.clear();
+    }
+
+    /**
+     * Stops every running tween, leaving the properties as they are.
+     */
+    public void clear()
+    {
+        for (int i = 0; i < this.count; i++)
+        {
+            this.layers[i] = null;
+            this.listeners[i] = null;
+        }
+        this.count = 0;
+    }
+
+    public boolean isTweening(Layer layer)
+    {
+        for (int i = 0; i < this.count; i++)
+        {
+            if (this.layers[i] == layer) { return true; }
+        }
+        return false;
+    }
+
+    public boolean isTweening(Layer layer, int property)
+    {
+        return this.indexOf(layer, property) >= 0;
+    }
+
+    /**
+     * Gets the number of tweens that are running, including delayed ones.
+     * @return The running tween count.
+     */
+    public int size()
+    {
+        return this.count;
+    }
+
+    public int getCapacity()
+    {
+        return this.layers.length;
+    }
+
+    private int indexOf(Layer layer, int property)
+    {
+        for (int i = 0; i < this.count; i++)
+        {
+            if (this.layers[i] == layer && this.properties[i] == property) { return i; }
+        }
+        return -1;
+    }
+
+    /**
+     * Removes a tween by moving the last one into its place.
+     */
+    private void remove(int i)
+    {
+        int last = --this.count;
+        this.layers[i] = this.layers[last];
+        this.listeners[i] = this.listeners[last];
+        this.properties[i] = this.properties[last];
+        this.easings[i] = this.easings[last];
+        this.from[i] = this.from[last];
+        this.to[i] = this.to[last];
+        this.delays[i] = this.delays[last];
+        this.durations[i] = this.durations[last];
+        this.elapsed[i] = this.elapsed[last];
+        this.layers[last] = null;
+        this.listeners[last] = null;
+    }
+
+    private void allocate(int capacity)
+    {
+        Layer[] layers = new Layer[capacity];
+        Listener[] listeners = new Listener[capacity];
+        int[] properties = new int[capacity];
+        int[] easings = new int[capacity];
+        float[] from = new float[capacity];
+        float[] to = new float[capacity];
+        float[] delays = new float[capacity];
+        float[] durations = new float[capacity];
+        float[] elapsed = new float[capacity];
+        if (this.layers != null)
+        {
+            System.arraycopy(this.layers, 0, layers, 0, this.count);
+            System.arraycopy(this.listeners, 0, listeners, 0, this.count);
+            System.arraycopy(this.properties, 0, properties, 0, this.count);
+            System.arraycopy(this.easings, 0, easings, 0, this.count);
+            System.arraycopy(this.from, 0, from, 0, this.count);
+            System.arraycopy(this.to, 0, to, 0, this.count);
+            System.arraycopy(this.delays, 0, delays, 0, this.count);
+            System.arraycopy(this.durations, 0, durations, 0, this.count);
+            System.arraycopy(this.elapsed, 0, elapsed, 0, this.count);
+        }
+        this.layers = layers;
+        this.listeners = listeners;
+        this.properties = properties;
+        this.easings = easings;
+        this.from = from;
+        this.to = to;
+        this.delays = delays;
+        this.durations = durations;
+        this.elapsed = elapsed;
+    }
+
+    /* Static methods */
+
+    /**
+     * Applies an easing function.
+     * @param easing One of the easing constants of this class
+     * @param t The linear progress between 0 and 1
+     * @return The eased progress, which may overshoot for {@link #BACK_OUT}.
+     */
+    public static float ease(int easing, float t)
+    {
+        switch (easing)
+        {
+            case QUAD_IN:
+                return t * t;
+            case QUAD_OUT:
+                return t * (2 - t);
+            case QUAD_IN_OUT:
+                return t < 0.5f ? 2*t*t : -1 + (4 - 2*t)*t;
+            case CUBIC_OUT:
+                t -= 1;
+                return t*t*t + 1;
+            case SMOOTH:
+                return t * t * (3 - 2*t);
+            case BACK_OUT:
+                t -= 1;
+                return t*t*(2.70158f*t + 1.70158f) + 1;
+            default:
+                return t;
+        }
+    }
+
+    /**
+     * Gets the current value of a property of a layer.
+     */
+    private static float get(Layer layer, int property)
+    {
+        switch (property)
+        {
+            case X: return layer.transform().tx();
+            case Y: return layer.transform().ty();
+            case SCALE:
+            case SCALE_X: return layer.transform().scaleX();
+            case SCALE_Y: return layer.transform().scaleY();
+            case ALPHA: return layer.alpha();
+            case ROTATION: return layer.transform().rotation();
+            default: return 0;
+        }
+    }
+
+    /**
+     * Sets a property of a layer, without the checks of the layer setters.
+     */
+    private static void set(Layer layer, int property, float value)
+    {
+        switch (property)
+        {
+            case X: layer.transform().setTx(value); break;
+            case Y: layer.transform().setTy(value); break;
+            case SCALE: layer.transform().setUniformScale(value); break;
+            case SCALE_X: layer.transform().setScaleX(value); break;
+            case SCALE_Y: layer.transform().setScaleY(value); break;
+            case ALPHA: layer.setAlpha(value); break;
+            case ROTATION: layer.transform().setRotation(value); break;
+            default: break;
+        }
+    }
+
+}
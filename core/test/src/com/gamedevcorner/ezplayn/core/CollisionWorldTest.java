@@ -0,0 +1,151 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+/**
+ * @author Prageeth Silva
+ */
+public class CollisionWorldTest
+{
+
+    @Test
+    public void contactsMatchTestingEveryPair()
+    {
+        for (int seed = 1; seed <= 20; seed++)
+        {
+            Random random = new Random(seed);
+            List<CollisionBody> bodies = createBodies(random, 200);
+            CollisionWorld world = new CollisionWorld(8);
+            for (CollisionBody body : bodies)
+            {
+                world.add(body);
+            }
+
+            // the bodies move between updates, so the kept order has to be restored
+            for (int step = 0; step < 10; step++)
+            {
+                world.update();
+                assertEquals("seed " + seed + " step " + step, bruteForce(bodies), contacts(world, bodies));
+                for (CollisionBody body : bodies)
+                {
+                    body.translate(random.nextFloat() * 40 - 20, random.nextFloat() * 40 - 20);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void removedBodiesLeaveTheSearch()
+    {
+        Random random = new Random(7);
+        List<CollisionBody> bodies = createBodies(random, 100);
+        CollisionWorld world = new CollisionWorld();
+        for (CollisionBody body : bodies)
+        {
+            world.add(body);
+        }
+        world.update();
+        for (int i = bodies.size() - 1; i >= 0; i -= 3)
+        {
+            assertTrue(world.remove(bodies.remove(i)));
+        }
+        world.update();
+        assertEquals(bodies.size(), world.size());
+        assertEquals(bruteForce(bodies), contacts(world, bodies));
+    }
+
+    @Test
+    public void sweepPrunesDistantPairs()
+    {
+        CollisionWorld world = new CollisionWorld();
+        CollisionBody first = CollisionBody.createRectangle(0, 0, 10, 10);
+        world.add(first);
+        for (int i = 1; i < 100; i++)
+        {
+            world.add(CollisionBody.createRectangle(i * 20, 0, 10, 10));
+        }
+        CollisionBody circle = CollisionBody.createCircle(5, 5, 8);
+        world.add(circle);
+
+        // only the pair overlapping along x is tested exactly
+        assertEquals(1, world.update());
+        assertTrue(world.isTouching(first, circle));
+        assertEquals(1, world.getCandidateCount());
+    }
+
+    /* Static methods */
+
+    private static List<CollisionBody> createBodies(Random random, int count)
+    {
+        List<CollisionBody> bodies = new ArrayList<CollisionBody>();
+        for (int i = 0; i < count; i++)
+        {
+            float x = random.nextFloat() * 800;
+            float y = random.nextFloat() * 600;
+            CollisionBody body = random.nextBoolean()
+                    ? CollisionBody.createRectangle(x, y, 5 + random.nextFloat() * 40, 5 + random.nextFloat() * 40)
+                    : CollisionBody.createCircle(x, y, 3 + random.nextFloat() * 20);
+            body.setFixed(random.nextInt(5) == 0);
+            body.setEnabled(random.nextInt(10) != 0);
+            body.setCategory(1 << random.nextInt(3));
+            body.setMask(random.nextInt(4) == 0 ? 1 : CollisionBody.ALL);
+            bodies.add(body);
+        }
+        return bodies;
+    }
+
+    /**
+     * Finds the contacts by testing every pair of bodies, as the indices of the pair.
+     */
+    private static Set<String> bruteForce(List<CollisionBody> bodies)
+    {
+        Set<String> pairs = new TreeSet<String>();
+        for (int i = 0; i < bodies.size(); i++)
+        {
+            CollisionBody a = bodies.get(i);
+            for (int j = i + 1; j < bodies.size(); j++)
+            {
+                CollisionBody b = bodies.get(j);
+                if (!a.isEnabled() || !b.isEnabled() || (a.isFixed() && b.isFixed()) || !a.accepts(b)) { continue; }
+                if (a.intersects(b))
+                {
+                    pairs.add(i + "-" + j);
+                }
+            }
+        }
+        return pairs;
+    }
+
+    private static Set<String> contacts(CollisionWorld world, List<CollisionBody> bodies)
+    {
+        Set<String> pairs = new TreeSet<String>();
+        for (int i = 0; i < world.getContactCount(); i++)
+        {
+            int a = bodies.indexOf(world.getContactA(i));
+            int b = bodies.indexOf(world.getContactB(i));
+            pairs.add(Math.min(a, b) + "-" + Math.max(a, b));
+        }
+        assertEquals("duplicate contacts", world.getContactCount(), pairs.size());
+        return pairs;
+    }
+
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+/**
+ * @author Prageeth Silva
+ */
+public class ControlPoolTest
+{
+
+    private ControlPool<TestControl> pool;
+
+    @Before
+    public void setUp()
+    {
+        TestGame.start();
+        this.pool = new ControlPool<TestControl>() {
+
+            @Override
+            protected TestControl newObject()
+            {
+                return new TestControl(0, 0, 10, 10);
+            }
+
+        };
+    }
+
+    @Test
+    public void freeingTwiceKeepsOneCopy()
+    {
+        TestControl control = this.pool.obtain();
+        assertTrue(control.isPooled());
+        this.pool.free(control);
+        assertFalse(control.isPooled());
+
+        // neither the pool nor the control hands it back again
+        this.pool.free(control);
+        control.free();
+        assertEquals(1, this.pool.getFreeCount());
+        assertNotSame(this.pool.obtain(), this.pool.obtain());
+    }
+
+    @Test
+    public void controlsFromElsewhereAreIgnored()
+    {
+        this.pool.free(new TestControl(0, 0, 10, 10));
+        assertEquals(0, this.pool.getFreeCount());
+
+        TestControl control = this.pool.obtain();
+        control.free();
+        control.free();
+        assertEquals(1, this.pool.getFreeCount());
+    }
+
+    @Test
+    public void plainPoolsIgnoreFreeObjects()
+    {
+        Pool<Object> objects = new Pool<Object>() {
+
+            @Override
+            protected Object newObject()
+            {
+                return new Object();
+            }
+
+        };
+        Object obj = objects.obtain();
+        objects.free(obj);
+        objects.free(obj);
+        assertEquals(1, objects.getFreeCount());
+        assertSame(obj, objects.obtain());
+        assertNotSame(obj, objects.obtain());
+    }
+
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+/**
+ * @author Prageeth Silva
+ */
+public class DispatchTest
+{
+
+    private TestGame game;
+    private TestScreen screen;
+
+    @Before
+    public void setUp()
+    {
+        this.game = TestGame.start();
+        this.screen = this.game.getScreen();
+    }
+
+    @Test
+    public void screenDefersChangesUntilTheDispatchEnds()
+    {
+        final TestControl added = new TestControl(0, 0, 50, 50);
+        final TestControl other = new TestControl(0, 0, 50, 50);
+        final TestControl dropped = new TestControl(0, 0, 50, 50);
+        final List<Object> seen = new ArrayList<Object>();
+        TestControl remover = new TestControl(0, 0, 50, 50) {
+
+            @Override
+            public void onPointerDown(int x, int y)
+            {
+                super.onPointerDown(x, y);
+                AbstractGameScreen<?> s = DispatchTest.this.screen;
+                seen.add(s.addChildControl(added));
+                seen.add(s.removeChildControl(this));
+                seen.add(s.addChildControl(dropped));
+                seen.add(s.removeChildControl(dropped));
+                seen.add(s.removeChildControl(new TestControl(0, 0, 1, 1)));
+                seen.add(s.getChildControls().size());
+            }
+
+        };
+        this.screen.addChildControl(remover);
+        this.screen.addChildControl(other);
+
+        this.game.getPlatform().pointer().click(10, 10);
+        this.game.frame();
+        assertEquals(Arrays.<Object>asList(true, true, true, true, false, 2), seen);
+        // the control still received the rest of the dispatch
+        assertTrue(other.takeEvents().startsWith("down 10,10"));
+
+        // applied in order
+        assertEquals(Arrays.asList(other, added), new ArrayList<AbstractControl>(this.screen.getChildControls()));
+        assertNull(remover.getParent());
+        assertSame(this.screen, added.getParent());
+        assertNull(added.pendingParent);
+        assertNull(dropped.getParent());
+        assertNull(dropped.pendingParent);
+    }
+
+    @Test
+    public void messageDefersChangesUntilTheDispatchEnds()
+    {
+        final Message message = new Message(100, 100);
+        final TestControl added = new TestControl(0, 0, 10, 10);
+        final TestControl dropped = new TestControl(0, 0, 10, 10);
+        TestControl remover = new TestControl(0, 0, 50, 50) {
+
+            @Override
+            public void onPointerDown(int x, int y)
+            {
+                super.onPointerDown(x, y);
+                assertTrue(message.removeChildControl(this));
+                assertTrue(message.addChildControl(added));
+                assertTrue(message.addChildControl(dropped));
+                assertTrue(message.removeChildControl(dropped));
+                assertFalse(message.removeChildControl(new TestControl(0, 0, 1, 1)));
+                assertEquals(1, message.getChildControls().size());
+            }
+
+        };
+        message.addChildControl(remover);
+
+        message.onPointerDown(10, 10);
+        assertEquals(Arrays.<AbstractControl>asList(added), new ArrayList<AbstractControl>(message.getChildControls()));
+        assertNull(remover.getParent());
+        assertSame(message, added.getParent());
+        assertNull(dropped.getParent());
+    }
+
+    @Test
+    public void manyDeferredChangesAreKept()
+    {
+        final List<TestControl> controls = new ArrayList<TestControl>();
+        TestControl adder = new TestControl(0, 0, 50, 50) {
+
+            @Override
+            public void onPointerDown(int x, int y)
+            {
+                for (int i = 0; i < 40; i++)
+                {
+                    TestControl c = new TestControl(0, 0, 5, 5);
+                    controls.add(c);
+                    DispatchTest.this.screen.addChildControl(c);
+                }
+            }
+
+        };
+        this.screen.addChildControl(adder);
+
+        this.game.getPlatform().pointer().click(10, 10);
+        this.game.frame();
+        assertEquals(41, this.screen.getChildControls().size());
+        for (TestControl c : controls)
+        {
+            assertSame(this.screen, c.getParent());
+        }
+    }
+
+}
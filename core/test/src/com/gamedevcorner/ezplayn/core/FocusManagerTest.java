@@ -0,0 +1,99 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+/**
+ * @author Prageeth Silva
+ */
+public class FocusManagerTest
+{
+
+    private TestScreen screen;
+    private FocusManager focus;
+    private Message message;
+    private TestControl control;
+
+    @Before
+    public void setUp()
+    {
+        this.screen = TestGame.start().getScreen();
+        this.focus = this.screen.getFocusManager();
+        this.message = new Message(200, 200);
+        this.control = new TestControl(10, 10, 50, 50);
+        this.control.setFocusable(true);
+        this.message.addChildControl(this.control);
+        this.screen.showMessages(this.message);
+        assertTrue(this.focus.setFocusedControl(this.control));
+    }
+
+    @Test
+    public void removingFromAMessageClearsTheFocus()
+    {
+        this.message.removeChildControl(this.control);
+        assertNull(this.focus.getFocusedControl());
+    }
+
+    @Test
+    public void resettingAMessageClearsTheFocus()
+    {
+        this.message.reset();
+        assertNull(this.focus.getFocusedControl());
+        assertNull(this.control.getParent());
+    }
+
+    @Test
+    public void clearingMessagesClearsTheFocus()
+    {
+        this.screen.clearMessages();
+        assertNull(this.focus.getFocusedControl());
+        assertNull(this.message.getParent());
+    }
+
+    @Test
+    public void everyHolderClearsTheFocusOfRemovedChildren()
+    {
+        this.screen.clearMessages();
+        StaticControlGroup group = new StaticControlGroup(100, 100);
+        TestControl child = new TestControl(0, 0, 20, 20);
+        child.setFocusable(true);
+        group.addChildControl(child);
+        this.screen.addChildControl(group);
+
+        assertTrue(this.focus.setFocusedControl(child));
+        group.removeChildControl(child);
+        assertNull(this.focus.getFocusedControl());
+
+        // removing the group from the screen clears the focus of its children
+        group.addChildControl(child);
+        assertTrue(this.focus.setFocusedControl(child));
+        this.screen.removeChildControl(group);
+        assertNull(this.focus.getFocusedControl());
+    }
+
+    @Test
+    public void otherControlsKeepTheFocus()
+    {
+        TestControl other = new TestControl(100, 10, 50, 50);
+        this.message.addChildControl(other);
+        this.message.removeChildControl(other);
+        assertSame(this.control, this.focus.getFocusedControl());
+    }
+
+}
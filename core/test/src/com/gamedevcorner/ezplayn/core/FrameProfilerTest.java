@@ -0,0 +1,86 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+import com.gamedevcorner.ezplayn.headless.HeadlessPlatform;
+
+/**
+ * @author Prageeth Silva
+ */
+public class FrameProfilerTest
+{
+
+    private TestGame game;
+    private FrameProfiler profiler;
+
+    @Before
+    public void setUp()
+    {
+        this.game = TestGame.start();
+        this.profiler = this.game.getProfiler();
+        this.profiler.setClock(HeadlessPlatform.SYSTEM_CLOCK);
+        this.profiler.setEnabled(true);
+    }
+
+    @Test
+    public void inputIsChargedToTheScreenItStartedOn()
+    {
+        final TestScreen first = this.game.getScreen();
+        final TestScreen second = new TestScreen(this.game);
+        first.addChildControl(new TestControl(0, 0, 100, 100) {
+
+            @Override
+            public void onPointerDown(int x, int y)
+            {
+                FrameProfilerTest.this.game.setCurrentScreen(second, null);
+            }
+
+        });
+
+        this.game.getPlatform().pointer().click(10, 10);
+        this.game.frame();
+        assertSame(second, this.game.getCurrentScreen());
+        assertEquals(1, this.profiler.getScreenHistogram(first, FrameProfiler.INPUT).getTotalCount());
+        assertEquals(0, this.profiler.getScreenHistogram(second, FrameProfiler.INPUT).getTotalCount());
+        assertEquals(1, this.profiler.getScreenHistogram(second, FrameProfiler.UPDATE).getTotalCount());
+        assertEquals(1, this.profiler.getScreenHistogram(second, FrameProfiler.PAINT).getTotalCount());
+    }
+
+    @Test
+    public void resetForgetsTheScreenAndControlTimings()
+    {
+        TestScreen screen = this.game.getScreen();
+        TestControl control = new TestControl(0, 0, 10, 10);
+        screen.addChildControl(control);
+        this.profiler.setProfilingControls(true);
+        this.game.frame();
+        assertNotNull(this.profiler.getScreenHistogram(screen, FrameProfiler.UPDATE));
+        assertNotNull(this.profiler.getControlHistogram(control, FrameProfiler.UPDATE));
+
+        this.profiler.reset();
+        assertNull(this.profiler.getScreenHistogram(screen, FrameProfiler.UPDATE));
+        assertNull(this.profiler.getControlHistogram(control, FrameProfiler.UPDATE));
+        assertEquals(0, this.profiler.getHistogram(FrameProfiler.UPDATE).getTotalCount());
+
+        this.game.frame();
+        assertEquals(1, this.profiler.getScreenHistogram(screen, FrameProfiler.UPDATE).getTotalCount());
+    }
+
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+import playn.core.*;
+
+import com.gamedevcorner.ezplayn.headless.HeadlessImage;
+
+/**
+ * @author Prageeth Silva
+ */
+public class FrameTableTest
+{
+
+    @Before
+    public void setUp()
+    {
+        TestGame.start();
+    }
+
+    @Test
+    public void framesKeepTheirValuesAsTheTableGrows()
+    {
+        FrameTable table = new FrameTable();
+        Image sheet = new HeadlessImage(320, 16);
+        for (int i = 0; i < 20; i++)
+        {
+            assertEquals(i, table.add(sheet, i * 16, 0, 16, 16));
+        }
+        assertEquals(20, table.size());
+        for (int i = 0; i < 20; i++)
+        {
+            assertSame(sheet, table.getImage(i));
+            assertEquals(i * 16, table.getX(i), 0);
+            assertEquals(16, table.getWidth(i), 0);
+        }
+    }
+
+    @Test
+    public void batchesAndParticlesShareATable()
+    {
+        FrameTable table = new FrameTable();
+        SpriteBatch batch = new SpriteBatch(100, 100, 4, table);
+        ParticleSystem particles = new ParticleSystem(100, 100, 4, table);
+        assertEquals(0, batch.addFrame(new HeadlessImage(8, 8)));
+        particles.addFrame(new HeadlessImage(4, 4));
+        assertSame(table, particles.getFrameTable());
+        assertEquals(2, table.size());
+        batch.add(0, 0, 1);
+        assertEquals(1, batch.getFrame(0));
+    }
+
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+/**
+ * @author Prageeth Silva
+ */
+public class GridSpatialIndexTest
+{
+
+    private TestGame game;
+
+    @Before
+    public void setUp()
+    {
+        this.game = TestGame.start();
+    }
+
+    @Test
+    public void queryKeepsInsertionOrder()
+    {
+        GridSpatialIndex index = new GridSpatialIndex(200, 200, 50);
+        TestControl a = new TestControl(0, 0, 100, 100);
+        TestControl b = new TestControl(20, 20, 20, 20);
+        index.insert(b);
+        index.insert(a);
+        assertEquals(Arrays.asList(b, a), this.query(index, 30, 30));
+        assertEquals(Arrays.asList(a), this.query(index, 90, 90));
+        assertEquals(Collections.emptyList(), this.query(index, 150, 150));
+    }
+
+    @Test
+    public void resizeKeepsTheIndexedControls()
+    {
+        GridSpatialIndex index = new GridSpatialIndex(100, 100, 50);
+        TestControl a = new TestControl(0, 0, 40, 40);
+        TestControl b = new TestControl(300, 10, 40, 40);
+        index.insert(a);
+        index.insert(b);
+
+        index.resize(400, 100);
+        assertEquals(8, index.getColumns());
+        assertEquals(2, index.getRows());
+        assertEquals(Arrays.asList(a), this.query(index, 10, 10));
+        assertEquals(Arrays.asList(b), this.query(index, 310, 20));
+        assertEquals(Collections.emptyList(), this.query(index, 210, 20));
+
+        // the same number of cells leaves the grid alone
+        index.resize(390, 90);
+        assertEquals(Arrays.asList(b), this.query(index, 310, 20));
+    }
+
+    @Test
+    public void screenResizesItsIndex()
+    {
+        TestScreen screen = this.game.getScreen();
+        TestControl control = new TestControl(1000, 400, 40, 40);
+        screen.addChildControl(control);
+
+        screen.setWidth(1100);
+        screen.setHeight(500);
+        GridSpatialIndex index = (GridSpatialIndex)screen.getSpatialIndex();
+        assertEquals(18, index.getColumns());
+        assertEquals(8, index.getRows());
+        assertEquals(Arrays.asList(control), this.query(index, 1010, 420));
+    }
+
+    private List<AbstractControl> query(SpatialIndex index, int x, int y)
+    {
+        List<AbstractControl> result = new ArrayList<AbstractControl>();
+        index.query(x, y, result);
+        return result;
+    }
+
+}
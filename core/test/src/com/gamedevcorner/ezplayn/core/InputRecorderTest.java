@@ -0,0 +1,125 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+import com.gamedevcorner.ezplayn.headless.HeadlessPlatform;
+
+/**
+ * @author Prageeth Silva
+ */
+public class InputRecorderTest
+{
+
+    private static final float[] DELTAS = { 16, 16, 17.5f, 16, 33.25f, 16 };
+
+    @Test
+    public void replayDeliversTheRecordedSession()
+    {
+        TestGame game = TestGame.start();
+        TestControl control = new TestControl(10, 10, 100, 100);
+        game.getScreen().addChildControl(control);
+        InputRecorder recorder = new InputRecorder(8);
+        game.setInputRecorder(recorder);
+
+        HeadlessPlatform platform = game.getPlatform();
+        platform.pointer().start(20, 20);
+        platform.frame(DELTAS[0]);
+        platform.pointer().drag(30, 25);
+        platform.pointer().drag(40, 30);
+        platform.frame(DELTAS[1]);
+        platform.pointer().end(300, 300);
+        platform.frame(DELTAS[2]);
+        platform.mouse().wheel(3);
+        platform.keyboard().type(65);
+        platform.frame(DELTAS[3]);
+        platform.frame(DELTAS[4]);
+        platform.frame(DELTAS[5]);
+        game.setInputRecorder(null);
+
+        // the two drags are coalesced into the last one
+        String recorded = control.takeEvents();
+        assertEquals("down 10,10 move 30,20 up 290,290 leave keydown 65 keyup 65", recorded);
+        assertEquals(DELTAS.length, recorder.getFrameCount());
+        byte[] data = recorder.toByteArray();
+
+        // a fresh game fed the recording sees the same events and deltas
+        TestGame replayed = TestGame.start();
+        DeltaScreen deltas = new DeltaScreen(replayed);
+        TestControl replayedControl = new TestControl(10, 10, 100, 100);
+        deltas.addChildControl(replayedControl);
+        replayed.setCurrentScreen(deltas, null);
+
+        InputReplayer replayer = new InputReplayer(data);
+        replayer.setPainting(false);
+        assertEquals(DELTAS.length, replayer.replayAll(replayed));
+        assertFalse(replayer.hasMore());
+        assertEquals(recorded, replayedControl.takeEvents());
+        assertEquals(Arrays.toString(DELTAS), deltas.deltas.toString());
+
+        // recording the replay gives the same bytes
+        replayer.rewind();
+        InputRecorder again = new InputRecorder();
+        replayed.setInputRecorder(again);
+        replayer.replayAll(replayed);
+        assertArrayEquals(data, again.toByteArray());
+    }
+
+    @Test
+    public void repeatedDeltasTakeOneByte()
+    {
+        TestGame.start();
+        InputRecorder recorder = new InputRecorder();
+        recorder.recordFrame(16);
+        int length = recorder.getLength();
+        recorder.recordFrame(16);
+        recorder.recordFrame(16);
+        assertEquals(length + 2, recorder.getLength());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void replayerRejectsOtherData()
+    {
+        new InputReplayer(new byte[] { 'E', 'Z', 'I', 'X', 1 });
+    }
+
+    /* Auxiliary Classes */
+
+    private static class DeltaScreen extends TestScreen
+    {
+
+        final List<Float> deltas = new ArrayList<Float>();
+
+        DeltaScreen(TestGame game)
+        {
+            super(game);
+        }
+
+        @Override
+        public void update(float delta)
+        {
+            super.update(delta);
+            this.deltas.add(delta);
+        }
+
+    }
+
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+/**
+ * @author Prageeth Silva
+ */
+public class MessageTest
+{
+
+    private TestGame game;
+    private TestScreen screen;
+
+    @Before
+    public void setUp()
+    {
+        this.game = TestGame.start();
+        this.screen = this.game.getScreen();
+    }
+
+    @Test
+    public void createdTextMessagesSurviveBeingCleared()
+    {
+        Message message = Message.createTextMessage(100, 20, "hello");
+        assertFalse(message.isPooled());
+
+        this.screen.showMessages(message);
+        this.screen.clearMessages();
+        assertFalse(message.isActive());
+
+        // the caller still owns it and can show it again
+        this.screen.showMessages(message);
+        assertTrue(message.isActive());
+        assertTrue(this.screen.getActiveMessages().contains(message));
+    }
+
+    @Test
+    public void obtainedTextMessagesAreFreedWhenCleared()
+    {
+        Pool<? extends Message> pool = Message.getTextMessagePool();
+        pool.clear();
+        Message message = Message.obtainTextMessage(100, 20, "hello");
+        assertTrue(message.isPooled());
+
+        this.screen.showMessages(message);
+        this.screen.clearMessages();
+        assertFalse(message.isPooled());
+        assertEquals(1, pool.getFreeCount());
+        assertSame(message, Message.obtainTextMessage(50, 20, "again"));
+    }
+
+}
@@ -0,0 +1,160 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+import playn.core.*;
+
+import com.gamedevcorner.ezplayn.headless.*;
+
+/**
+ * @author Prageeth Silva
+ */
+public class NinePatchTest
+{
+
+    private NinePatch patch;
+
+    @Before
+    public void setUp()
+    {
+        TestGame.start();
+        this.patch = new NinePatch(new HeadlessImage(30, 30), 10, 10, 10, 10);
+    }
+
+    @Test
+    public void layersShowOneImageOfTheirSize()
+    {
+        ImageLayer layer = this.patch.createLayer(100, 40.5f);
+        HeadlessImage image = (HeadlessImage)layer.image();
+        assertEquals(100, image.width());
+        assertEquals(41, image.height());
+        assertEquals(9, image.canvas().getDrawCount());
+    }
+
+    @Test
+    public void sizesAreSharedWithinTheBudget()
+    {
+        Image image = this.patch.getImage(100, 40);
+        assertSame(image, this.patch.createLayer(100, 40).image());
+
+        ImageLayer layer = this.patch.createLayer(100, 40);
+        this.patch.layout(layer, 200, 40);
+        assertEquals(200, layer.image().width());
+        this.patch.layout(layer, 100, 40);
+        assertSame(image, layer.image());
+
+        // many sizes fit in the default budget
+        for (int i = 1; i <= 20; i++)
+        {
+            this.patch.getImage(100 + i, 40);
+        }
+        assertSame(image, this.patch.getImage(100, 40));
+        assertEquals(ScreenCache.estimateBytes(200, 40) + 21 * ScreenCache.estimateBytes(100, 40) + 210 * 4 * 40,
+                this.patch.getUsedBytes());
+    }
+
+    @Test
+    public void leastRecentlyUsedSizesGoOverBudget()
+    {
+        Image a = this.patch.getImage(100, 40);
+        Image b = this.patch.getImage(200, 40);
+        this.patch.setBudget(ScreenCache.estimateBytes(300, 40));
+        assertSame(a, this.patch.getImage(100, 40));
+
+        // b is the oldest now
+        Image c = this.patch.getImage(150, 40);
+        assertEquals(ScreenCache.estimateBytes(250, 40), this.patch.getUsedBytes());
+        assertSame(a, this.patch.getImage(100, 40));
+        assertSame(c, this.patch.getImage(150, 40));
+        assertNotSame(b, this.patch.getImage(200, 40));
+
+        // the image just drawn is kept even if it does not fit
+        this.patch.setBudget(0);
+        assertEquals(0, this.patch.getUsedBytes());
+        Image d = this.patch.getImage(300, 40);
+        assertSame(d, this.patch.getImage(300, 40));
+    }
+
+    @Test
+    public void fractionalSizesAreDrawnAtTheImageSize()
+    {
+        final float[] drawn = new float[2];
+        NinePatch patch = new NinePatch(new HeadlessImage(30, 30), 10, 10, 10, 10) {
+
+            @Override
+            public void draw(Canvas canvas, float x, float y, float width, float height)
+            {
+                drawn[0] = width;
+                drawn[1] = height;
+            }
+
+        };
+        Image image = patch.getImage(100.2f, 40.2f);
+        assertEquals(101, drawn[0], 0);
+        assertEquals(41, drawn[1], 0);
+        assertSame(image, patch.getImage(100.7f, 40.9f));
+    }
+
+    @Test
+    public void smallSizesShrinkTheCorners()
+    {
+        HeadlessImage image = (HeadlessImage)this.patch.getImage(10, 10);
+        // only the four corners are left
+        assertEquals(4, image.canvas().getDrawCount());
+    }
+
+    @Test
+    public void controlsResizeTheirBackground()
+    {
+        Message message = new Message(50, 50, null);
+        message.setBackgroundPatch(this.patch);
+        long bytes = this.patch.getUsedBytes();
+        message.setWidth(120);
+        message.setHeight(60);
+        assertEquals(bytes, this.patch.getUsedBytes());
+
+        // the new size is drawn once, when the layout is committed
+        message.commitLayout();
+        Image image = message.backgroundPatchLayer.image();
+        assertEquals(120, image.width());
+        assertEquals(60, image.height());
+        assertEquals(bytes + ScreenCache.estimateBytes(120, 60), this.patch.getUsedBytes());
+        assertEquals(ScreenCache.estimateBytes(120, 60), message.estimateBytes());
+    }
+
+    @Test
+    public void buttonsResizeBothPatches()
+    {
+        NinePatch disabled = new NinePatch(new HeadlessImage(30, 30), 10, 10, 10, 10);
+        AbstractButton button = new AbstractButton(50, 50) { };
+        button.setBackgroundPatch(this.patch);
+        button.setDisabledPatch(disabled);
+        button.setWidth(120);
+        button.setHeight(60);
+        button.commitLayout();
+        assertEquals(ScreenCache.estimateBytes(50, 50) + ScreenCache.estimateBytes(120, 60), disabled.getUsedBytes());
+        assertEquals(2 * ScreenCache.estimateBytes(120, 60), button.estimateBytes());
+
+        button.disable();
+        ImageLayer layer = (ImageLayer)((GroupLayer)button.getRootLayer()).get(0);
+        assertSame(disabled.getImage(120, 60), layer.image());
+    }
+
+}
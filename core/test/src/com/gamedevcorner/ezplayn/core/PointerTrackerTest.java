@@ -0,0 +1,112 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+/**
+ * @author Prageeth Silva
+ */
+public class PointerTrackerTest
+{
+
+    private PointerTracker tracker;
+    private TestControl a;
+    private TestControl b;
+
+    @Before
+    public void setUp()
+    {
+        TestGame.start();
+        this.tracker = new PointerTracker();
+        this.a = new TestControl(0, 0, 50, 50);
+        this.b = new TestControl(100, 0, 50, 50);
+    }
+
+    @Test
+    public void downCapturesThePointerUntilUp()
+    {
+        this.tracker.pointerDown(this.hits(this.a), 10, 10);
+        assertTrue(this.tracker.isCapturing(this.a));
+
+        // the captured control follows the pointer outside its bounds
+        this.tracker.pointerMove(this.hits(this.b), 110, 10);
+        this.tracker.pointerUp(this.hits(this.b), 120, 10);
+        assertEquals("down 10,10 leave move 110,10 up 120,10", this.a.takeEvents());
+        assertEquals("", this.b.takeEvents());
+        assertFalse(this.tracker.isCaptured());
+
+        // once released, moves go to the controls under the pointer
+        this.tracker.pointerMove(this.hits(this.b), 110, 20);
+        assertEquals("", this.a.takeEvents());
+        assertEquals("move 10,20", this.b.takeEvents());
+    }
+
+    @Test
+    public void downStartsHovering()
+    {
+        // a touch goes down without moving there first
+        this.tracker.pointerDown(this.hits(this.a), 10, 10);
+        this.tracker.pointerUp(this.hits(this.a), 10, 10);
+        assertTrue(this.tracker.isHovering(this.a));
+        this.a.takeEvents();
+
+        this.tracker.pointerMove(this.hits(), 200, 200);
+        assertEquals("leave", this.a.takeEvents());
+        assertFalse(this.tracker.isHovering(this.a));
+    }
+
+    @Test
+    public void upHoversTheControlsUnderThePointer()
+    {
+        this.tracker.pointerMove(this.hits(this.a), 10, 10);
+        this.tracker.pointerDown(this.hits(this.a), 10, 10);
+        this.a.takeEvents();
+
+        // dropped over b without a move in between
+        this.tracker.pointerUp(this.hits(this.b), 110, 10);
+        assertEquals("up 110,10 leave", this.a.takeEvents());
+        assertTrue(this.tracker.isHovering(this.b));
+
+        this.tracker.pointerMove(this.hits(), 200, 200);
+        assertEquals("leave", this.b.takeEvents());
+        assertEquals("", this.a.takeEvents());
+    }
+
+    @Test
+    public void removedControlsAreForgotten()
+    {
+        this.tracker.pointerDown(this.hits(this.a), 10, 10);
+        this.tracker.remove(this.a);
+        assertFalse(this.tracker.isCaptured());
+        assertFalse(this.tracker.isHovering(this.a));
+        this.a.takeEvents();
+
+        this.tracker.pointerMove(this.hits(), 200, 200);
+        this.tracker.pointerUp(this.hits(), 200, 200);
+        assertEquals("", this.a.takeEvents());
+    }
+
+    private List<AbstractControl> hits(AbstractControl... controls)
+    {
+        return new ArrayList<AbstractControl>(Arrays.asList(controls));
+    }
+
+}
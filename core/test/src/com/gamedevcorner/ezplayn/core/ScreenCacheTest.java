@@ -0,0 +1,153 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+/**
+ * @author Prageeth Silva
+ */
+public class ScreenCacheTest
+{
+
+    private TestGame game;
+    private ScreenCache cache;
+
+    @Before
+    public void setUp()
+    {
+        this.game = TestGame.start();
+        this.cache = this.game.getScreenCache();
+        this.cache.setBudget(250);
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedScreen()
+    {
+        SizedScreen a = this.put("a", 100);
+        SizedScreen b = this.put("b", 100);
+        assertEquals(200, this.cache.getUsedBytes());
+
+        SizedScreen c = this.put("c", 100);
+        assertTrue(a.evicted);
+        assertFalse(this.cache.contains("a"));
+        assertEquals(200, this.cache.getUsedBytes());
+
+        // using b makes c the oldest
+        assertSame(b, this.cache.get("b"));
+        this.put("d", 100);
+        assertTrue(c.evicted);
+        assertFalse(b.evicted);
+        assertEquals(2, this.cache.size());
+    }
+
+    @Test
+    public void screensInUseAreNotEvicted()
+    {
+        SizedScreen a = this.put("a", 100);
+        SizedScreen b = this.put("b", 100);
+        this.game.showCachedScreen("a", null);
+        this.game.showCachedScreen("b", null);
+        assertSame(a, b.getPreviousScreen());
+
+        // a is the oldest, but b is shown and goes back to it
+        SizedScreen c = this.put("c", 100);
+        assertFalse(a.evicted);
+        assertFalse(b.evicted);
+        assertTrue(c.evicted);
+        assertEquals(200, this.cache.getUsedBytes());
+    }
+
+    @Test
+    public void usedBytesFollowRemoveAndShow()
+    {
+        SizedScreen a = this.put("a", 100);
+        this.put("b", 50);
+        assertSame(a, this.cache.remove("a"));
+        assertEquals(50, this.cache.getUsedBytes());
+
+        this.cache.put("a", a);
+        a.bytes = 150;
+        assertEquals(150, this.cache.getUsedBytes());
+        this.game.showCachedScreen("a", null);
+        assertEquals(200, this.cache.getUsedBytes());
+    }
+
+    @Test
+    public void historyOfUncachedScreensIsBounded()
+    {
+        for (int i = 0; i < 20; i++)
+        {
+            this.game.setCurrentScreen(new TestScreen(this.game), null);
+        }
+        int links = 0;
+        for (AbstractGameScreen<?> s = this.game.getCurrentScreen(); s.getPreviousScreen() != null; s = s.getPreviousScreen())
+        {
+            links++;
+        }
+        assertEquals(ScreenCache.DEFAULT_MAX_HISTORY, links);
+    }
+
+    @Test
+    public void historyLoopsAreKept()
+    {
+        TestScreen a = new TestScreen(this.game);
+        TestScreen b = new TestScreen(this.game);
+        this.game.setCurrentScreen(a, null);
+        this.game.setCurrentScreen(b, null);
+        this.game.setCurrentScreen(a, null);
+        assertSame(b, a.getPreviousScreen());
+        assertSame(a, b.getPreviousScreen());
+    }
+
+    private SizedScreen put(String key, long bytes)
+    {
+        SizedScreen screen = new SizedScreen(this.game, bytes);
+        this.cache.put(key, screen);
+        return screen;
+    }
+
+    /* Auxiliary Classes */
+
+    private static class SizedScreen extends TestScreen
+    {
+
+        long bytes;
+        boolean evicted = false;
+
+        SizedScreen(TestGame game, long bytes)
+        {
+            super(game);
+            this.bytes = bytes;
+        }
+
+        @Override
+        public long estimateBytes()
+        {
+            return this.bytes;
+        }
+
+        @Override
+        public void onEvicted()
+        {
+            this.evicted = true;
+        }
+
+    }
+
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+import com.gamedevcorner.ezplayn.headless.HeadlessImage;
+
+/**
+ * @author Prageeth Silva
+ */
+public class SpriteBatchTest
+{
+
+    private SpriteBatch batch;
+
+    @Before
+    public void setUp()
+    {
+        TestGame.start();
+        this.batch = new SpriteBatch(100, 100, 2);
+        this.batch.addFrame(new HeadlessImage(10, 10));
+        this.batch.setInterpolating(true);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void addRejectsUnknownFrames()
+    {
+        this.batch.add(0, 0, 1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void setFrameRejectsUnknownFrames()
+    {
+        int s = this.batch.add(0, 0, 0);
+        this.batch.setFrame(s, -1);
+    }
+
+    @Test
+    public void teleportedSpritesAreNotInterpolated()
+    {
+        int s = this.batch.add(-50, 0, 0);
+        this.batch.setVelocity(s, 1000, 0);
+        this.batch.update(10);
+        this.batch.setPosition(s, 40, 40);
+
+        // drawn at the start of the interpolation, which is the new position
+        this.batch.paint(0);
+        assertEquals(1, this.batch.getDrawnCount());
+    }
+
+    @Test
+    public void addedSpritesAreNotInterpolated()
+    {
+        int s = this.batch.add(-50, 0, 0);
+        this.batch.remove(s);
+        this.batch.update(10);
+        this.batch.add(40, 40, 0);
+        this.batch.paint(0);
+        assertEquals(1, this.batch.getDrawnCount());
+    }
+
+    @Test
+    public void wrappedSpritesAreNotInterpolated()
+    {
+        int s = this.batch.add(95, 40, 0);
+        this.batch.setFlags(s, SpriteBatch.VISIBLE | SpriteBatch.WRAP);
+        this.batch.setVelocity(s, 1000, 0);
+        this.batch.update(10);
+        assertEquals(5, this.batch.getSpriteX(s), 0.001f);
+        this.batch.paint(0);
+        assertEquals(1, this.batch.getDrawnCount());
+    }
+
+    @Test
+    public void batchGrowsPastItsCapacity()
+    {
+        for (int i = 0; i < 5; i++)
+        {
+            this.batch.add(i * 10, 0, 0);
+        }
+        assertEquals(5, this.batch.size());
+        assertTrue(this.batch.getCapacity() >= 5);
+        assertEquals(40, this.batch.getSpriteX(4), 0);
+        this.batch.paint(1);
+        assertEquals(5, this.batch.getDrawnCount());
+    }
+
+}
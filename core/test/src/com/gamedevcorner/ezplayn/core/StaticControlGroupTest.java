@@ -0,0 +1,142 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+import playn.core.*;
+
+import com.gamedevcorner.ezplayn.headless.HeadlessImage;
+
+/**
+ * @author Prageeth Silva
+ */
+public class StaticControlGroupTest
+{
+
+    private StaticControlGroup group;
+
+    @Before
+    public void setUp()
+    {
+        TestGame.start();
+        this.group = new StaticControlGroup(200, 100);
+    }
+
+    @Test
+    public void idleGroupsAreNotDrawnAgain()
+    {
+        this.group.addChildControl(new TestControl(0, 0, 20, 20));
+        this.group.paint(0);
+        int rasters = this.group.getRasterCount();
+        this.group.paint(0);
+        this.group.paint(0);
+        assertEquals(rasters, this.group.getRasterCount());
+    }
+
+    @Test
+    public void ninePatchBackgroundIsDrawnIntoTheImage()
+    {
+        NinePatch patch = new NinePatch(new HeadlessImage(30, 30), 10, 10, 10, 10);
+        StaticControlGroup group = new StaticControlGroup(200, 100, null);
+        group.setBackgroundPatch(patch);
+        assertSame(patch, group.getBackgroundPatch());
+        GroupLayer root = (GroupLayer)group.getRootLayer();
+        assertEquals(1, root.size());
+        assertTrue(root.get(0) instanceof ImageLayer);
+        group.paint(0);
+        assertEquals(1, group.getRasterCount());
+    }
+
+    @Test
+    public void animatedChildrenKeepTheirLayers()
+    {
+        AnimatedControl animated = new AnimatedControl();
+        TestControl still = new TestControl(50, 0, 20, 20);
+        this.group.addChildControl(animated);
+        this.group.addChildControl(still);
+        GroupLayer root = (GroupLayer)this.group.getRootLayer();
+        assertSame(root, animated.getRootLayer().parent());
+        assertNull(still.getRootLayer().parent());
+
+        // scaling the animated child needs no new image
+        this.group.paint(0);
+        int rasters = this.group.getRasterCount();
+        animated.getRootLayer().setScale(1.5f);
+        this.group.paint(0);
+        assertEquals(rasters, this.group.getRasterCount());
+
+        // once it stops animating it is drawn into the image
+        animated.animated = false;
+        this.group.paint(0);
+        assertNull(animated.getRootLayer().parent());
+        assertEquals(rasters + 1, this.group.getRasterCount());
+
+        this.group.removeChildControl(still);
+        animated.animated = true;
+        this.group.paint(0);
+        this.group.removeChildControl(animated);
+        assertNull(animated.getRootLayer().parent());
+    }
+
+    @Test
+    public void changesDuringADispatchAreDeferred()
+    {
+        final TestControl added = new TestControl(100, 0, 20, 20);
+        TestControl remover = new TestControl(0, 0, 50, 50) {
+
+            @Override
+            public void onPointerDown(int x, int y)
+            {
+                StaticControlGroup group = StaticControlGroupTest.this.group;
+                assertTrue(group.removeChildControl(this));
+                assertTrue(group.addChildControl(added));
+                assertEquals(1, group.getChildControls().size());
+            }
+
+        };
+        this.group.addChildControl(remover);
+
+        this.group.onPointerDown(10, 10);
+        assertEquals(1, this.group.getChildControls().size());
+        assertSame(added, this.group.getChildControls().iterator().next());
+        assertNull(remover.getParent());
+        assertSame(this.group, added.getParent());
+    }
+
+    /* Auxiliary Classes */
+
+    private static class AnimatedControl extends TestControl
+    {
+
+        boolean animated = true;
+
+        AnimatedControl()
+        {
+            super(0, 0, 20, 20);
+        }
+
+        @Override
+        public boolean isAnimated()
+        {
+            return this.animated;
+        }
+
+    }
+
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+/**
+ * A control without a background that records the events it receives,
+ * such as <code>"down 5,5 leave"</code>.
+ * @author Prageeth Silva
+ */
+public class TestControl extends AbstractControl
+{
+
+    private final StringBuilder events = new StringBuilder();
+
+    public TestControl(int x, int y, int width, int height)
+    {
+        super(width, height);
+        this.commitLayout(x, y);
+    }
+
+    /**
+     * Gets the events received since the last call, and forgets them.
+     * @return The events separated by spaces, empty if there were none.
+     */
+    public String takeEvents()
+    {
+        String events = this.events.toString().trim();
+        this.events.setLength(0);
+        return events;
+    }
+
+    private void record(String event)
+    {
+        this.events.append(event).append(' ');
+    }
+
+    @Override
+    public void init(ActionCallback<Void> callback, Object obj) { /* NOOP */ }
+
+    @Override
+    public void update(float delta) { /* NOOP */ }
+
+    @Override
+    public void paint(float alpha) { /* NOOP */ }
+
+    @Override
+    public void onPointerDown(int x, int y)
+    {
+        this.record("down " + x + "," + y);
+    }
+
+    @Override
+    public void onPointerUp(int x, int y)
+    {
+        this.record("up " + x + "," + y);
+    }
+
+    @Override
+    public void onPointerMove(int x, int y)
+    {
+        this.record("move " + x + "," + y);
+    }
+
+    @Override
+    public void onPointerLeave(int x, int y)
+    {
+        this.record("leave");
+    }
+
+    @Override
+    public void onPointerScroll(int velocity)
+    {
+        this.record("scroll " + velocity);
+    }
+
+    @Override
+    public void onKeyDown(int keyCode)
+    {
+        this.record("keydown " + keyCode);
+    }
+
+    @Override
+    public void onKeyUp(int keyCode)
+    {
+        this.record("keyup " + keyCode);
+    }
+
+}
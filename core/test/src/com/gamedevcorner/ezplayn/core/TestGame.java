@@ -0,0 +1,82 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import com.gamedevcorner.ezplayn.headless.HeadlessPlatform;
+
+/**
+ * A game run by the tests on a fresh {@link HeadlessPlatform}, showing an
+ * empty {@link TestScreen} once started.
+ * @author Prageeth Silva
+ */
+public class TestGame extends AbstractExtendedGame
+{
+
+    public static final int WIDTH = 640;
+    public static final int HEIGHT = 480;
+
+    public static final float FRAME = 16;
+
+    private final HeadlessPlatform platform;
+
+    private TestScreen screen = null;
+
+    /**
+     * Creates a game on a new platform and runs it past its loading frames.
+     * @return The game, showing its {@link TestScreen}.
+     */
+    public static TestGame start()
+    {
+        HeadlessPlatform platform = HeadlessPlatform.register();
+        TestGame game = new TestGame(platform);
+        platform.run(game);
+        // the first two frames load the screens
+        platform.runFrames(2, FRAME);
+        return game;
+    }
+
+    private TestGame(HeadlessPlatform platform)
+    {
+        super(WIDTH, HEIGHT);
+        this.platform = platform;
+    }
+
+    @Override
+    public AbstractGameScreen<?> loadScreens()
+    {
+        this.screen = new TestScreen(this);
+        return this.screen;
+    }
+
+    /**
+     * Runs one frame, dispatching the input injected since the last one.
+     */
+    public void frame()
+    {
+        this.platform.frame(FRAME);
+    }
+
+    public HeadlessPlatform getPlatform()
+    {
+        return this.platform;
+    }
+
+    public TestScreen getScreen()
+    {
+        return this.screen;
+    }
+
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+/**
+ * An empty screen covering the whole {@link TestGame}, the tests add their
+ * own controls to it.
+ * @author Prageeth Silva
+ */
+public class TestScreen extends AbstractGameScreen<TestGame>
+{
+
+    public TestScreen(TestGame game)
+    {
+        super(game, TestGame.WIDTH, TestGame.HEIGHT);
+        this.rootLayer.add(this.controlLayer);
+    }
+
+    @Override
+    public void init(ActionCallback<Void> callback, Object obj) { /* NOOP */ }
+
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+import playn.core.*;
+
+import com.gamedevcorner.ezplayn.headless.HeadlessImage;
+
+/**
+ * @author Prageeth Silva
+ */
+public class TextureAtlasTest
+{
+
+    @Before
+    public void setUp()
+    {
+        TestGame.start();
+    }
+
+    @Test
+    public void packingLetsGoOfTheSourceImages()
+    {
+        TextureAtlas atlas = new TextureAtlas(256, 1);
+        Image image = new HeadlessImage(40, 30);
+        AtlasRegion region = atlas.add(image);
+        assertSame(region, atlas.add(image));
+        assertSame(image, region.getPage());
+
+        assertEquals(1, atlas.pack());
+        assertTrue(region.isPacked());
+        assertNull(region.getSource());
+        assertEquals(40, region.getWidth());
+        assertEquals(30, region.getHeight());
+        assertSame(atlas.getPages().get(0), region.getPage());
+        assertEquals(0, atlas.pack());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void layersNeedAPackedAtlas()
+    {
+        new TextureAtlas().add(new HeadlessImage(10, 10)).createLayer();
+    }
+
+    @Test
+    public void layersShowTheRegionOfThePage()
+    {
+        TextureAtlas atlas = new TextureAtlas();
+        atlas.add(new HeadlessImage(20, 20));
+        AtlasRegion region = atlas.add(new HeadlessImage(10, 10));
+        atlas.pack();
+        ImageLayer layer = region.createLayer();
+        assertSame(region.getPage(), layer.image());
+        assertEquals(10, layer.width(), 0);
+        assertEquals(10, layer.height(), 0);
+    }
+
+    @Test
+    public void buttonsSwapTheirRegions()
+    {
+        TextureAtlas atlas = new TextureAtlas();
+        AtlasRegion active = atlas.add(new HeadlessImage(20, 10));
+        AtlasRegion disabled = atlas.add(new HeadlessImage(20, 10));
+        atlas.pack();
+
+        // plain null images still pick the image constructor
+        AbstractButton button = new AbstractButton(20, 10, null, null) { };
+        GroupLayer root = (GroupLayer)button.getRootLayer();
+        assertEquals(0, root.size());
+        button.setBackgroundRegion(active);
+        button.setDisabledRegion(disabled);
+        assertEquals(1, root.size());
+        Layer activeLayer = root.get(0);
+        assertSame(active.getPage(), ((ImageLayer)activeLayer).image());
+
+        button.disable();
+        assertFalse(button.isEnabled());
+        assertEquals(1, root.size());
+        assertNotSame(activeLayer, root.get(0));
+
+        // a new disabled region keeps the button disabled
+        button.setDisabledRegion(active);
+        assertFalse(button.isEnabled());
+        assertEquals(1, root.size());
+        button.enable();
+        assertSame(activeLayer, root.get(0));
+        assertSame(active, button.getBackgroundRegion());
+    }
+
+    @Test
+    public void regionsOnAPageDoNotOverlap()
+    {
+        TextureAtlas atlas = new TextureAtlas(128, 2);
+        AtlasRegion[] regions = new AtlasRegion[40];
+        for (int i = 0; i < regions.length; i++)
+        {
+            regions[i] = atlas.add(new HeadlessImage(10 + i % 7, 10 + i % 5));
+        }
+        assertEquals(regions.length, atlas.pack());
+        for (int i = 0; i < regions.length; i++)
+        {
+            AtlasRegion a = regions[i];
+            assertTrue(a.getX() + a.getWidth() <= a.getPage().width());
+            assertTrue(a.getY() + a.getHeight() <= a.getPage().height());
+            for (int j = i + 1; j < regions.length; j++)
+            {
+                AtlasRegion b = regions[j];
+                boolean apart = a.getPage() != b.getPage()
+                        || a.getX() + a.getWidth() <= b.getX() || b.getX() + b.getWidth() <= a.getX()
+                        || a.getY() + a.getHeight() <= b.getY() || b.getY() + b.getHeight() <= a.getY();
+                assertTrue(apart);
+            }
+        }
+    }
+
+}
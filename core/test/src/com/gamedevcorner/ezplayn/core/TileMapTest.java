@@ -0,0 +1,119 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+import com.gamedevcorner.ezplayn.headless.*;
+
+/**
+ * @author Prageeth Silva
+ */
+public class TileMapTest
+{
+
+    // 32 by 32 pixel chunks, four of them fill the window
+    private static final long CHUNK_BYTES = ScreenCache.estimateBytes(32, 32);
+
+    private TileMap map;
+
+    @Before
+    public void setUp()
+    {
+        TestGame.start();
+        this.map = new TileMap(64, 64, new HeadlessImage(64, 64), 16, 16, 20, 20, 2);
+        this.map.fill(0);
+    }
+
+    @Test
+    public void visibleChunksAreDrawnOnce()
+    {
+        this.scrollTo(0, 0);
+        assertEquals(4, this.map.getDrawnChunkCount());
+        assertEquals(4, this.map.getRenderedChunkCount());
+        assertEquals(4, this.map.getCachedChunkCount());
+
+        this.scrollTo(10, 10);
+        assertEquals(9, this.map.getDrawnChunkCount());
+        assertEquals(9, this.map.getRenderedChunkCount());
+        this.scrollTo(0, 0);
+        assertEquals(9, this.map.getRenderedChunkCount());
+    }
+
+    @Test
+    public void leastRecentlyShownChunksAreEvicted()
+    {
+        this.map.setBudget(6 * CHUNK_BYTES);
+        this.scrollTo(0, 0);
+        this.scrollTo(32, 0);
+        assertEquals(6, this.map.getCachedChunkCount());
+        assertEquals(6, this.map.getRenderedChunkCount());
+
+        // the first column of chunks is the oldest and makes room for the fourth
+        this.scrollTo(64, 0);
+        assertEquals(6, this.map.getCachedChunkCount());
+        assertEquals(8, this.map.getRenderedChunkCount());
+        this.scrollTo(32, 0);
+        assertEquals(8, this.map.getRenderedChunkCount());
+        this.scrollTo(0, 0);
+        assertEquals(10, this.map.getRenderedChunkCount());
+        assertEquals(6, this.map.getCachedChunkCount());
+    }
+
+    @Test
+    public void shownChunksAreKeptOverBudget()
+    {
+        this.map.setBudget(CHUNK_BYTES);
+        this.scrollTo(0, 0);
+        assertEquals(4, this.map.getDrawnChunkCount());
+        assertEquals(4, this.map.getCachedChunkCount());
+
+        // the chunks shown last are kept, the others make room for them
+        this.scrollTo(192, 192);
+        assertEquals(4, this.map.getCachedChunkCount());
+        assertEquals(8, this.map.getRenderedChunkCount());
+        this.map.setBudget(0);
+        assertEquals(4, this.map.getCachedChunkCount());
+    }
+
+    @Test
+    public void settingATileRedrawsOnlyItsCachedChunk()
+    {
+        this.scrollTo(0, 0);
+        this.map.setTile(3, 1, 5);
+        this.map.paint(0);
+        assertEquals(5, this.map.getRenderedChunkCount());
+
+        // chunks that are not cached are drawn when they are shown
+        this.map.setTile(10, 10, 5);
+        this.map.paint(0);
+        assertEquals(5, this.map.getRenderedChunkCount());
+        assertEquals(5, this.map.getTile(10, 10));
+
+        this.map.invalidate();
+        this.map.paint(0);
+        assertEquals(9, this.map.getRenderedChunkCount());
+    }
+
+    private void scrollTo(float x, float y)
+    {
+        this.map.setScroll(x, y);
+        this.map.paint(0);
+    }
+
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright 2011 The EzPlayN Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.gamedevcorner.ezplayn.headless;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+import com.gamedevcorner.ezplayn.core.*;
+
+/**
+ * @author Prageeth Silva
+ */
+public class HeadlessPlatformTest
+{
+
+    private TestGame game;
+    private HeadlessPlatform platform;
+
+    @Before
+    public void setUp()
+    {
+        this.game = TestGame.start();
+        this.platform = this.game.getPlatform();
+    }
+
+    @Test
+    public void framesMoveTheManualClock()
+    {
+        double time = this.platform.time();
+        long frames = this.platform.getFrameCount();
+        this.platform.runFrames(10, 16);
+        assertEquals(time + 160, this.platform.time(), 0);
+        assertEquals(frames + 10, this.platform.getFrameCount());
+        this.platform.advanceTime(5);
+        assertEquals(time + 165, this.platform.time(), 0);
+    }
+
+    @Test
+    public void gameShowsItsScreenAfterLoading()
+    {
+        assertSame(this.game.getScreen(), this.game.getCurrentScreen());
+        assertEquals(TestGame.WIDTH, this.platform.graphics().width());
+        assertEquals(TestGame.HEIGHT, this.platform.graphics().height());
+    }
+
+    @Test
+    public void injectedPointerReachesControlsOnTheNextFrame()
+    {
+        TestControl control = new TestControl(10, 10, 50, 50);
+        this.game.getScreen().addChildControl(control);
+
+        this.platform.pointer().click(20, 30);
+        assertEquals("", control.takeEvents());
+        this.game.frame();
+        assertEquals("down 10,20 up 10,20", control.takeEvents());
+
+        // the pointer went down elsewhere, leaving the control
+        this.platform.pointer().click(200, 200);
+        this.game.frame();
+        assertEquals("leave", control.takeEvents());
+    }
+
+    @Test
+    public void layersAreKeptInMemory()
+    {
+        HeadlessGroupLayer root = this.platform.graphics().rootLayer();
+        int layers = root.countVisibleLayers();
+        TestControl control = new TestControl(0, 0, 10, 10);
+        this.game.getScreen().addChildControl(control);
+        assertEquals(layers + 1, root.countVisibleLayers());
+        control.getRootLayer().setVisible(false);
+        assertEquals(layers, root.countVisibleLayers());
+    }
+
+}